@@ -0,0 +1,70 @@
+package com.example.sbg.benchmarks;
+
+import com.example.sbg.api.models.TweetResp;
+import com.example.sbg.model.HashTag;
+import com.example.sbg.model.Tweet;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Deterministic synthetic tweets shared by the benchmarks.
+ */
+final class BenchmarkData {
+
+    static final int TAG_POOL = 50;
+
+    private BenchmarkData() {
+    }
+
+    static String tag(int i) {
+        return "#tag_" + (i % TAG_POOL);
+    }
+
+    static String username(int i, int users) {
+        return "user_" + (i % users);
+    }
+
+    static List<String> tagsOf(int i) {
+        List<String> tags = new ArrayList<>();
+        for (int t = 0; t < i % 4; t++) {
+            tags.add(tag(i * 7 + t * 13));
+        }
+        return tags;
+    }
+
+    static List<Tweet> tweets(int count) {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<Tweet> tweets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Tweet tweet = new Tweet();
+            tweet.setId((long) i + 1);
+            tweet.setUsername(username(i, 10));
+            tweet.setContent("Benchmark tweet number " + i + " with some ordinary length text in it");
+            Set<HashTag> hashTags = new HashSet<>();
+            for (String name : tagsOf(i)) {
+                HashTag hashTag = new HashTag();
+                hashTag.setId((long) name.hashCode());
+                hashTag.setHashTag(name);
+                hashTags.add(hashTag);
+            }
+            tweet.setHashtags(hashTags);
+            tweet.setCreatedAt(base.plusSeconds(i));
+            tweets.add(tweet);
+        }
+        return tweets;
+    }
+
+    static List<TweetResp> tweetResps(int count) {
+        List<TweetResp> resps = new ArrayList<>(count);
+        for (Tweet tweet : tweets(count)) {
+            resps.add(new TweetResp(tweet.getId().toString(), tweet.getContent(),
+                    tweet.getHashtags().stream().map(HashTag::getHashTag).toList(),
+                    tweet.getUsername(), tweet.getCreatedAt().toString()));
+        }
+        return resps;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.sbg.benchmarks;
+
+import com.example.sbg.validation.TweetValidator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hash tag and username checks as run by {@code TweetService.createTweet} and
+ * {@code TweeterController.getTweets} for every tag and username of a request: the original
+ * {@code String.matches} calls against {@link TweetValidator}'s char-class scan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HashtagValidationBenchmark {
+
+    private List<String> hashtags;
+    private List<String> usernames;
+
+    @Setup
+    public void setUp() {
+        hashtags = new ArrayList<>();
+        usernames = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            hashtags.add(BenchmarkData.tag(i));
+            usernames.add(BenchmarkData.username(i, 100));
+        }
+    }
+
+    @Benchmark
+    public void stringMatches(Blackhole blackhole) {
+        for (String tag : hashtags) {
+            blackhole.consume(tag.matches("^#[a-zA-Z0-9_]*$"));
+        }
+        for (String name : usernames) {
+            blackhole.consume(name.matches("^[a-zA-Z0-9_]*$"));
+        }
+    }
+
+    @Benchmark
+    public void tweetValidator(Blackhole blackhole) {
+        for (String tag : hashtags) {
+            blackhole.consume(TweetValidator.isValidHashTag(tag));
+        }
+        for (String name : usernames) {
+            blackhole.consume(TweetValidator.isValidUsername(name));
+        }
+    }
+}
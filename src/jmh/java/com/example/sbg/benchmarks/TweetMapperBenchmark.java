@@ -0,0 +1,33 @@
+package com.example.sbg.benchmarks;
+
+import com.example.sbg.api.models.TweetResp;
+import com.example.sbg.mappers.TweetMapper;
+import com.example.sbg.model.Tweet;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TweetMapperBenchmark {
+
+    @Param({"10", "100"})
+    public int pageSize;
+
+    private List<Tweet> tweets;
+
+    @Setup
+    public void setUp() {
+        tweets = BenchmarkData.tweets(pageSize);
+    }
+
+    @Benchmark
+    public List<TweetResp> toTweetRespList() {
+        return TweetMapper.toTweetRespList(tweets);
+    }
+}
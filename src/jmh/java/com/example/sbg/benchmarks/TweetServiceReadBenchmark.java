@@ -0,0 +1,120 @@
+package com.example.sbg.benchmarks;
+
+import com.example.sbg.TweeterApplication;
+import com.example.sbg.api.models.PostTweetReq;
+import com.example.sbg.api.models.TweetCursor;
+import com.example.sbg.api.models.TweetsPageResp;
+import com.example.sbg.services.ITweeterService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end {@link ITweeterService} reads against an embedded H2 database in MySQL mode, seeded with
+ * {@code corpusSize} tweets spread over {@code users} users and {@value BenchmarkData#TAG_POOL} tags.
+ * Override the corpus with e.g. {@code -Djmh.args="TweetServiceReadBenchmark -p corpusSize=100000"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TweetServiceReadBenchmark {
+
+    private static final int SEED_CHUNK = 500;
+
+    @Param({"20000"})
+    public int corpusSize;
+
+    @Param({"200"})
+    public int users;
+
+    @Param({"50"})
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private ITweeterService tweeterService;
+    private TweetCursor deepCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(TweeterApplication.class)
+                .web(WebApplicationType.NONE)
+                // Passed as arguments so they take precedence over application.properties.
+                .run("--spring.datasource.url=jdbc:h2:mem:bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driverClassName=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.root=WARN");
+        tweeterService = context.getBean(ITweeterService.class);
+
+        for (int offset = 0; offset < corpusSize; offset += SEED_CHUNK) {
+            int end = Math.min(corpusSize, offset + SEED_CHUNK);
+            for (int u = 0; u < users; u++) {
+                List<PostTweetReq> chunk = new ArrayList<>();
+                for (int i = offset + u; i < end; i += users) {
+                    chunk.add(new PostTweetReq("Benchmark tweet " + i, BenchmarkData.tagsOf(i)));
+                }
+                if (!chunk.isEmpty()) {
+                    tweeterService.createTweets(BenchmarkData.username(u, users), chunk, offset);
+                }
+            }
+        }
+
+        // A cursor half way through the corpus, reached by walking pages as a client would.
+        TweetCursor cursor = TweetCursor.FIRST;
+        for (int walked = 0; walked < corpusSize / 2; walked += 100) {
+            TweetsPageResp page = tweeterService.getAllTweets(cursor, 100);
+            if (page.getTweets().isEmpty()) {
+                break;
+            }
+            cursor = TweetCursor.after(page.getTweets().get(page.getTweets().size() - 1));
+        }
+        deepCursor = cursor;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TweetsPageResp allTweetsFirstPage() {
+        return tweeterService.getAllTweets(TweetCursor.FIRST, pageSize);
+    }
+
+    @Benchmark
+    public TweetsPageResp allTweetsDeepPage() {
+        return tweeterService.getAllTweets(deepCursor, pageSize);
+    }
+
+    @Benchmark
+    public TweetsPageResp byHashtags() {
+        return tweeterService.getTweetsByHashtags(List.of(BenchmarkData.tag(1), BenchmarkData.tag(2)), TweetCursor.FIRST, pageSize);
+    }
+
+    @Benchmark
+    public TweetsPageResp byUsernames() {
+        return tweeterService.getTweetsByUsernames(List.of(BenchmarkData.username(1, users), BenchmarkData.username(2, users)), TweetCursor.FIRST, pageSize);
+    }
+
+    @Benchmark
+    public TweetsPageResp byHashtagsAndUsernames() {
+        return tweeterService.getTweetsByHashtagsAndUsernames(List.of(BenchmarkData.tag(1)), List.of(BenchmarkData.username(1, users)), TweetCursor.FIRST, pageSize);
+    }
+
+    @Benchmark
+    public TweetsPageResp byHashtagsOffset() {
+        return tweeterService.getTweetsByHashtags(List.of(BenchmarkData.tag(1), BenchmarkData.tag(2)), 2, pageSize);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.sbg.benchmarks;
+
+import com.example.sbg.api.models.TweetCursor;
+import com.example.sbg.api.models.TweetResp;
+import com.example.sbg.api.models.TweetsPageResp;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TweetsPageRespSerializationBenchmark {
+
+    @Param({"10", "100"})
+    public int pageSize;
+
+    private ObjectMapper objectMapper;
+    private TweetsPageResp page;
+
+    @Setup
+    public void setUp() {
+        // Same module set as the ObjectMapper Spring MVC writes responses with.
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<TweetResp> tweets = BenchmarkData.tweetResps(pageSize);
+        page = new TweetsPageResp(tweets, TweetsPageResp.createNextPageUrl(TweetCursor.after(tweets.get(tweets.size() - 1)),
+                pageSize, List.of("#tag_1"), List.of()));
+    }
+
+    @Benchmark
+    public byte[] writeValueAsBytes() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.sbg.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load generator for {@code GET /tweets}: each simulated client sends its next request
+ * as soon as the previous one completes. Used to compare the platform-thread and virtual-thread
+ * modes of a running instance, for example
+ * <pre>
+ * java -jar target/tweeter.jar --spring.threads.virtual.enabled=true --server.tomcat.max-connections=10000
+ * mvn -Pjmh -DskipTests test-compile exec:exec@load-test -Dload.args="http://localhost:8080 1000,5000,10000 30"
+ * </pre>
+ * Arguments are the base URL, a comma separated list of client counts and the seconds to run each
+ * step. Every step prints throughput, p50, p99 and the number of non-200 responses.
+ * <p>
+ * Recorded on JDK 21.0.1, 1 vCPU, client and server on the same host, in-memory H2 in MySQL mode,
+ * 200 tweets, 20s steps, Hikari pool 20, admission timeout 2s; ranges over two runs:
+ * <pre>
+ *           platform threads                    virtual threads + gate
+ * clients   req/s     p99          errors       req/s     p99          errors
+ *    1000   335-337   6.8-7.2s     0            130-166   8.5-10.2s    26-72
+ *    5000   524-560   21.7-22.8s   0-1245       284-410   16.3-21.2s   1355-2577
+ *   10000   735-808   23.2-26.0s   2887-4535    462-520   24.4-27.9s   3243-3388
+ * </pre>
+ * Errors are failed or non-200 requests; their status split was not recorded. With an in-process
+ * database no request waits on I/O, so virtual threads have nothing to overlap on this host and the
+ * gated mode is slower. The gate sizing still needs a run against MySQL before the mode is enabled.
+ */
+public class TweetsLoadTest {
+
+    private static final int MAX_SAMPLES = 10_000_000;
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int[] clientCounts = Arrays.stream((args.length > 1 ? args[1] : "1000,5000,10000").split(","))
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        Duration stepDuration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 30);
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/tweets?limit=50"))
+                .header("X-Username", "loadtest")
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+
+        System.out.printf("%8s %12s %10s %10s %8s%n", "clients", "req/s", "p50 ms", "p99 ms", "errors");
+        for (int clients : clientCounts) {
+            Step step = new Step(client, request, clients, stepDuration);
+            step.run();
+            step.print();
+        }
+    }
+
+    private static class Step {
+
+        private final HttpClient client;
+        private final HttpRequest request;
+        private final int clients;
+        private final Duration duration;
+        private final long[] latencies = new long[MAX_SAMPLES];
+        private final AtomicInteger samples = new AtomicInteger();
+        private final AtomicLong errors = new AtomicLong();
+        private volatile long deadline;
+        private long elapsedNanos;
+
+        Step(HttpClient client, HttpRequest request, int clients, Duration duration) {
+            this.client = client;
+            this.request = request;
+            this.clients = clients;
+            this.duration = duration;
+        }
+
+        void run() throws InterruptedException {
+            CountDownLatch done = new CountDownLatch(clients);
+            long started = System.nanoTime();
+            deadline = started + duration.toNanos();
+            for (int i = 0; i < clients; i++) {
+                send(done);
+            }
+            done.await();
+            elapsedNanos = System.nanoTime() - started;
+        }
+
+        private void send(CountDownLatch done) {
+            long sent = System.nanoTime();
+            if (sent >= deadline) {
+                done.countDown();
+                return;
+            }
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        if (failure != null || response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                        int index = samples.getAndIncrement();
+                        if (index < MAX_SAMPLES) {
+                            latencies[index] = System.nanoTime() - sent;
+                        }
+                        send(done);
+                    });
+        }
+
+        void print() {
+            int count = Math.min(samples.get(), MAX_SAMPLES);
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            double seconds = elapsedNanos / 1e9;
+            System.out.printf("%8d %12.1f %10.1f %10.1f %8d%n",
+                    clients, samples.get() / seconds, percentile(sorted, 0.50), percentile(sorted, 0.99), errors.get());
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1e6;
+        }
+    }
+}
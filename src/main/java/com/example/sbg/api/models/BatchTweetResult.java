@@ -0,0 +1,18 @@
+package com.example.sbg.api.models;
+
+import lombok.Data;
+
+@Data
+public class BatchTweetResult {
+    private int index;
+    private int httpCode;
+    private String tweetId;
+    private String message;
+
+    public BatchTweetResult(int index, int httpCode, String tweetId, String message) {
+        this.index = index;
+        this.httpCode = httpCode;
+        this.tweetId = tweetId;
+        this.message = message;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.sbg.api.models;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchTweetsResp {
+    private int created;
+    private int failed;
+    private List<BatchTweetResult> results;
+
+    public BatchTweetsResp(List<BatchTweetResult> results) {
+        this.results = results;
+        this.created = (int) results.stream().filter(result -> result.getTweetId() != null).count();
+        this.failed = results.size() - created;
+    }
+}
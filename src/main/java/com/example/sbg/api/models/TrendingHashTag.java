@@ -0,0 +1,14 @@
+package com.example.sbg.api.models;
+
+import lombok.Data;
+
+@Data
+public class TrendingHashTag {
+    private String hashTag;
+    private long count;
+
+    public TrendingHashTag(String hashTag, long count) {
+        this.hashTag = hashTag;
+        this.count = count;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.sbg.api.models;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class TrendingHashTagsResp {
+    private String window;
+    private List<TrendingHashTag> hashTags;
+
+    public TrendingHashTagsResp(String window, List<TrendingHashTag> hashTags) {
+        this.window = window;
+        this.hashTags = hashTags;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.sbg.api.models;
+
+import com.example.sbg.exceptions.BadRequestException;
+import com.example.sbg.model.Tweet;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position used by cursor paging. Encodes the {@code (createdAt, id)} pair of the
+ * last tweet on a page, so the next page is read with a seek predicate instead of an OFFSET.
+ */
+@Data
+public class TweetCursor {
+
+    /**
+     * Position before the newest possible tweet, used to read the first page with the same seek query.
+     * 9999-12-31 23:59:59 is the upper bound of a MySQL DATETIME column.
+     */
+    public static final TweetCursor FIRST = new TweetCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    private static final char SEPARATOR = '|';
+
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    public TweetCursor(LocalDateTime createdAt, Long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public static TweetCursor after(Tweet tweet) {
+        return new TweetCursor(tweet.getCreatedAt(), tweet.getId());
+    }
+
+    public static TweetCursor after(TweetResp tweetResp) {
+        return new TweetCursor(LocalDateTime.parse(tweetResp.getCreatedAt()), Long.parseLong(tweetResp.getTweetId()));
+    }
+
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TweetCursor decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return FIRST;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new BadRequestException("Invalid cursor: " + cursor);
+            }
+            return new TweetCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+    }
+}
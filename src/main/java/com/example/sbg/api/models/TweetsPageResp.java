@@ -2,6 +2,8 @@ package com.example.sbg.api.models;
 
 import lombok.Data;
 
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @Data
@@ -18,4 +20,12 @@ public class TweetsPageResp {
         int nextPageOffset = offset + limit;
         return String.format("http://localhost:8080/tweets?hashTag=%s&usernames=%s&limit=%d&offset=%d", hashtags, usernames, limit, nextPageOffset);
     }
+
+    public static String createNextPageUrl(TweetCursor cursor, int limit, List<String> hashtags, List<String> usernames) {
+        return String.format("http://localhost:8080/tweets?hashTag=%s&usernames=%s&limit=%d&cursor=%s", hashtags, usernames, limit, cursor.encode());
+    }
+
+    public static String createSearchNextPageUrl(String query, TweetCursor cursor, int limit) {
+        return String.format("http://localhost:8080/tweets/search?q=%s&limit=%d&cursor=%s", URLEncoder.encode(query, StandardCharsets.UTF_8), limit, cursor.encode());
+    }
 }
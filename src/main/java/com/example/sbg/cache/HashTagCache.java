@@ -0,0 +1,87 @@
+package com.example.sbg.cache;
+
+import com.example.sbg.model.HashTag;
+import com.example.sbg.repository.HashTagRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Bounded cache from tag string to its persisted {@link HashTag}, so popular tags are not looked up
+ * in hash_tag on every post. Entries are detached copies holding only id and tag, which is all a
+ * tweet needs to link to them. Keys are lower-cased, as the hash_tag collation matches tags
+ * case-insensitively and {@code #News} must find a cached {@code #news}. Hit, miss and eviction
+ * counts are exported as {@code cache.*} meters under {@code cache=hashtags}.
+ */
+@Component
+@ConditionalOnProperty(name = "tweeter.storage", havingValue = "jpa", matchIfMissing = true)
+public class HashTagCache {
+
+    private static final Logger log = LoggerFactory.getLogger(HashTagCache.class);
+
+    private final HashTagRepository hashTagRepository;
+    private final Cache<String, HashTag> cache;
+    private final int warmupSize;
+
+    public HashTagCache(HashTagRepository hashTagRepository,
+                        MeterRegistry meterRegistry,
+                        @Value("${tweeter.hashtag-cache.max-size:10000}") long maxSize,
+                        @Value("${tweeter.hashtag-cache.ttl:10m}") Duration ttl,
+                        @Value("${tweeter.hashtag-cache.warmup-size:1000}") int warmupSize) {
+        this.hashTagRepository = hashTagRepository;
+        this.warmupSize = warmupSize;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "hashtags");
+    }
+
+    public Optional<HashTag> getIfPresent(String hashTag) {
+        return Optional.ofNullable(cache.getIfPresent(fold(hashTag)));
+    }
+
+    /**
+     * Callers must only put tags whose rows are already committed; a tag inserted by a transaction
+     * that later rolls back would otherwise be handed out with a dangling id.
+     */
+    public void put(HashTag hashTag) {
+        HashTag copy = new HashTag();
+        copy.setId(hashTag.getId());
+        copy.setHashTag(hashTag.getHashTag());
+        cache.put(fold(copy.getHashTag()), copy);
+    }
+
+    private static String fold(String hashTag) {
+        return hashTag.toLowerCase(Locale.ROOT);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (warmupSize <= 0) {
+            return;
+        }
+        var mostUsed = hashTagRepository.findMostUsed(PageRequest.ofSize(warmupSize));
+        mostUsed.forEach(this::put);
+        log.info("Hash tag cache warmed with {} tags", mostUsed.size());
+    }
+}
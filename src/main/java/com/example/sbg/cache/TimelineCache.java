@@ -0,0 +1,162 @@
+package com.example.sbg.cache;
+
+import com.example.sbg.api.models.TweetCursor;
+import com.example.sbg.api.models.TweetResp;
+import com.example.sbg.config.ReadWriteRoutingDataSource;
+import com.example.sbg.events.TweetCreatedEvent;
+import com.example.sbg.events.TweetDeletedEvent;
+import com.example.sbg.mappers.TweetMapper;
+import com.example.sbg.repository.TweetRepository;
+import com.example.sbg.repository.TweetRow;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+
+/**
+ * Fan-out-on-write timeline cache: one bounded {@link TimelineRing} of recent tweets per user.
+ * A user's ring is loaded from the database on first read and then kept current from tweet events;
+ * the least recently read users are evicted once {@code max-users} rings are held.
+ * Rings are keyed by the lower-cased username, since the database matches the filter case-insensitively.
+ * <p>
+ * Off unless {@code tweeter.timeline-cache.enabled} is set: rings only see writes made through this instance.
+ */
+@Component
+@ConditionalOnProperty(name = "tweeter.storage", havingValue = "jpa", matchIfMissing = true)
+public class TimelineCache {
+
+    private final TweetRepository tweetRepository;
+    private final boolean enabled;
+    private final int depth;
+    private final Map<String, TimelineRing> rings;
+
+    public TimelineCache(TweetRepository tweetRepository,
+                         @Value("${tweeter.timeline-cache.enabled:false}") boolean enabled,
+                         @Value("${tweeter.timeline-cache.depth:200}") int depth,
+                         @Value("${tweeter.timeline-cache.max-users:10000}") int maxUsers) {
+        this.tweetRepository = tweetRepository;
+        this.enabled = enabled;
+        this.depth = depth;
+        this.rings = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TimelineRing> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    /**
+     * Merges the cached timelines of {@code usernames} into one page older than {@code cursor}.
+     * Returns empty when the page reaches past what the rings hold, in which case the caller
+     * has to read the database.
+     */
+    public Optional<Slice<TweetResp>> findBefore(Collection<String> usernames, TweetCursor cursor, int pageSize) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        List<TimelineRing.Entry> candidates = new ArrayList<>();
+        TimelineRing.Entry boundary = null;
+        Set<String> keys = new LinkedHashSet<>();
+        usernames.forEach(username -> keys.add(fold(username)));
+        for (String username : keys) {
+            TimelineRing ring = ringFor(username);
+            if (!ring.isLoaded()) {
+                return Optional.empty();
+            }
+            candidates.addAll(ring.before(cursor));
+            TimelineRing.Entry ringBoundary = ring.coverageBoundary();
+            if (ringBoundary != null && (boundary == null || TimelineRing.NEWEST_FIRST.compare(ringBoundary, boundary) < 0)) {
+                boundary = ringBoundary;
+            }
+        }
+        candidates.sort(TimelineRing.NEWEST_FIRST);
+
+        // Only tweets at or after every incomplete ring's boundary are known to be gap-free.
+        int usable = candidates.size();
+        if (boundary != null) {
+            usable = 0;
+            while (usable < candidates.size() && TimelineRing.NEWEST_FIRST.compare(candidates.get(usable), boundary) <= 0) {
+                usable++;
+            }
+            if (usable <= pageSize) {
+                return Optional.empty();
+            }
+        }
+
+        List<TweetResp> page = candidates.stream()
+                .limit(pageSize)
+                .map(TimelineRing.Entry::tweet)
+                .toList();
+        return Optional.of(new SliceImpl<>(page, PageRequest.ofSize(pageSize), usable > pageSize));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTweetCreated(TweetCreatedEvent event) {
+        TimelineRing ring = existingRing(event.getUsername());
+        if (ring != null && event.getTweetId() != null) {
+            ring.push(new TimelineRing.Entry(event.getTweetId(), event.getCreatedAt(), TweetMapper.toTweetResp(event)));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTweetDeleted(TweetDeletedEvent event) {
+        TimelineRing ring = existingRing(event.getUsername());
+        if (ring != null && event.getTweetId() != null) {
+            ring.tombstone(event.getTweetId());
+        }
+    }
+
+    private TimelineRing existingRing(String username) {
+        if (!enabled) {
+            return null;
+        }
+        synchronized (rings) {
+            return rings.get(fold(username));
+        }
+    }
+
+    /**
+     * Returns the ring of a lower-cased username, loading it from the database if this caller created it.
+     * The ring is registered before the load so writes racing with it are not lost.
+     */
+    private TimelineRing ringFor(String username) {
+        TimelineRing ring;
+        boolean created = false;
+        synchronized (rings) {
+            ring = rings.get(username);
+            if (ring == null) {
+                ring = new TimelineRing(depth);
+                rings.put(username, ring);
+                created = true;
+            }
+        }
+        if (created) {
+            try {
+                // From the primary: a write committed just before the ring was registered was pushed to no
+                // ring, and a read replica may not have applied it yet.
+                Slice<TweetRow> recent = ReadWriteRoutingDataSource.onPrimary(() ->
+                        tweetRepository.findRowsByUsernamesBefore(List.of(username),
+                                TweetCursor.FIRST.getCreatedAt(), TweetCursor.FIRST.getId(), PageRequest.ofSize(depth)));
+                List<TimelineRing.Entry> entries = recent.getContent().stream()
+                        .map(row -> new TimelineRing.Entry(row.getId(), row.getCreatedAt(), TweetMapper.toTweetResp(row)))
+                        .toList();
+                ring.fill(entries, !recent.hasNext());
+            } catch (RuntimeException e) {
+                synchronized (rings) {
+                    rings.remove(username, ring);
+                }
+                throw e;
+            }
+        }
+        return ring;
+    }
+
+    private static String fold(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.sbg.cache;
+
+import com.example.sbg.api.models.TweetCursor;
+import com.example.sbg.api.models.TweetResp;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Fixed-size ring buffer holding the most recent tweets of one user, newest at the head.
+ * Deleted tweets are tombstoned in place so the ring keeps track of how far back it reaches.
+ */
+class TimelineRing {
+
+    static final Comparator<Entry> NEWEST_FIRST = Comparator.comparing(Entry::createdAt)
+            .thenComparingLong(Entry::id)
+            .reversed();
+
+    /**
+     * A cached tweet; {@code tweet} is {@code null} once the tweet has been deleted.
+     */
+    record Entry(long id, LocalDateTime createdAt, TweetResp tweet) {
+        boolean isBefore(TweetCursor cursor) {
+            int byTime = createdAt.compareTo(cursor.getCreatedAt());
+            return byTime < 0 || (byTime == 0 && id < cursor.getId());
+        }
+
+        boolean isLive() {
+            return tweet != null;
+        }
+    }
+
+    private final Entry[] entries;
+    private final Set<Long> deletedWhileLoading = new HashSet<>();
+    private int head = -1;
+    private int size;
+    private boolean loaded;
+    private boolean complete;
+
+    TimelineRing(int capacity) {
+        this.entries = new Entry[capacity];
+    }
+
+    synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Merges the tweets read from the database with whatever was pushed while they were loading.
+     *
+     * @param complete whether {@code loadedEntries} holds every tweet of the user
+     */
+    synchronized void fill(List<Entry> loadedEntries, boolean complete) {
+        List<Entry> merged = new ArrayList<>(entries());
+        for (Entry entry : loadedEntries) {
+            if (!deletedWhileLoading.contains(entry.id())) {
+                merged.add(entry);
+            }
+        }
+        deletedWhileLoading.clear();
+        this.complete = complete;
+        layout(merged);
+        this.loaded = true;
+    }
+
+    synchronized void push(Entry entry) {
+        if (size == 0 || NEWEST_FIRST.compare(entry, entries[head]) < 0) {
+            head = (head + 1) % entries.length;
+            entries[head] = entry;
+            if (size < entries.length) {
+                size++;
+            } else {
+                complete = false;
+            }
+            return;
+        }
+        // Out-of-order or repeated delivery: re-sort the (small) ring.
+        List<Entry> merged = new ArrayList<>(entries());
+        merged.add(entry);
+        layout(merged);
+    }
+
+    synchronized void tombstone(long id) {
+        for (int i = 0; i < size; i++) {
+            int slot = slot(i);
+            if (entries[slot].id() == id) {
+                entries[slot] = new Entry(id, entries[slot].createdAt(), null);
+                return;
+            }
+        }
+        if (!loaded) {
+            deletedWhileLoading.add(id);
+        }
+    }
+
+    /**
+     * Live entries older than {@code cursor}, newest first.
+     */
+    synchronized List<Entry> before(TweetCursor cursor) {
+        List<Entry> result = new ArrayList<>();
+        for (Entry entry : entries()) {
+            if (entry.isLive() && entry.isBefore(cursor)) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Oldest position the ring still covers, or {@code null} when it holds the user's whole history.
+     * Tweets of this user older than the boundary may exist in the database but not in the ring.
+     */
+    synchronized Entry coverageBoundary() {
+        if (complete) {
+            return null;
+        }
+        return size == 0 ? new Entry(Long.MAX_VALUE, TweetCursor.FIRST.getCreatedAt(), null) : entries[slot(size - 1)];
+    }
+
+    private void layout(List<Entry> unsorted) {
+        Map<Long, Entry> byId = new HashMap<>();
+        for (Entry entry : unsorted) {
+            // A tombstone wins over a live copy of the same tweet.
+            byId.merge(entry.id(), entry, (a, b) -> a.isLive() ? b : a);
+        }
+        List<Entry> sorted = new ArrayList<>(byId.values());
+        sorted.sort(NEWEST_FIRST);
+
+        int kept = Math.min(sorted.size(), entries.length);
+        if (kept < sorted.size()) {
+            complete = false;
+        }
+        Arrays.fill(entries, null);
+        for (int i = 0; i < kept; i++) {
+            entries[kept - 1 - i] = sorted.get(i);
+        }
+        size = kept;
+        head = kept - 1;
+    }
+
+    private List<Entry> entries() {
+        List<Entry> all = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            all.add(entries[slot(i)]);
+        }
+        return all;
+    }
+
+    private int slot(int age) {
+        return Math.floorMod(head - age, entries.length);
+    }
+}
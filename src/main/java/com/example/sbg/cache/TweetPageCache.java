@@ -0,0 +1,248 @@
+package com.example.sbg.cache;
+
+import com.example.sbg.events.TweetCreatedEvent;
+import com.example.sbg.events.TweetDeletedEvent;
+import com.example.sbg.events.TweetEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded cache of rendered {@code GET /tweets} pages, holding the response bytes and their ETag.
+ * Entries are bounded by total body size.
+ * <p>
+ * A committed create or delete drops exactly the pages the tweet could appear on: those whose tag
+ * filter is empty or shares a tag with it, and whose username filter is empty or names its author.
+ * Tags and usernames are matched case-insensitively, as the database collation matches the filters.
+ * A page rendered while such a write commits is not kept: every write also bumps striped counters,
+ * and {@link #put} drops the page again if the counters of its filters moved since {@link #stamp}.
+ * <p>
+ * With read replicas configured, a page is also not kept while a write it depends on is younger than
+ * the replicas' read-your-writes window, since it may have been read from a replica that lacks it.
+ * <p>
+ * With {@code micro-ttl} set, writes are ignored and every page is served for that long instead,
+ * which also bounds staleness for writes made through other instances or not yet on a replica.
+ * Hit, miss and eviction counts are exported as {@code cache.*} meters under {@code cache=tweet-pages}.
+ */
+@Component
+public class TweetPageCache {
+
+    /**
+     * Normalized query of a page: filters sorted and without duplicates, so equivalent requests share an entry.
+     */
+    public record PageKey(List<String> hashtags, List<String> usernames, String cursor, int offset, int limit) {
+
+        public static PageKey of(Collection<String> hashtags, Collection<String> usernames, String cursor, int offset, int limit) {
+            return new PageKey(normalize(hashtags), normalize(usernames), cursor == null ? "" : cursor, offset, limit);
+        }
+
+        boolean contains(TweetEvent event) {
+            return (hashtags.isEmpty() || event.getHashtags().stream().anyMatch(tag -> containsIgnoreCase(hashtags, tag)))
+                    && (usernames.isEmpty() || containsIgnoreCase(usernames, event.getUsername()));
+        }
+
+        private static boolean containsIgnoreCase(List<String> values, String value) {
+            return values.stream().anyMatch(value::equalsIgnoreCase);
+        }
+
+        private static List<String> normalize(Collection<String> values) {
+            return values == null ? List.of() : values.stream().distinct().sorted().toList();
+        }
+    }
+
+    public record CachedPage(byte[] body, String eTag) {
+    }
+
+    private static final int STRIPES = 4096;
+
+    private final Cache<PageKey, CachedPage> cache;
+    private final boolean microCaching;
+    // Reverse index from each tag and username to the cached pages filtering on it, for precise invalidation.
+    private final Map<String, Set<PageKey>> dependents = new ConcurrentHashMap<>();
+    private final Set<PageKey> unfiltered = ConcurrentHashMap.newKeySet();
+    private final AtomicLong global = new AtomicLong();
+    private final AtomicLongArray stripes = new AtomicLongArray(STRIPES);
+    // Ticker time of the last write per stripe, kept only with a replica lag to wait out.
+    private final AtomicLong globalWrittenAt = new AtomicLong();
+    private final AtomicLongArray stripesWrittenAt = new AtomicLongArray(STRIPES);
+    private final long replicaLagNanos;
+    private final Ticker ticker;
+    private final Counter invalidations;
+
+    @Autowired
+    public TweetPageCache(MeterRegistry meterRegistry,
+                          @Value("${tweeter.page-cache.max-size:64MB}") DataSize maxSize,
+                          @Value("${tweeter.page-cache.ttl:10m}") Duration ttl,
+                          @Value("${tweeter.page-cache.micro-ttl:0s}") Duration microTtl,
+                          @Value("${tweeter.read-replicas.urls:}") String replicaUrls,
+                          @Value("${tweeter.read-replicas.read-your-writes-window:5s}") Duration replicaLag) {
+        this(meterRegistry, maxSize, ttl, microTtl, replicaUrls.isBlank() ? Duration.ZERO : replicaLag, Ticker.systemTicker());
+    }
+
+    public TweetPageCache(MeterRegistry meterRegistry, DataSize maxSize, Duration ttl, Duration microTtl) {
+        this(meterRegistry, maxSize, ttl, microTtl, Duration.ZERO, Ticker.systemTicker());
+    }
+
+    public TweetPageCache(MeterRegistry meterRegistry, DataSize maxSize, Duration ttl, Duration microTtl,
+                          Duration replicaLag, Ticker ticker) {
+        this.microCaching = !microTtl.isZero();
+        this.replicaLagNanos = replicaLag.toNanos();
+        this.ticker = ticker;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .<PageKey, CachedPage>weigher((key, page) -> page.body().length)
+                .expireAfterWrite(microCaching ? microTtl : ttl)
+                .ticker(ticker)
+                .executor(Runnable::run)
+                .removalListener((key, page, cause) -> {
+                    if (key != null && cause != RemovalCause.REPLACED) {
+                        unindex(key);
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "tweet-pages");
+        this.invalidations = Counter.builder("tweeter.page-cache.invalidations")
+                .description("Cached pages dropped because a tweet on them was created or deleted")
+                .register(meterRegistry);
+    }
+
+    public Optional<CachedPage> get(PageKey key) {
+        return Optional.ofNullable(cache.getIfPresent(key));
+    }
+
+    /**
+     * Taken before the page is read, and handed back to {@link #put} with the rendered page.
+     */
+    public long stamp(PageKey key) {
+        if (key.hashtags().isEmpty() && key.usernames().isEmpty()) {
+            return global.get();
+        }
+        long sum = 0;
+        for (String tag : key.hashtags()) {
+            sum += stripes.get(stripe(tag));
+        }
+        for (String username : key.usernames()) {
+            sum += stripes.get(stripe(username));
+        }
+        return sum;
+    }
+
+    public void put(PageKey key, CachedPage page, long stamp) {
+        if (!microCaching && writtenWithinReplicaLag(key)) {
+            return;
+        }
+        if (!microCaching) {
+            if (key.hashtags().isEmpty() && key.usernames().isEmpty()) {
+                unfiltered.add(key);
+            }
+            key.hashtags().forEach(tag -> dependents.computeIfAbsent(fold(tag), k -> ConcurrentHashMap.newKeySet()).add(key));
+            key.usernames().forEach(username -> dependents.computeIfAbsent(fold(username), k -> ConcurrentHashMap.newKeySet()).add(key));
+        }
+        cache.put(key, page);
+        // Checked after the put: a write bumping the counters later also runs its removal later.
+        if (!microCaching && stamp(key) != stamp) {
+            cache.asMap().remove(key, page);
+        }
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTweetCreated(TweetCreatedEvent event) {
+        invalidate(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTweetDeleted(TweetDeletedEvent event) {
+        invalidate(event);
+    }
+
+    private void invalidate(TweetEvent event) {
+        if (microCaching) {
+            return;
+        }
+        if (replicaLagNanos > 0) {
+            long now = ticker.read();
+            stripesWrittenAt.set(stripe(event.getUsername()), now);
+            event.getHashtags().forEach(tag -> stripesWrittenAt.set(stripe(tag), now));
+            globalWrittenAt.set(now);
+        }
+        stripes.incrementAndGet(stripe(event.getUsername()));
+        event.getHashtags().forEach(tag -> stripes.incrementAndGet(stripe(tag)));
+        global.incrementAndGet();
+
+        Set<PageKey> candidates = new HashSet<>(unfiltered);
+        candidates.addAll(dependents.getOrDefault(fold(event.getUsername()), Set.of()));
+        for (String tag : event.getHashtags()) {
+            candidates.addAll(dependents.getOrDefault(fold(tag), Set.of()));
+        }
+        for (PageKey key : candidates) {
+            if (key.contains(event) && cache.asMap().remove(key) != null) {
+                invalidations.increment();
+            }
+        }
+    }
+
+    private boolean writtenWithinReplicaLag(PageKey key) {
+        if (replicaLagNanos == 0) {
+            return false;
+        }
+        long writtenAt = 0;
+        if (key.hashtags().isEmpty() && key.usernames().isEmpty()) {
+            writtenAt = globalWrittenAt.get();
+        } else {
+            for (String tag : key.hashtags()) {
+                writtenAt = Math.max(writtenAt, stripesWrittenAt.get(stripe(tag)));
+            }
+            for (String username : key.usernames()) {
+                writtenAt = Math.max(writtenAt, stripesWrittenAt.get(stripe(username)));
+            }
+        }
+        return writtenAt != 0 && ticker.read() - writtenAt < replicaLagNanos;
+    }
+
+    // Usernames cannot contain '#' and tags always start with it, so the two never share a key.
+    private static int stripe(String key) {
+        int hash = fold(key).hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    private static String fold(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private void unindex(PageKey key) {
+        unfiltered.remove(key);
+        for (String value : key.hashtags()) {
+            removeDependent(value, key);
+        }
+        for (String value : key.usernames()) {
+            removeDependent(value, key);
+        }
+    }
+
+    private void removeDependent(String value, PageKey key) {
+        dependents.computeIfPresent(fold(value), (k, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.sbg.cache;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Serves {@code GET /tweets} pages from the {@link TweetPageCache}. A hit writes the stored JSON
+ * bytes straight to the response, skipping the service, the database and serialization; a miss runs
+ * the controller and keeps the bytes of a successful response. The key is built from the same
+ * parameters and defaults as the controller, and requests the controller would reject fall through
+ * to it unchanged. Filters are sorted in the key, so a hit may carry the next page link of an
+ * equivalent request that listed them in another order.
+ * <p>
+ * Off unless {@code tweeter.page-cache.enabled} is set: invalidation only sees this instance's writes.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class TweetPageCacheFilter extends OncePerRequestFilter {
+
+    private final TweetPageCache pageCache;
+    private final boolean enabled;
+
+    public TweetPageCacheFilter(TweetPageCache pageCache, @Value("${tweeter.page-cache.enabled:false}") boolean enabled) {
+        this.pageCache = pageCache;
+        this.enabled = enabled;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !"GET".equals(request.getMethod())
+                || !"/tweets".equals(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String username = request.getHeader("X-Username");
+        TweetPageCache.PageKey key = pageKey(request);
+        if (username == null || username.isEmpty() || key == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // Conditional requests are answered by the controller, which compares page versions without a query.
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) == null) {
+            var cached = pageCache.get(key);
+            if (cached.isPresent()) {
+                writePage(response, cached.get());
+                return;
+            }
+        }
+
+        long stamp = pageCache.stamp(key);
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, wrapper);
+            if (wrapper.getStatus() == HttpServletResponse.SC_OK) {
+                pageCache.put(key, new TweetPageCache.CachedPage(wrapper.getContentAsByteArray(), wrapper.getHeader(HttpHeaders.ETAG)), stamp);
+            }
+        } finally {
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private static void writePage(HttpServletResponse response, TweetPageCache.CachedPage page) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(page.body().length);
+        if (page.eTag() != null) {
+            response.setHeader(HttpHeaders.ETAG, page.eTag());
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        }
+        response.getOutputStream().write(page.body());
+    }
+
+    /**
+     * The normalized query, or null if a parameter would not parse and the controller must answer.
+     */
+    private static TweetPageCache.PageKey pageKey(HttpServletRequest request) {
+        try {
+            String limit = request.getParameter("limit");
+            String offset = request.getParameter("offset");
+            return TweetPageCache.PageKey.of(
+                    listParameter(request, "hashTag"),
+                    listParameter(request, "usernames"),
+                    request.getParameter("cursor"),
+                    offset == null ? 0 : Integer.parseInt(offset),
+                    limit == null ? 50 : Integer.parseInt(limit));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // Spring binds "a,b" and repeated parameters alike to a list; a value that still holds a comma is rejected as invalid.
+    private static List<String> listParameter(HttpServletRequest request, String name) {
+        String[] values = request.getParameterValues(name);
+        List<String> list = new ArrayList<>();
+        if (values != null) {
+            for (String value : values) {
+                list.addAll(List.of(value.split(",")));
+            }
+        }
+        return list;
+    }
+}
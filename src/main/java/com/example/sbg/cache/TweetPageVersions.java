@@ -0,0 +1,100 @@
+package com.example.sbg.cache;
+
+import com.example.sbg.events.TweetCreatedEvent;
+import com.example.sbg.events.TweetDeletedEvent;
+import com.example.sbg.events.TweetEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Cheap version numbers for {@code GET /tweets} pages, used as ETags. Every committed create or delete
+ * bumps a global counter and one striped counter per username and per tag of the tweet; a page's
+ * version is the sum of the counters its filters depend on, so it changes whenever a tweet that could
+ * appear on the page changes. Stripe collisions only cause extra misses, never a stale match. Keys are
+ * case-folded like the database's tag and username comparisons, so {@code #News} and {@code #news} share a counter.
+ * Like the other tweet caches this only sees writes made through this instance, which is why the
+ * controller only sends these as ETags when {@code tweeter.etag.enabled} is set.
+ */
+@Component
+public class TweetPageVersions {
+
+    private static final int STRIPES = 4096;
+
+    // Distinguishes this process from earlier ones, whose counters started from the same values.
+    private final String epoch = Long.toHexString(ThreadLocalRandom.current().nextLong());
+    private final AtomicLong global = new AtomicLong();
+    private final AtomicLongArray stripes = new AtomicLongArray(STRIPES);
+
+    public String eTag(Collection<String> hashtags, Collection<String> usernames) {
+        long version;
+        if (isEmpty(hashtags) && isEmpty(usernames)) {
+            version = global.get();
+        } else {
+            version = sum(hashtags) + sum(usernames);
+        }
+        return "\"" + epoch + "-" + Long.toHexString(version) + "\"";
+    }
+
+    /**
+     * True if an {@code If-None-Match} header value lists {@code eTag}, ignoring weak validator prefixes.
+     */
+    public static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || eTag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.startsWith("W/")) {
+                trimmed = trimmed.substring(2);
+            }
+            if (trimmed.equals("*") || trimmed.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTweetCreated(TweetCreatedEvent event) {
+        bump(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTweetDeleted(TweetDeletedEvent event) {
+        bump(event);
+    }
+
+    private void bump(TweetEvent event) {
+        stripes.incrementAndGet(stripe(event.getUsername()));
+        for (String tag : event.getHashtags()) {
+            stripes.incrementAndGet(stripe(tag));
+        }
+        global.incrementAndGet();
+    }
+
+    private long sum(Collection<String> keys) {
+        long sum = 0;
+        if (keys != null) {
+            for (String key : keys) {
+                sum += stripes.get(stripe(key));
+            }
+        }
+        return sum;
+    }
+
+    // Usernames cannot contain '#' and tags always start with it, so the two never share a key.
+    private static int stripe(String key) {
+        int hash = key.toLowerCase(Locale.ROOT).hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    private static boolean isEmpty(Collection<String> keys) {
+        return keys == null || keys.isEmpty();
+    }
+}
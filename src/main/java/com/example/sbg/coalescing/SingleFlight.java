@@ -0,0 +1,59 @@
+package com.example.sbg.coalescing;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Runs at most one call per key at a time: the first caller for a key runs it, and callers arriving
+ * while it is in flight wait for and share its result or exception. The key is released before the
+ * result is published, so a caller arriving afterwards always starts a fresh call.
+ */
+public class SingleFlight<K, V> {
+
+    @FunctionalInterface
+    public interface Call<V> {
+        V call() throws Throwable;
+    }
+
+    /**
+     * Result of {@link #execute}: the value and whether this caller ran the call or joined another's.
+     */
+    public record Outcome<V>(V value, boolean leader) {
+    }
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    public Outcome<V> execute(K key, Call<V> call) throws Throwable {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            return new Outcome<>(await(existing), false);
+        }
+        V value;
+        try {
+            value = call.call();
+        } catch (Throwable e) {
+            inFlight.remove(key, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+        inFlight.remove(key, flight);
+        flight.complete(value);
+        return new Outcome<>(value, true);
+    }
+
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    private static <V> V await(CompletableFuture<V> flight) throws Throwable {
+        try {
+            return flight.join();
+        } catch (CompletionException | CancellationException e) {
+            throw e.getCause() != null ? e.getCause() : e;
+        }
+    }
+}
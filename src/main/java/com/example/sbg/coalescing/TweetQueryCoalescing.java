@@ -0,0 +1,110 @@
+package com.example.sbg.coalescing;
+
+import com.example.sbg.cache.TweetPageVersions;
+import com.example.sbg.config.ReadWriteRoutingDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Single-flight for {@code ITweeterService} reads: concurrent calls of the same method with equal
+ * arguments share one execution, and so one database round trip, and all get the same page.
+ * The key also holds the {@link TweetPageVersions} tag of the query's filters, so a caller whose
+ * matching write has committed never joins a read that started before it, and whether the caller is
+ * pinned to the primary, so a recent writer never joins a read served by a lagging replica.
+ * <p>
+ * The aspect runs before the transaction and metrics advice, so waiting callers hold no connection
+ * and {@code tweeter.service} only counts executed calls. Calls are counted as
+ * {@code tweeter.coalescing.calls} tagged {@code role=leader|follower}, and
+ * {@code tweeter.coalescing.ratio} is the share of calls that were served by another call.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TweetQueryCoalescing {
+
+    private record QueryKey(String method, List<Object> args, String version, boolean primary) {
+    }
+
+    private static final ThreadLocal<Boolean> IN_CALL = new ThreadLocal<>();
+
+    private final SingleFlight<QueryKey, Object> singleFlight = new SingleFlight<>();
+    private final TweetPageVersions tweetPageVersions;
+    private final boolean enabled;
+    private final Counter leaders;
+    private final Counter followers;
+
+    public TweetQueryCoalescing(TweetPageVersions tweetPageVersions,
+                                MeterRegistry meterRegistry,
+                                @Value("${tweeter.coalescing.enabled:true}") boolean enabled) {
+        this.tweetPageVersions = tweetPageVersions;
+        this.enabled = enabled;
+        this.leaders = Counter.builder("tweeter.coalescing.calls")
+                .description("ITweeterService reads, by whether they executed or joined an identical one in flight")
+                .tag("role", "leader")
+                .register(meterRegistry);
+        this.followers = Counter.builder("tweeter.coalescing.calls")
+                .description("ITweeterService reads, by whether they executed or joined an identical one in flight")
+                .tag("role", "follower")
+                .register(meterRegistry);
+        Gauge.builder("tweeter.coalescing.ratio", this, TweetQueryCoalescing::ratio)
+                .description("Share of ITweeterService reads served by an identical call in flight")
+                .register(meterRegistry);
+        Gauge.builder("tweeter.coalescing.in-flight", singleFlight, SingleFlight::inFlight)
+                .description("Distinct ITweeterService reads in flight")
+                .register(meterRegistry);
+    }
+
+    @Around("execution(* com.example.sbg.services.ITweeterService.get*(..)) || execution(* com.example.sbg.services.ITweeterService.search*(..))")
+    public Object coalesce(ProceedingJoinPoint joinPoint) throws Throwable {
+        // Calls made by a decorated service on behalf of a leader run directly; joining would wait on itself.
+        if (!enabled || IN_CALL.get() != null) {
+            return joinPoint.proceed();
+        }
+        String method = joinPoint.getSignature().getName();
+        Object[] args = joinPoint.getArgs();
+        QueryKey key = new QueryKey(method, Arrays.asList(args), version(method, args),
+                ReadWriteRoutingDataSource.isPinnedToPrimary());
+        var outcome = singleFlight.execute(key, () -> {
+            IN_CALL.set(Boolean.TRUE);
+            try {
+                return joinPoint.proceed();
+            } finally {
+                IN_CALL.remove();
+            }
+        });
+        (outcome.leader() ? leaders : followers).increment();
+        return outcome.value();
+    }
+
+    public double ratio() {
+        double total = leaders.count() + followers.count();
+        return total == 0 ? 0 : followers.count() / total;
+    }
+
+    @SuppressWarnings("unchecked")
+    private String version(String method, Object[] args) {
+        Collection<String> hashtags = null;
+        Collection<String> usernames = null;
+        if (method.endsWith("ByHashtagsAndUsernames")) {
+            hashtags = (Collection<String>) args[0];
+            usernames = (Collection<String>) args[1];
+        } else if (method.endsWith("ByHashtags")) {
+            hashtags = (Collection<String>) args[0];
+        } else if (method.endsWith("ByUsernames")) {
+            usernames = (Collection<String>) args[0];
+        }
+        return tweetPageVersions.eTag(hashtags, usernames);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.sbg.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.r2dbc.R2dbcDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.r2dbc.R2dbcRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Leaves out the auto-configuration of data stacks this instance does not serve, so their beans are
+ * never created and never connect: the R2DBC stack unless the application runs as a reactive web
+ * application, and the JDBC, JPA and Flyway stack when {@code tweeter.storage=local} keeps tweets in the
+ * embedded store. Exclusions set through {@code spring.autoconfigure.exclude} are kept.
+ */
+public class AutoConfigurationExclusions implements EnvironmentPostProcessor {
+
+    private static final String EXCLUDE = "spring.autoconfigure.exclude";
+
+    private static final List<Class<?>> R2DBC = List.of(
+            R2dbcAutoConfiguration.class,
+            R2dbcDataAutoConfiguration.class,
+            R2dbcRepositoriesAutoConfiguration.class,
+            R2dbcTransactionManagerAutoConfiguration.class);
+
+    private static final List<Class<?>> JDBC = List.of(
+            DataSourceAutoConfiguration.class,
+            DataSourceTransactionManagerAutoConfiguration.class,
+            JdbcTemplateAutoConfiguration.class,
+            HibernateJpaAutoConfiguration.class,
+            JpaRepositoriesAutoConfiguration.class,
+            FlywayAutoConfiguration.class);
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        Set<String> excluded = new LinkedHashSet<>();
+        // spring.main.* is only bound to the application after the post-processors have run.
+        WebApplicationType webApplicationType = environment.getProperty("spring.main.web-application-type",
+                WebApplicationType.class, application.getWebApplicationType());
+        if (webApplicationType != WebApplicationType.REACTIVE) {
+            R2DBC.forEach(type -> excluded.add(type.getName()));
+        }
+        if ("local".equals(environment.getProperty("tweeter.storage"))) {
+            JDBC.forEach(type -> excluded.add(type.getName()));
+        }
+        if (excluded.isEmpty()) {
+            return;
+        }
+        Set<String> merged = new LinkedHashSet<>(Binder.get(environment).bind(EXCLUDE, Bindable.listOf(String.class)).orElse(List.of()));
+        merged.addAll(excluded);
+        environment.getPropertySources().addFirst(new MapPropertySource("tweeterAutoConfigurationExclusions",
+                Map.of(EXCLUDE, String.join(",", merged))));
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.sbg.config;
+
+import com.example.sbg.exceptions.ServiceUnavailableException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admits at most as many concurrent requests as the Hikari pool has connections. With open-in-view
+ * a request keeps its connection until it completes, so on virtual threads, where Tomcat no longer
+ * caps concurrency, extra requests would otherwise all queue inside Hikari and fail with a 500 once
+ * its connection timeout passes. Requests that cannot be admitted in time get a 503 instead.
+ */
+public class ConnectionPoolGate implements HandlerInterceptor {
+
+    private final Semaphore permits;
+    private final long timeoutNanos;
+
+    public ConnectionPoolGate(int maxConcurrent, Duration timeout) {
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws InterruptedException {
+        if (!permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+            throw new ServiceUnavailableException("Too many concurrent requests, try again later.");
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        permits.release();
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+}
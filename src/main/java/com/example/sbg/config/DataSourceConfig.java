@@ -0,0 +1,59 @@
+package com.example.sbg.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+/**
+ * JDBC side of the application when it runs next to the R2DBC stack. Spring Boot stops configuring a
+ * DataSource once an R2DBC ConnectionFactory exists, and would then register two transaction managers,
+ * so both are declared here from the usual {@code spring.datasource.*} properties and the JPA one is
+ * made the default for {@code @Transactional}.
+ * <p>
+ * With {@link ReadReplicas} configured, the default DataSource routes read-only transactions to them
+ * and everything else to the primary pool (see {@link ReadWriteRoutingDataSource}).
+ */
+@Configuration
+@ConditionalOnProperty(name = "tweeter.storage", havingValue = "jpa", matchIfMissing = true)
+public class DataSourceConfig {
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties dataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ObjectProvider<ReadReplicas> readReplicas) {
+        ReadReplicas replicas = readReplicas.getIfAvailable();
+        if (replicas == null || replicas.isEmpty()) {
+            return primaryDataSource;
+        }
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primaryDataSource, replicas));
+    }
+
+    @Bean
+    @Primary
+    public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new JpaTransactionManager(entityManagerFactory);
+    }
+}
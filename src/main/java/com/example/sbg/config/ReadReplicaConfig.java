@@ -0,0 +1,81 @@
+package com.example.sbg.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Active when {@code tweeter.read-replicas.urls} lists one or more MySQL replicas and tweets are stored
+ * through JPA. Their pools back the read-only transactions of the JDBC stack (see {@link DataSourceConfig}),
+ * and {@code /tweets} requests of users who wrote recently are pinned to the primary by a
+ * {@link ReadYourWritesWindow}.
+ * Replica pools are named {@code tweeter-replica-<n>} in the {@code hikaricp.*} meters.
+ */
+@Configuration
+@ConditionalOnExpression("!'${tweeter.read-replicas.urls:}'.isEmpty() and '${tweeter.storage:jpa}' == 'jpa'")
+public class ReadReplicaConfig implements WebMvcConfigurer {
+
+    private final List<String> urls;
+    private final String username;
+    private final String password;
+    private final int maximumPoolSize;
+    private final ReplicaSelection selection;
+    private final Duration readYourWritesWindow;
+
+    public ReadReplicaConfig(@Value("${tweeter.read-replicas.urls}") String urls,
+                             @Value("${tweeter.read-replicas.username:${spring.datasource.username:}}") String username,
+                             @Value("${tweeter.read-replicas.password:${spring.datasource.password:}}") String password,
+                             @Value("${tweeter.read-replicas.maximum-pool-size:${spring.datasource.hikari.maximum-pool-size:10}}") int maximumPoolSize,
+                             @Value("${tweeter.read-replicas.selection:round-robin}") ReplicaSelection selection,
+                             @Value("${tweeter.read-replicas.read-your-writes-window:5s}") Duration readYourWritesWindow) {
+        this.urls = Arrays.stream(urls.split(",")).map(String::trim).filter(url -> !url.isEmpty()).toList();
+        this.username = username;
+        this.password = password;
+        this.maximumPoolSize = maximumPoolSize;
+        this.selection = selection;
+        this.readYourWritesWindow = readYourWritesWindow;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReadReplicas readReplicas(DataSourceProperties properties, MeterRegistry meterRegistry) {
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (String url : urls) {
+            HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class)
+                    .url(url)
+                    .username(username)
+                    .password(password)
+                    .build();
+            pool.setPoolName("tweeter-replica-" + pools.size());
+            pool.setMaximumPoolSize(maximumPoolSize);
+            pool.setReadOnly(true);
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            pools.add(pool);
+        }
+        return new ReadReplicas(pools, selection);
+    }
+
+    @Bean
+    public ReadYourWritesWindow readYourWritesWindow() {
+        return new ReadYourWritesWindow(readYourWritesWindow, 100_000);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Streams hold their request open for minutes and read from the tweet events, not the database.
+        registry.addInterceptor(readYourWritesWindow())
+                .addPathPatterns("/tweets", "/tweets/**")
+                .excludePathPatterns("/tweets/stream");
+    }
+}
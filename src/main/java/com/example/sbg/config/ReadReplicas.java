@@ -0,0 +1,64 @@
+package com.example.sbg.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Connection pools of the read replicas listed in {@code tweeter.read-replicas.urls}, and the choice
+ * of one of them for each read-only connection.
+ */
+public class ReadReplicas implements AutoCloseable {
+
+    private final List<HikariDataSource> pools;
+    private final ReplicaSelection selection;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReadReplicas(List<HikariDataSource> pools, ReplicaSelection selection) {
+        this.pools = List.copyOf(pools);
+        this.selection = selection;
+    }
+
+    public List<HikariDataSource> pools() {
+        return pools;
+    }
+
+    public boolean isEmpty() {
+        return pools.isEmpty();
+    }
+
+    /**
+     * Index of the replica the next read-only connection is taken from.
+     */
+    public int select() {
+        int start = Math.floorMod(next.getAndIncrement(), pools.size());
+        if (selection == ReplicaSelection.ROUND_ROBIN) {
+            return start;
+        }
+        // Scanning from the round-robin position spreads ties instead of always favouring the first replica.
+        int best = start;
+        int bestLoad = Integer.MAX_VALUE;
+        for (int i = 0; i < pools.size(); i++) {
+            int candidate = (start + i) % pools.size();
+            int load = load(pools.get(candidate));
+            if (load < bestLoad) {
+                best = candidate;
+                bestLoad = load;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public void close() {
+        pools.forEach(HikariDataSource::close);
+    }
+
+    private static int load(HikariDataSource dataSource) {
+        // Null until the pool has handed out its first connection.
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return pool == null ? 0 : pool.getActiveConnections() + pool.getThreadsAwaitingConnection();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.sbg.config;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Sends connections taken inside a read-only transaction to one of the {@link ReadReplicas} and all
+ * others to the primary. The transaction's read-only flag is only known once it has begun, so this is
+ * used behind a {@link LazyConnectionDataSourceProxy}, which fetches the physical connection at the
+ * transaction's first statement.
+ * <p>
+ * A thread can be pinned to the primary, for callers that must see writes the replicas may not have
+ * applied yet. The pin only takes effect if it is set before the transaction's first statement.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARY = "primary";
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private final ReadReplicas readReplicas;
+
+    public ReadWriteRoutingDataSource(DataSource primary, ReadReplicas readReplicas) {
+        this.readReplicas = readReplicas;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < readReplicas.pools().size(); i++) {
+            targets.put(i, readReplicas.pools().get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    public static void pinToPrimary() {
+        PINNED.set(Boolean.TRUE);
+    }
+
+    public static void unpin() {
+        PINNED.remove();
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return PINNED.get() != null;
+    }
+
+    /**
+     * Runs {@code read} pinned to the primary, keeping an outer pin in place.
+     */
+    public static <T> T onPrimary(Supplier<T> read) {
+        if (isPinnedToPrimary()) {
+            return read.get();
+        }
+        pinToPrimary();
+        try {
+            return read.get();
+        } finally {
+            unpin();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (readReplicas.isEmpty() || isPinnedToPrimary() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        return readReplicas.select();
+    }
+}
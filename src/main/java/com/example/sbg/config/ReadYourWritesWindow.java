@@ -0,0 +1,67 @@
+package com.example.sbg.config;
+
+import com.example.sbg.events.TweetCreatedEvent;
+import com.example.sbg.events.TweetDeletedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+
+/**
+ * Read-your-writes for replica reads: a user whose create or delete committed within the last
+ * {@code window} has their requests pinned to the primary, so they see their own write while the
+ * replicas may still be applying it. The window should cover the replicas' usual lag.
+ * Writers are recorded from tweet events, so only writes made through this instance are seen.
+ */
+public class ReadYourWritesWindow implements HandlerInterceptor {
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesWindow(Duration window, long maxWriters) {
+        this(window, maxWriters, Ticker.systemTicker());
+    }
+
+    public ReadYourWritesWindow(Duration window, long maxWriters, Ticker ticker) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(maxWriters)
+                .ticker(ticker)
+                .build();
+    }
+
+    public void recordWrite(String username) {
+        recentWriters.put(username, Boolean.TRUE);
+    }
+
+    public boolean isRecentWriter(String username) {
+        return username != null && recentWriters.getIfPresent(username) != null;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (isRecentWriter(request.getHeader("X-Username"))) {
+            ReadWriteRoutingDataSource.pinToPrimary();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ReadWriteRoutingDataSource.unpin();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTweetCreated(TweetCreatedEvent event) {
+        recordWrite(event.getUsername());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTweetDeleted(TweetDeletedEvent event) {
+        recordWrite(event.getUsername());
+    }
+}
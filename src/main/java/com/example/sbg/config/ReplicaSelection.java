@@ -0,0 +1,16 @@
+package com.example.sbg.config;
+
+/**
+ * How {@link ReadReplicas} picks the replica for a read-only connection.
+ */
+public enum ReplicaSelection {
+    /**
+     * Each replica in turn.
+     */
+    ROUND_ROBIN,
+    /**
+     * The replica whose pool has the fewest connections in use or awaited, ties broken in turn.
+     * Follows a slow or overloaded replica's backlog instead of handing it an equal share.
+     */
+    LEAST_BUSY
+}
@@ -0,0 +1,46 @@
+package com.example.sbg.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+/**
+ * Active when {@code spring.threads.virtual.enabled=true} on Java 21, where Spring Boot runs Tomcat
+ * request handling (and therefore every JPA call a controller makes) on virtual threads.
+ * Concurrency is then bounded by the connection pool rather than the Tomcat thread count, so
+ * {@code /tweets} requests are admitted through a {@link ConnectionPoolGate} of the same size.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class VirtualThreadConfig implements WebMvcConfigurer {
+
+    private final int maxConcurrent;
+    private final Duration admissionTimeout;
+
+    public VirtualThreadConfig(@Value("${spring.datasource.hikari.maximum-pool-size:10}") int maxConcurrent,
+                               @Value("${tweeter.virtual-threads.admission-timeout:2s}") Duration admissionTimeout) {
+        this.maxConcurrent = maxConcurrent;
+        this.admissionTimeout = admissionTimeout;
+    }
+
+    @Bean
+    public ConnectionPoolGate connectionPoolGate() {
+        return new ConnectionPoolGate(maxConcurrent, admissionTimeout);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Streams hold their request open for minutes without using a connection.
+        registry.addInterceptor(connectionPoolGate())
+                .addPathPatterns("/tweets", "/tweets/**")
+                .excludePathPatterns("/tweets/stream");
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.sbg.controllers;
+
+import com.example.sbg.api.models.Error;
+import com.example.sbg.api.models.TrendingHashTagsResp;
+import com.example.sbg.exceptions.BadRequestException;
+import com.example.sbg.trending.HashtagTrends;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/hashtags")
+public class HashtagController {
+
+    private final HashtagTrends hashtagTrends;
+
+    public HashtagController(HashtagTrends hashtagTrends) {
+        this.hashtagTrends = hashtagTrends;
+    }
+
+    @Operation(summary = "Trending Hash Tags", description = "The most used hash tags over a recent time window, such as 1h or 30m.")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Successful retrieval of trending hash tags", content = @Content(mediaType = "application/json", schema = @Schema(implementation = TrendingHashTagsResp.class))), @ApiResponse(responseCode = "400", description = "Bad request", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Error.class))),})
+    @GetMapping(value = "/trending", produces = "application/json")
+    public ResponseEntity<TrendingHashTagsResp> getTrending(
+            @RequestHeader("X-Username") String username,
+            @RequestParam(value = "window", defaultValue = "1h") String window,
+            @RequestParam(value = "k", defaultValue = "20") int k) {
+
+        if (username == null || username.isEmpty()) {
+            throw new BadRequestException("Username header is missing.");
+        }
+
+        Duration duration;
+        try {
+            duration = DurationStyle.detectAndParse(window);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid window: " + window);
+        }
+
+        try {
+            return ResponseEntity.ok(new TrendingHashTagsResp(window, hashtagTrends.top(duration, k)));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.sbg.controllers;
+
+import com.example.sbg.api.models.PostTweetReq;
+import com.example.sbg.api.models.TweetCursor;
+import com.example.sbg.api.models.TweetResp;
+import com.example.sbg.api.models.TweetsPageResp;
+import com.example.sbg.exceptions.BadRequestException;
+import com.example.sbg.services.IReactiveTweeterService;
+import com.example.sbg.validation.TweetValidator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Request handling behind {@link ReactiveTweetRouter}, with the same validation and responses as
+ * {@link TweeterController}. Only keyset paging is offered; offset links are a blocking-stack legacy.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTweetHandler {
+
+    private static final int DEFAULT_LIMIT = 50;
+
+    private final IReactiveTweeterService tweeterService;
+
+    public ReactiveTweetHandler(IReactiveTweeterService tweeterService) {
+        this.tweeterService = tweeterService;
+    }
+
+    // Handlers validate inside Mono.defer so that rejected requests surface as error signals the
+    // router's onError mappings can turn into responses.
+
+    public Mono<ServerResponse> createTweet(ServerRequest request) {
+        return Mono.defer(() -> doCreateTweet(request));
+    }
+
+    public Mono<ServerResponse> deleteTweet(ServerRequest request) {
+        return Mono.defer(() -> doDeleteTweet(request));
+    }
+
+    public Mono<ServerResponse> getTweets(ServerRequest request) {
+        return Mono.defer(() -> doGetTweets(request));
+    }
+
+    private Mono<ServerResponse> doCreateTweet(ServerRequest request) {
+        String username = requireUsername(request);
+        return request.bodyToMono(PostTweetReq.class)
+                .switchIfEmpty(Mono.error(() -> new BadRequestException("Tweet body is missing.")))
+                .flatMap(req -> tweeterService.createTweet(username, req.getTweetBody(), req.getHashTags()))
+                .flatMap(tweetResp -> ServerResponse.status(HttpStatus.CREATED)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(tweetResp));
+    }
+
+    private Mono<ServerResponse> doDeleteTweet(ServerRequest request) {
+        String username = requireUsername(request);
+        Long tweetId = parseLong(request.pathVariable("tweetId"), "Invalid tweet id: ");
+        return tweeterService.deleteTweet(tweetId, username)
+                .then(ServerResponse.ok().build());
+    }
+
+    private Mono<ServerResponse> doGetTweets(ServerRequest request) {
+        requireUsername(request);
+        List<String> hashTags = listParam(request, "hashTag");
+        List<String> usernames = listParam(request, "usernames");
+        int limit = request.queryParam("limit").map(value -> (int) parseLong(value, "Invalid limit: ")).orElse(DEFAULT_LIMIT);
+        int offset = request.queryParam("offset").map(value -> (int) parseLong(value, "Invalid offset: ")).orElse(0);
+
+        if (limit < 1 || limit > 100 || offset < 0) {
+            throw new BadRequestException("Limit or offset parameters are out of range.");
+        }
+        if (offset > 0) {
+            throw new BadRequestException("Offset paging is not supported, follow the cursor in nextPage.");
+        }
+
+        TweetValidator.requireValidHashTags(hashTags);
+        TweetValidator.requireValidUsernames(usernames);
+        TweetCursor cursor = TweetCursor.decode(request.queryParam("cursor").orElse(null));
+
+        // One extra row tells whether a next page exists.
+        Flux<TweetResp> tweets;
+        if (!hashTags.isEmpty() && !usernames.isEmpty()) {
+            tweets = tweeterService.getTweetsByHashtagsAndUsernames(hashTags, usernames, cursor, limit + 1);
+        } else if (!hashTags.isEmpty()) {
+            tweets = tweeterService.getTweetsByHashtags(hashTags, cursor, limit + 1);
+        } else if (!usernames.isEmpty()) {
+            tweets = tweeterService.getTweetsByUsernames(usernames, cursor, limit + 1);
+        } else {
+            tweets = tweeterService.getAllTweets(cursor, limit + 1);
+        }
+
+        return tweets.collectList()
+                .map(page -> toPage(page, limit, hashTags, usernames))
+                .flatMap(page -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(page));
+    }
+
+    private static TweetsPageResp toPage(List<TweetResp> tweets, int limit, List<String> hashTags, List<String> usernames) {
+        if (tweets.size() <= limit) {
+            return new TweetsPageResp(tweets, null);
+        }
+        List<TweetResp> page = tweets.subList(0, limit);
+        return new TweetsPageResp(page,
+                TweetsPageResp.createNextPageUrl(TweetCursor.after(page.get(limit - 1)), limit, hashTags, usernames));
+    }
+
+    private static String requireUsername(ServerRequest request) {
+        String username = request.headers().firstHeader("X-Username");
+        if (username == null || username.isEmpty()) {
+            throw new BadRequestException("Username header is missing.");
+        }
+        return username;
+    }
+
+    /**
+     * Multi-valued parameter accepting both repeated and comma separated values, like {@code @RequestParam List}.
+     */
+    private static List<String> listParam(ServerRequest request, String name) {
+        List<String> values = request.queryParams().get(name);
+        if (values == null) {
+            return Collections.emptyList();
+        }
+        return values.stream()
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .filter(value -> !value.isEmpty())
+                .toList();
+    }
+
+    private static long parseLong(String value, String message) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException(message + value);
+        }
+    }
+}
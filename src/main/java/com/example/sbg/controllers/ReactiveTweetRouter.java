@@ -0,0 +1,46 @@
+package com.example.sbg.controllers;
+
+import com.example.sbg.api.models.Error;
+import com.example.sbg.exceptions.BadRequestException;
+import com.example.sbg.exceptions.ResourceNotFoundException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.accept;
+
+/**
+ * Functional WebFlux routes for {@code /tweets}, active when the application is started with
+ * {@code spring.main.web-application-type=reactive}. The default servlet mode keeps serving the
+ * same paths from {@link TweeterController}. Errors use the {@link Error} body and codes of
+ * {@code GlobalExceptionHandler}.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTweetRouter {
+
+    @Bean
+    public RouterFunction<ServerResponse> tweetRoutes(ReactiveTweetHandler handler) {
+        return RouterFunctions.route()
+                .path("/tweets", builder -> builder
+                        .POST("", accept(MediaType.APPLICATION_JSON), handler::createTweet)
+                        .GET("", handler::getTweets)
+                        .DELETE("/{tweetId}", handler::deleteTweet))
+                .onError(BadRequestException.class, (e, request) -> error(HttpStatus.BAD_REQUEST, 101, e))
+                .onError(ResourceNotFoundException.class, (e, request) -> error(HttpStatus.NOT_FOUND, 103, e))
+                .onError(Exception.class, (e, request) -> error(HttpStatus.INTERNAL_SERVER_ERROR, 103, e))
+                .build();
+    }
+
+    private static Mono<ServerResponse> error(HttpStatus status, int errorCode, Throwable e) {
+        return ServerResponse.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new Error(status.value(), errorCode, e.getMessage()));
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.sbg.controllers;
+
+import com.example.sbg.api.models.BatchTweetResult;
+import com.example.sbg.api.models.BatchTweetsResp;
+import com.example.sbg.api.models.PostTweetReq;
+import com.example.sbg.exceptions.BadRequestException;
+import com.example.sbg.services.ITweeterService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk ingestion for importers. The body is either a JSON array or newline-delimited JSON of
+ * {@link PostTweetReq} items and is parsed as a stream, so only one chunk is held in memory at a time.
+ * Each chunk is persisted in its own transaction.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/tweets")
+public class TweetBatchController {
+
+    static final int CHUNK_SIZE = 500;
+
+    private final ITweeterService tweeterService;
+    private final ObjectMapper objectMapper;
+
+    public TweetBatchController(ITweeterService tweeterService, ObjectMapper objectMapper) {
+        this.tweeterService = tweeterService;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE}, produces = "application/json")
+    public ResponseEntity<BatchTweetsResp> createTweets(@RequestHeader("X-Username") String username,
+                                                        HttpServletRequest request) throws IOException {
+
+        if (username == null || username.isEmpty()) {
+            throw new BadRequestException("Username header is missing.");
+        }
+
+        List<BatchTweetResult> results = new ArrayList<>();
+        List<PostTweetReq> chunk = new ArrayList<>(CHUNK_SIZE);
+        int index = 0;
+
+        try (InputStream body = request.getInputStream();
+             MappingIterator<PostTweetReq> items = objectMapper.readerFor(PostTweetReq.class).readValues(body)) {
+            while (true) {
+                PostTweetReq item;
+                try {
+                    if (!items.hasNextValue()) {
+                        break;
+                    }
+                    item = items.nextValue();
+                } catch (JsonProcessingException e) {
+                    // The stream cannot be resynchronised after malformed input; keep what was accepted so far.
+                    flush(username, chunk, index - chunk.size(), results);
+                    results.add(new BatchTweetResult(index, HttpStatus.BAD_REQUEST.value(), null, "Malformed item: " + e.getOriginalMessage()));
+                    return ResponseEntity.ok(new BatchTweetsResp(results));
+                }
+                chunk.add(item);
+                index++;
+                if (chunk.size() == CHUNK_SIZE) {
+                    flush(username, chunk, index - chunk.size(), results);
+                }
+            }
+        }
+        flush(username, chunk, index - chunk.size(), results);
+
+        return ResponseEntity.ok(new BatchTweetsResp(results));
+    }
+
+    private void flush(String username, List<PostTweetReq> chunk, int firstIndex, List<BatchTweetResult> results) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            results.addAll(tweeterService.createTweets(username, chunk, firstIndex));
+        } catch (RuntimeException e) {
+            // The chunk's transaction was rolled back as a whole.
+            for (int i = 0; i < chunk.size(); i++) {
+                results.add(new BatchTweetResult(firstIndex + i, HttpStatus.INTERNAL_SERVER_ERROR.value(), null, e.getMessage()));
+            }
+        }
+        chunk.clear();
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.sbg.controllers;
+
+import com.example.sbg.api.models.TweetResp;
+import com.example.sbg.exceptions.BadRequestException;
+import com.example.sbg.stream.TweetStreamBus;
+import com.example.sbg.stream.TweetStreamSink;
+import com.example.sbg.stream.TweetSubscription;
+import com.example.sbg.validation.TweetValidator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Live feed of newly created tweets as Server-Sent Events, filtered like {@code GET /tweets}.
+ * Each tweet is sent as a {@code tweet} event whose id is the tweet id. Clients that fall behind
+ * by more than the per-subscriber buffer are disconnected and should reconnect and catch up
+ * through {@code GET /tweets}.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/tweets")
+public class TweetStreamController {
+
+    private final TweetStreamBus tweetStreamBus;
+    private final Duration timeout;
+
+    public TweetStreamController(TweetStreamBus tweetStreamBus,
+                                 @Value("${tweeter.stream.timeout:30m}") Duration timeout) {
+        this.tweetStreamBus = tweetStreamBus;
+        this.timeout = timeout;
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTweets(
+            @RequestHeader("X-Username") String username,
+            @RequestParam(value = "hashTag", required = false) List<String> hashTags,
+            @RequestParam(value = "usernames", required = false) List<String> usernames) {
+
+        if (username == null || username.isEmpty()) {
+            throw new BadRequestException("Username header is missing.");
+        }
+
+        TweetValidator.requireValidHashTags(hashTags);
+        TweetValidator.requireValidUsernames(usernames);
+
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        TweetSubscription subscription = tweetStreamBus.subscribe(hashTags, usernames, new TweetStreamSink() {
+            @Override
+            public void send(TweetResp tweet) throws IOException {
+                emitter.send(SseEmitter.event()
+                        .name("tweet")
+                        .id(tweet.getTweetId())
+                        .data(tweet, MediaType.APPLICATION_JSON));
+            }
+
+            @Override
+            public void close() {
+                emitter.complete();
+            }
+        });
+        emitter.onCompletion(() -> tweetStreamBus.unsubscribe(subscription));
+        emitter.onTimeout(() -> tweetStreamBus.unsubscribe(subscription));
+        emitter.onError(e -> tweetStreamBus.unsubscribe(subscription));
+        return emitter;
+    }
+}
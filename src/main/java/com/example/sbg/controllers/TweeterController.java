@@ -2,17 +2,24 @@ package com.example.sbg.controllers;
 
 import com.example.sbg.api.models.Error;
 import com.example.sbg.api.models.PostTweetReq;
+import com.example.sbg.api.models.TweetCursor;
 import com.example.sbg.api.models.TweetResp;
 import com.example.sbg.api.models.TweetsPageResp;
+import com.example.sbg.cache.TweetPageVersions;
 import com.example.sbg.exceptions.BadRequestException;
 import com.example.sbg.mappers.TweetMapper;
 import com.example.sbg.model.Tweet;
 import com.example.sbg.services.ITweeterService;
+import com.example.sbg.validation.TweetValidator;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -20,13 +27,30 @@ import org.springframework.web.bind.annotation.*;
 import java.util.List;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/tweets")
 public class TweeterController {
 
     private final ITweeterService tweeterService;
+    private final TweetPageVersions tweetPageVersions;
 
     public TweeterController(ITweeterService tweeterService) {
+        this(tweeterService, null);
+    }
+
+    public TweeterController(ITweeterService tweeterService, TweetPageVersions tweetPageVersions) {
+        this(tweeterService, tweetPageVersions, true);
+    }
+
+    /**
+     * Page versions only count writes made through this instance, so ETags are opt-in through
+     * {@code tweeter.etag.enabled} for deployments that run a single instance.
+     */
+    @Autowired
+    public TweeterController(ITweeterService tweeterService, TweetPageVersions tweetPageVersions,
+                             @Value("${tweeter.etag.enabled:false}") boolean eTagsEnabled) {
         this.tweeterService = tweeterService;
+        this.tweetPageVersions = eTagsEnabled ? tweetPageVersions : null;
     }
 
     @PostMapping(produces = "application/json")
@@ -60,14 +84,16 @@ public class TweeterController {
     }
 
     @Operation(summary = "Get Tweets", description = "Retrieve a list of tweets based on the provided parameters.")
-    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Successful retrieval of tweets", content = @Content(mediaType = "application/json", schema = @Schema(implementation = TweetsPageResp.class))), @ApiResponse(responseCode = "400", description = "Bad request", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Error.class))), @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Error.class))), @ApiResponse(responseCode = "412", description = "Precondition Failed", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Error.class))),})
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Successful retrieval of tweets", content = @Content(mediaType = "application/json", schema = @Schema(implementation = TweetsPageResp.class))), @ApiResponse(responseCode = "304", description = "Page unchanged since the ETag in If-None-Match"), @ApiResponse(responseCode = "400", description = "Bad request", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Error.class))), @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Error.class))), @ApiResponse(responseCode = "412", description = "Precondition Failed", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Error.class))),})
     @GetMapping(produces = "application/json")
     public ResponseEntity<TweetsPageResp> getTweets(
             @RequestHeader("X-Username") String username,
             @RequestParam(value = "hashTag", required = false) List<String> hashTags,
             @RequestParam(value = "usernames", required = false) List<String> usernames,
             @RequestParam(value = "limit", defaultValue = "50") int limit,
-            @RequestParam(value = "offset", defaultValue = "0") int offset) {
+            @RequestParam(value = "offset", defaultValue = "0") int offset,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
 
         if (username == null || username.isEmpty()) {
             throw new BadRequestException("Username header is missing.");
@@ -77,35 +103,73 @@ public class TweeterController {
             throw new BadRequestException("Limit or offset parameters are out of range.");
         }
 
-        if (hashTags != null) {
-            for (String tag : hashTags) {
-                if (!tag.matches("^#[a-zA-Z0-9_]*$")) {
-                    throw new BadRequestException("Invalid hash tag: " + tag);
-                }
-            }
+        TweetValidator.requireValidHashTags(hashTags);
+        TweetValidator.requireValidUsernames(usernames);
+
+        if (cursor != null && offset > 0) {
+            throw new BadRequestException("Cursor and offset parameters cannot be combined.");
         }
-        if (usernames != null) {
-            for (String name : usernames) {
-                if (!name.matches("^[a-zA-Z0-9_]*$")) {
-                    throw new BadRequestException("Invalid username: " + name);
-                }
-            }
+
+        // Read before the query: a write landing in between yields a newer body under an older tag,
+        // which only costs the client one extra download.
+        String eTag = tweetPageVersions != null ? tweetPageVersions.eTag(hashTags, usernames) : null;
+        if (TweetPageVersions.matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(CacheControl.noCache()).build();
         }
 
         TweetsPageResp tweetPage;
 
-        if (hashTags != null && !hashTags.isEmpty() && usernames != null && !usernames.isEmpty()) {
-            tweetPage = tweeterService.getTweetsByHashtagsAndUsernames(hashTags, usernames, offset, limit);
-        } else if (hashTags != null && !hashTags.isEmpty()) {
-            tweetPage = tweeterService.getTweetsByHashtags(hashTags, offset, limit);
-        } else if (usernames != null && !usernames.isEmpty()) {
-            tweetPage = tweeterService.getTweetsByUsernames(usernames, offset, limit);
+        // Offset paging is kept for existing clients; first pages and cursor links use keyset paging.
+        if (offset > 0) {
+            if (hashTags != null && !hashTags.isEmpty() && usernames != null && !usernames.isEmpty()) {
+                tweetPage = tweeterService.getTweetsByHashtagsAndUsernames(hashTags, usernames, offset, limit);
+            } else if (hashTags != null && !hashTags.isEmpty()) {
+                tweetPage = tweeterService.getTweetsByHashtags(hashTags, offset, limit);
+            } else if (usernames != null && !usernames.isEmpty()) {
+                tweetPage = tweeterService.getTweetsByUsernames(usernames, offset, limit);
+            } else {
+                tweetPage = tweeterService.getAllTweets(offset, limit);
+            }
         } else {
-            tweetPage = tweeterService.getAllTweets(offset, limit);
+            TweetCursor tweetCursor = TweetCursor.decode(cursor);
+            if (hashTags != null && !hashTags.isEmpty() && usernames != null && !usernames.isEmpty()) {
+                tweetPage = tweeterService.getTweetsByHashtagsAndUsernames(hashTags, usernames, tweetCursor, limit);
+            } else if (hashTags != null && !hashTags.isEmpty()) {
+                tweetPage = tweeterService.getTweetsByHashtags(hashTags, tweetCursor, limit);
+            } else if (usernames != null && !usernames.isEmpty()) {
+                tweetPage = tweeterService.getTweetsByUsernames(usernames, tweetCursor, limit);
+            } else {
+                tweetPage = tweeterService.getAllTweets(tweetCursor, limit);
+            }
         }
 
-        return ResponseEntity.ok(tweetPage);
+        if (eTag == null) {
+            return ResponseEntity.ok(tweetPage);
+        }
+        return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(tweetPage);
     }
 
+    @Operation(summary = "Search Tweets", description = "Retrieve tweets containing every word of the query, newest first.")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Successful retrieval of tweets", content = @Content(mediaType = "application/json", schema = @Schema(implementation = TweetsPageResp.class))), @ApiResponse(responseCode = "400", description = "Bad request", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Error.class))), @ApiResponse(responseCode = "503", description = "Search index is still loading", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Error.class))),})
+    @GetMapping(value = "/search", produces = "application/json")
+    public ResponseEntity<TweetsPageResp> searchTweets(
+            @RequestHeader("X-Username") String username,
+            @RequestParam(value = "q", required = false) String query,
+            @RequestParam(value = "limit", defaultValue = "50") int limit,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+
+        if (username == null || username.isEmpty()) {
+            throw new BadRequestException("Username header is missing.");
+        }
 
-}
\ No newline at end of file
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query is missing.");
+        }
+
+        if (limit < 1 || limit > 100) {
+            throw new BadRequestException("Limit parameter is out of range.");
+        }
+
+        return ResponseEntity.ok(tweeterService.searchTweets(query, TweetCursor.decode(cursor), limit));
+    }
+}
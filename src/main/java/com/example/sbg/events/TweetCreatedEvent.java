@@ -0,0 +1,13 @@
+package com.example.sbg.events;
+
+import com.example.sbg.model.Tweet;
+
+/**
+ * Published by the tweet service once a tweet has been persisted.
+ */
+public class TweetCreatedEvent extends TweetEvent {
+
+    public TweetCreatedEvent(Tweet tweet) {
+        super(tweet);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.sbg.events;
+
+import com.example.sbg.model.Tweet;
+
+/**
+ * Published by the tweet service once a tweet has been removed.
+ */
+public class TweetDeletedEvent extends TweetEvent {
+
+    public TweetDeletedEvent(Tweet tweet) {
+        super(tweet);
+    }
+}
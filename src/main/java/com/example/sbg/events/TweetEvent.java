@@ -0,0 +1,29 @@
+package com.example.sbg.events;
+
+import com.example.sbg.model.HashTag;
+import com.example.sbg.model.Tweet;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Detached snapshot of a tweet mutation. Listeners run after the surrounding transaction commits,
+ * so the event copies what they need instead of holding on to the managed entity.
+ */
+@Getter
+public abstract class TweetEvent {
+    private final Long tweetId;
+    private final String username;
+    private final String content;
+    private final List<String> hashtags;
+    private final LocalDateTime createdAt;
+
+    protected TweetEvent(Tweet tweet) {
+        this.tweetId = tweet.getId();
+        this.username = tweet.getUsername();
+        this.content = tweet.getContent();
+        this.hashtags = tweet.getHashtags().stream().map(HashTag::getHashTag).toList();
+        this.createdAt = tweet.getCreatedAt();
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.sbg.exceptions;
 
 import com.example.sbg.api.models.Error;
+import com.example.sbg.api.models.TweetResp;
+import com.example.sbg.mappers.TweetMapper;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -22,6 +24,17 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<Error> handleServiceUnavailableException(ServiceUnavailableException ex, WebRequest request) {
+        Error errorDetails = new Error(HttpStatus.SERVICE_UNAVAILABLE.value(), 104, ex.getMessage());
+        return new ResponseEntity<>(errorDetails, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(TweetAcceptedException.class)
+    public ResponseEntity<TweetResp> handleTweetAcceptedException(TweetAcceptedException ex, WebRequest request) {
+        return new ResponseEntity<>(TweetMapper.toTweetResp(ex.getTweet()), HttpStatus.ACCEPTED);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Error> handleGlobalException(Exception ex, WebRequest request) {
         Error errorDetails = new Error(HttpStatus.INTERNAL_SERVER_ERROR.value(), 103, ex.getMessage());
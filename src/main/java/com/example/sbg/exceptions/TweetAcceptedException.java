@@ -0,0 +1,21 @@
+package com.example.sbg.exceptions;
+
+import com.example.sbg.model.Tweet;
+
+/**
+ * The tweet was queued with its id assigned but not persisted within the wait; it will still be
+ * committed, so the client is answered 202 with the id instead of an error it would retry.
+ */
+public class TweetAcceptedException extends RuntimeException {
+
+    private final transient Tweet tweet;
+
+    public TweetAcceptedException(Tweet tweet) {
+        super("Tweet was queued and will be persisted shortly.");
+        this.tweet = tweet;
+    }
+
+    public Tweet getTweet() {
+        return tweet;
+    }
+}
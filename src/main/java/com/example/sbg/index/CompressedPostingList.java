@@ -0,0 +1,149 @@
+package com.example.sbg.index;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Immutable ascending list of tweet ids, stored as blocks of varint encoded gaps and read in place,
+ * typically from a memory-mapped segment. A skip table with each block's first id lets lookups decode
+ * only the blocks they need; Snowflake ids of neighbouring tweets differ by small gaps, so most ids
+ * take two to four bytes instead of eight.
+ * <p>
+ * Layout: id count (int), block count (int), one skip entry per block (first id as long, data offset
+ * as int, id count as int), then the block data: the gap from each id after the first to its predecessor.
+ */
+final class CompressedPostingList implements SortedIds {
+
+    static final int BLOCK_SIZE = 128;
+    private static final int HEADER_BYTES = 8;
+    private static final int SKIP_ENTRY_BYTES = 16;
+
+    private final ByteBuffer buffer;
+    private final int count;
+    private final int blocks;
+
+    CompressedPostingList(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.count = buffer.getInt(0);
+        this.blocks = buffer.getInt(4);
+    }
+
+    /**
+     * Encodes {@code ids}, which must be ascending and distinct.
+     */
+    static byte[] encode(long[] ids) {
+        int blocks = (ids.length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        ByteArrayOutputStream data = new ByteArrayOutputStream(ids.length * 3);
+        ByteBuffer skip = ByteBuffer.allocate(HEADER_BYTES + blocks * SKIP_ENTRY_BYTES);
+        skip.putInt(ids.length).putInt(blocks);
+        for (int block = 0; block < blocks; block++) {
+            int from = block * BLOCK_SIZE;
+            int to = Math.min(from + BLOCK_SIZE, ids.length);
+            skip.putLong(ids[from]).putInt(data.size()).putInt(to - from);
+            for (int i = from + 1; i < to; i++) {
+                writeVarint(data, ids[i] - ids[i - 1]);
+            }
+        }
+        byte[] header = skip.array();
+        byte[] encoded = new byte[header.length + data.size()];
+        System.arraycopy(header, 0, encoded, 0, header.length);
+        System.arraycopy(data.toByteArray(), 0, encoded, header.length, data.size());
+        return encoded;
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public boolean contains(long id) {
+        int block = lastBlockStartingAtOrBelow(id);
+        if (block < 0) {
+            return false;
+        }
+        for (long candidate : decode(block)) {
+            if (candidate == id) {
+                return true;
+            }
+            if (candidate > id) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public long[] before(long beforeId, int limit) {
+        long[] result = new long[Math.min(limit, count)];
+        int size = 0;
+        for (int block = lastBlockStartingAtOrBelow(beforeId - 1); block >= 0 && size < result.length; block--) {
+            long[] ids = decode(block);
+            for (int i = ids.length - 1; i >= 0 && size < result.length; i--) {
+                if (ids[i] < beforeId) {
+                    result[size++] = ids[i];
+                }
+            }
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    long[] toArray() {
+        long[] result = new long[count];
+        int size = 0;
+        for (int block = 0; block < blocks; block++) {
+            long[] ids = decode(block);
+            System.arraycopy(ids, 0, result, size, ids.length);
+            size += ids.length;
+        }
+        return result;
+    }
+
+    private int lastBlockStartingAtOrBelow(long id) {
+        int low = 0;
+        int high = blocks - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (firstId(mid) <= id) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    private long firstId(int block) {
+        return buffer.getLong(HEADER_BYTES + block * SKIP_ENTRY_BYTES);
+    }
+
+    private long[] decode(int block) {
+        int entry = HEADER_BYTES + block * SKIP_ENTRY_BYTES;
+        long[] ids = new long[buffer.getInt(entry + 12)];
+        int position = HEADER_BYTES + blocks * SKIP_ENTRY_BYTES + buffer.getInt(entry + 8);
+        ids[0] = buffer.getLong(entry);
+        for (int i = 1; i < ids.length; i++) {
+            long gap = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer.get(position++);
+                gap |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            ids[i] = ids[i - 1] + gap;
+        }
+        return ids;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+}
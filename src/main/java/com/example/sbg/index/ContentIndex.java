@@ -0,0 +1,441 @@
+package com.example.sbg.index;
+
+import com.example.sbg.events.TweetCreatedEvent;
+import com.example.sbg.events.TweetDeletedEvent;
+import com.example.sbg.model.id.Snowflake;
+import com.example.sbg.repository.TweetContentRow;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process-local full-text index of tweet content. New tweets go to an in-memory segment of growable
+ * posting lists; once it holds {@code flush-docs} tweets, and on shutdown, it is written out as an
+ * immutable memory-mapped {@link IndexSegment}. Deletes remove ids from the memory segment and are
+ * recorded as tombstones for the flushed ones. When more than {@code max-segments} segments exist
+ * they are merged into one, dropping tombstoned ids.
+ * <p>
+ * Writes only append to the memory segment. Flushes, merges and the start-up catch-up run on one
+ * background thread; a memory segment being flushed stays searchable until its file is published.
+ * <p>
+ * A manifest records the segments and the highest tweet id they cover, so a restart only reads tweets
+ * created since then from the {@link TweetIndexSource}. Without {@code tweeter.search.directory} segments
+ * live in a temporary directory and the index is rebuilt from the tweet store on every start.
+ * Like the other in-memory indexes it only sees writes made through this instance.
+ */
+@Component
+public class ContentIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ContentIndex.class);
+    private static final String MANIFEST = "manifest.properties";
+    private static final String TOMBSTONES = "deleted.bin";
+    // Tweets committed shortly before a flush can carry lower ids than tweets already flushed.
+    private static final long CATCH_UP_OVERLAP_MILLIS = 60_000;
+    private static final int SCAN_BATCH = 256;
+
+    private final TweetIndexSource tweetSource;
+    private final boolean enabled;
+    private final String configuredDirectory;
+    private final int flushDocs;
+    private final int maxSegments;
+    private final int rebuildBatchSize;
+
+    private final ExecutorService background = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "content-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Guards the files: segment writes, merges and the manifest. The memory segment is guarded by this.
+    private final Object fileLock = new Object();
+
+    private volatile Path directory;
+    private volatile List<IndexSegment> segments = List.of();
+    private volatile Map<String, PostingList> memory = new ConcurrentHashMap<>();
+    private volatile Map<String, PostingList> flushing = Map.of();
+    private final Set<Long> tombstones = ConcurrentHashMap.newKeySet();
+    private int memoryDocs;
+    private long memoryMaxId;
+    private boolean flushScheduled;
+    private boolean tombstonesChanged;
+    private long flushedMaxId;
+    private int nextSegment = 1;
+    private volatile boolean ready;
+
+    public ContentIndex(TweetIndexSource tweetSource,
+                        @Value("${tweeter.search.enabled:true}") boolean enabled,
+                        @Value("${tweeter.search.directory:}") String directory,
+                        @Value("${tweeter.search.flush-docs:10000}") int flushDocs,
+                        @Value("${tweeter.search.max-segments:8}") int maxSegments,
+                        @Value("${tweeter.search.rebuild-batch-size:10000}") int rebuildBatchSize) {
+        this.tweetSource = tweetSource;
+        this.enabled = enabled;
+        this.configuredDirectory = directory;
+        this.flushDocs = flushDocs;
+        this.maxSegments = maxSegments;
+        this.rebuildBatchSize = rebuildBatchSize;
+    }
+
+    /**
+     * The index only answers queries once its segments are open and it has caught up with the tweet store.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Opens the index on the background thread, so the segment load and the catch-up read do not hold
+     * up writes that arrive once the server accepts requests; searches answer unavailable until then.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void openInBackground() {
+        if (!enabled) {
+            return;
+        }
+        background.execute(() -> {
+            try {
+                open();
+            } catch (IOException | RuntimeException e) {
+                log.error("Search index could not be opened, search stays unavailable", e);
+            }
+        });
+    }
+
+    /**
+     * Loads the segments and catches up with the tweet store; tweets created meanwhile are added as usual.
+     */
+    public void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        long afterId;
+        synchronized (fileLock) {
+            directory = configuredDirectory.isBlank() ? Files.createTempDirectory("tweeter-search") : Files.createDirectories(Path.of(configuredDirectory));
+            try {
+                loadManifest();
+            } catch (IOException e) {
+                log.warn("Discarding unreadable search index in {}, rebuilding it from the tweet store", directory, e);
+                segments = List.of();
+                tombstones.clear();
+                flushedMaxId = 0;
+            }
+            afterId = flushedMaxId == 0 ? 0 : Snowflake.minIdAt(Snowflake.timestampOf(flushedMaxId) - CATCH_UP_OVERLAP_MILLIS);
+        }
+
+        int rows = 0;
+        while (true) {
+            List<TweetContentRow> batch = tweetSource.findContentRowsAfter(afterId, rebuildBatchSize);
+            for (TweetContentRow row : batch) {
+                add(row.getId(), row.getContent());
+            }
+            // Flushes scheduled by add would queue behind this catch-up on the same thread.
+            if (flushDue()) {
+                flush();
+            }
+            rows += batch.size();
+            if (batch.size() < rebuildBatchSize) {
+                break;
+            }
+            afterId = batch.get(batch.size() - 1).getId();
+        }
+        ready = true;
+        log.info("Search index opened with {} segments and {} tweets read from the tweet store in {} ms",
+                segments.size(), rows, System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTweetCreated(TweetCreatedEvent event) {
+        if (enabled && event.getTweetId() != null) {
+            add(event.getTweetId(), event.getContent());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onTweetDeleted(TweetDeletedEvent event) {
+        if (!enabled || event.getTweetId() == null) {
+            return;
+        }
+        for (String term : ContentTokenizer.tokenize(event.getContent())) {
+            PostingList list = memory.get(term);
+            if (list != null) {
+                list.remove(event.getTweetId());
+            }
+        }
+        tombstones.add(event.getTweetId());
+        tombstonesChanged = true;
+    }
+
+    /**
+     * Returns up to {@code limit} ids of tweets containing every term, lower than {@code beforeId},
+     * newest first. The rarest term drives the scan and the other terms are probed per candidate.
+     */
+    public long[] findIdsBefore(Collection<String> terms, long beforeId, int limit) {
+        // Newest state first: a flush publishes its segment before it drops the flushing copy, so in this
+        // order every tweet is seen at least once. Ids seen twice are merged away.
+        Map<String, PostingList> memorySnapshot = memory;
+        Map<String, PostingList> flushingSnapshot = flushing;
+        List<IndexSegment> segmentSnapshot = segments;
+        List<List<SortedIds>> sources = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            List<SortedIds> lists = new ArrayList<>();
+            PostingList inMemory = memorySnapshot.get(term);
+            if (inMemory != null && inMemory.size() > 0) {
+                lists.add(inMemory);
+            }
+            PostingList beingFlushed = flushingSnapshot.get(term);
+            if (beingFlushed != null && beingFlushed.size() > 0) {
+                lists.add(beingFlushed);
+            }
+            for (IndexSegment segment : segmentSnapshot) {
+                CompressedPostingList list = segment.postings(term);
+                if (list != null) {
+                    lists.add(list);
+                }
+            }
+            if (lists.isEmpty()) {
+                return new long[0];
+            }
+            sources.add(lists);
+        }
+        sources.sort(Comparator.comparingLong(lists -> lists.stream().mapToLong(SortedIds::size).sum()));
+
+        long[] result = new long[limit];
+        int count = 0;
+        List<SortedIds> driver = sources.get(0);
+        long cursor = beforeId;
+        while (count < limit) {
+            long[] candidates = SortedIds.mergeBefore(driver, cursor, SCAN_BATCH);
+            if (candidates.length == 0) {
+                break;
+            }
+            for (int i = 0; i < candidates.length && count < limit; i++) {
+                long id = candidates[i];
+                if (!tombstones.contains(id) && containedInAll(sources, id)) {
+                    result[count++] = id;
+                }
+            }
+            cursor = candidates[candidates.length - 1];
+        }
+        return count == limit ? result : Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Writes the memory segment out as a new segment file, and merges segments when there are too many.
+     * Writes made meanwhile go to a fresh memory segment.
+     */
+    public void flush() throws IOException {
+        synchronized (fileLock) {
+            if (directory == null) {
+                synchronized (this) {
+                    flushScheduled = false;
+                }
+                return;
+            }
+            Map<String, PostingList> flushed;
+            long flushedDocsMaxId;
+            synchronized (this) {
+                flushScheduled = false;
+                if (memoryDocs == 0) {
+                    flushed = null;
+                    flushedDocsMaxId = 0;
+                } else {
+                    flushed = memory;
+                    // Visible as flushing before it leaves memory, so a reader never misses it.
+                    flushing = flushed;
+                    memory = new ConcurrentHashMap<>();
+                    flushedDocsMaxId = memoryMaxId;
+                    memoryDocs = 0;
+                    memoryMaxId = 0;
+                }
+            }
+            if (flushed == null) {
+                if (tombstonesChanged()) {
+                    saveManifest();
+                }
+                return;
+            }
+            SortedMap<String, long[]> postings = new TreeMap<>();
+            flushed.forEach((term, list) -> {
+                long[] ids = list.toArray();
+                if (ids.length > 0) {
+                    postings.put(term, ids);
+                }
+            });
+            List<IndexSegment> updated = new ArrayList<>(segments);
+            updated.add(IndexSegment.write(directory.resolve(segmentName(nextSegment++)), postings));
+            // Publish the segment before dropping the flushing copy, so readers never miss these tweets.
+            segments = List.copyOf(updated);
+            flushing = Map.of();
+            flushedMaxId = Math.max(flushedMaxId, flushedDocsMaxId);
+            if (segments.size() > maxSegments) {
+                merge();
+            }
+            saveManifest();
+        }
+    }
+
+    /**
+     * Stops the background thread, then writes out what is still in memory.
+     */
+    @PreDestroy
+    public void close() throws IOException, InterruptedException {
+        background.shutdown();
+        background.awaitTermination(30, TimeUnit.SECONDS);
+        flush();
+    }
+
+    private void add(long id, String content) {
+        boolean scheduleFlush;
+        synchronized (this) {
+            for (String term : ContentTokenizer.tokenize(content)) {
+                memory.computeIfAbsent(term, t -> new PostingList()).add(id);
+            }
+            memoryDocs++;
+            memoryMaxId = Math.max(memoryMaxId, id);
+            scheduleFlush = memoryDocs >= flushDocs && !flushScheduled;
+            flushScheduled |= scheduleFlush;
+        }
+        if (scheduleFlush) {
+            try {
+                background.execute(this::flushInBackground);
+            } catch (RejectedExecutionException e) {
+                // Shutting down: close() flushes what is left.
+            }
+        }
+    }
+
+    private void flushInBackground() {
+        try {
+            flush();
+        } catch (IOException | RuntimeException e) {
+            log.error("Search index flush failed, keeping the tweets in memory", e);
+        }
+    }
+
+    private synchronized boolean flushDue() {
+        return memoryDocs >= flushDocs;
+    }
+
+    private synchronized boolean tombstonesChanged() {
+        return tombstonesChanged;
+    }
+
+    private void merge() throws IOException {
+        // Tombstones added while merging may name ids in the merged segment, so only these are cleared.
+        Set<Long> applied = new HashSet<>(tombstones);
+        SortedMap<String, long[]> postings = new TreeMap<>();
+        Set<String> terms = new HashSet<>();
+        segments.forEach(segment -> terms.addAll(segment.terms()));
+        for (String term : terms) {
+            long[] ids = segments.stream()
+                    .map(segment -> segment.postings(term))
+                    .filter(Objects::nonNull)
+                    .flatMapToLong(list -> Arrays.stream(list.toArray()))
+                    .filter(id -> !applied.contains(id))
+                    .sorted()
+                    .distinct()
+                    .toArray();
+            if (ids.length > 0) {
+                postings.put(term, ids);
+            }
+        }
+        List<IndexSegment> merged = segments;
+        segments = List.of(IndexSegment.write(directory.resolve(segmentName(nextSegment++)), postings));
+        tombstones.removeAll(applied);
+        // Readers holding the old list keep their mappings; on POSIX systems the files can go right away.
+        saveManifest();
+        for (IndexSegment segment : merged) {
+            Files.deleteIfExists(segment.file());
+        }
+    }
+
+    private static boolean containedInAll(List<List<SortedIds>> sources, long id) {
+        for (int i = 1; i < sources.size(); i++) {
+            boolean found = false;
+            for (SortedIds list : sources.get(i)) {
+                if (list.contains(id)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void loadManifest() throws IOException {
+        Path manifestFile = directory.resolve(MANIFEST);
+        if (!Files.exists(manifestFile)) {
+            return;
+        }
+        Properties manifest = new Properties();
+        try (Reader reader = Files.newBufferedReader(manifestFile)) {
+            manifest.load(reader);
+        }
+        List<IndexSegment> opened = new ArrayList<>();
+        for (String name : manifest.getProperty("segments", "").split(",")) {
+            if (!name.isBlank()) {
+                opened.add(IndexSegment.open(directory.resolve(name)));
+            }
+        }
+        Path tombstoneFile = directory.resolve(TOMBSTONES);
+        if (Files.exists(tombstoneFile)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(tombstoneFile)))) {
+                for (int i = in.readInt(); i > 0; i--) {
+                    tombstones.add(in.readLong());
+                }
+            }
+        }
+        segments = List.copyOf(opened);
+        flushedMaxId = Long.parseLong(manifest.getProperty("max-id", "0"));
+        nextSegment = Integer.parseInt(manifest.getProperty("next-segment", "1"));
+    }
+
+    private void saveManifest() throws IOException {
+        List<Long> ids;
+        synchronized (this) {
+            tombstonesChanged = false;
+            ids = new ArrayList<>(tombstones);
+        }
+        Path tombstoneFile = directory.resolve(TOMBSTONES + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tombstoneFile)))) {
+            out.writeInt(ids.size());
+            for (long id : ids) {
+                out.writeLong(id);
+            }
+        }
+        Files.move(tombstoneFile, directory.resolve(TOMBSTONES), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        Properties manifest = new Properties();
+        manifest.setProperty("segments", String.join(",", segments.stream().map(segment -> segment.file().getFileName().toString()).toList()));
+        manifest.setProperty("max-id", Long.toString(flushedMaxId));
+        manifest.setProperty("next-segment", Integer.toString(nextSegment));
+        Path manifestFile = directory.resolve(MANIFEST + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(manifestFile)) {
+            manifest.store(writer, "Search index segments");
+        }
+        Files.move(manifestFile, directory.resolve(MANIFEST), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String segmentName(int number) {
+        return String.format("segment-%06d.idx", number);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.sbg.index;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Splits tweet text into index terms: maximal runs of letters and digits, lower-cased. A leading
+ * {@code #} or {@code @} is dropped, so {@code #Java} and {@code java} find the same tweets.
+ * Terms longer than {@link #MAX_TERM_LENGTH} are skipped, since they are almost never searched for.
+ */
+public final class ContentTokenizer {
+
+    public static final int MAX_TERM_LENGTH = 40;
+
+    private ContentTokenizer() {
+    }
+
+    public static Set<String> tokenize(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (text == null) {
+            return terms;
+        }
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            int codePoint = text.codePointAt(i);
+            if (!Character.isLetterOrDigit(codePoint)) {
+                i += Character.charCount(codePoint);
+                continue;
+            }
+            int start = i;
+            while (i < length && Character.isLetterOrDigit(codePoint = text.codePointAt(i))) {
+                i += Character.charCount(codePoint);
+            }
+            if (i - start <= MAX_TERM_LENGTH) {
+                terms.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+            }
+        }
+        return terms;
+    }
+}
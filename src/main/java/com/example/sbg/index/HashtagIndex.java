@@ -0,0 +1,159 @@
+package com.example.sbg.index;
+
+import com.example.sbg.events.TweetCreatedEvent;
+import com.example.sbg.events.TweetDeletedEvent;
+import com.example.sbg.repository.TweetHashTagRow;
+import com.example.sbg.validation.TweetValidator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-local inverted index from hash tag to the ids of the tweets carrying it.
+ * It is rebuilt from the tweet store at startup and kept current from tweet events, so hash tag
+ * reads can pick the ids of a page without joining tweet_hashtag and hash_tag.
+ * Like the database fallback, pages are ordered and sought by {@code (created_at, id)}, and tags are
+ * matched case-insensitively the way the column collation matches them.
+ * <p>
+ * Off unless {@code tweeter.hashtag-index.enabled} is set: it only sees writes made through this instance.
+ */
+@Component
+public class HashtagIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(HashtagIndex.class);
+
+    private final TweetIndexSource tweetSource;
+    private final boolean enabled;
+    private final int rebuildBatchSize;
+    private final Map<String, SeekPostingList> postings = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    public HashtagIndex(TweetIndexSource tweetSource,
+                        @Value("${tweeter.hashtag-index.enabled:false}") boolean enabled,
+                        @Value("${tweeter.hashtag-index.rebuild-batch-size:10000}") int rebuildBatchSize) {
+        // Each batch restarts at its last tweet, so one tweet's rows must not fill a whole batch.
+        if (rebuildBatchSize <= TweetValidator.MAX_HASH_TAGS_PER_TWEET) {
+            throw new IllegalArgumentException("Rebuild batch size must exceed " + TweetValidator.MAX_HASH_TAGS_PER_TWEET + ": " + rebuildBatchSize);
+        }
+        this.tweetSource = tweetSource;
+        this.enabled = enabled;
+        this.rebuildBatchSize = rebuildBatchSize;
+    }
+
+    /**
+     * The index only answers queries once the startup rebuild has completed.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        long fromId = 0;
+        int rows = 0;
+        while (true) {
+            List<TweetHashTagRow> batch = tweetSource.findHashTagRowsFrom(fromId, rebuildBatchSize);
+            for (TweetHashTagRow row : batch) {
+                add(row.getHashTag(), row.getCreatedAt(), row.getTweetId());
+            }
+            rows += batch.size();
+            if (batch.size() < rebuildBatchSize) {
+                break;
+            }
+            // Restart from the last tweet so tags split across two batches are not lost; duplicates are ignored.
+            fromId = batch.get(batch.size() - 1).getTweetId();
+        }
+        ready = true;
+        log.info("Hash tag index rebuilt with {} tags from {} rows in {} ms", postings.size(), rows, System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTweetCreated(TweetCreatedEvent event) {
+        if (!enabled || event.getTweetId() == null) {
+            return;
+        }
+        for (String tag : event.getHashtags()) {
+            add(tag, event.getCreatedAt(), event.getTweetId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTweetDeleted(TweetDeletedEvent event) {
+        if (!enabled || event.getTweetId() == null) {
+            return;
+        }
+        for (String tag : event.getHashtags()) {
+            SeekPostingList list = postings.get(normalize(tag));
+            if (list != null) {
+                list.remove(SeekPostingList.key(event.getCreatedAt()), event.getTweetId());
+            }
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} distinct ids of tweets tagged with any of {@code hashtags} and older
+     * than the {@code (createdAt, id)} cursor, newest first. Each posting list contributes at most
+     * {@code limit} candidates, which are then k-way merged.
+     */
+    public long[] findIdsBefore(Collection<String> hashtags, LocalDateTime createdAt, long beforeId, int limit) {
+        long key = SeekPostingList.key(createdAt);
+        long[][][] lists = new long[hashtags.size()][][];
+        int k = 0;
+        for (String tag : hashtags) {
+            SeekPostingList list = postings.get(normalize(tag));
+            lists[k++] = list == null ? new long[2][0] : list.before(key, beforeId, limit);
+        }
+
+        int[] heads = new int[k];
+        long[] result = new long[limit];
+        int count = 0;
+        long last = Long.MAX_VALUE;
+        while (count < limit) {
+            int best = -1;
+            for (int i = 0; i < k; i++) {
+                if (heads[i] < lists[i][1].length && (best < 0 || newer(lists[i], heads[i], lists[best], heads[best]))) {
+                    best = i;
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+            long id = lists[best][1][heads[best]++];
+            // A tweet carries one key, so its entries in several tags' lists come out back to back.
+            if (id != last) {
+                result[count++] = id;
+                last = id;
+            }
+        }
+        return count == limit ? result : Arrays.copyOf(result, count);
+    }
+
+    private void add(String tag, LocalDateTime createdAt, long tweetId) {
+        postings.computeIfAbsent(normalize(tag), t -> new SeekPostingList()).add(SeekPostingList.key(createdAt), tweetId);
+    }
+
+    private static boolean newer(long[][] list, int position, long[][] other, int otherPosition) {
+        int comparison = Long.compare(list[0][position], other[0][otherPosition]);
+        return comparison != 0 ? comparison > 0 : list[1][position] > other[1][otherPosition];
+    }
+
+    private static String normalize(String tag) {
+        return tag.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.sbg.index;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Immutable, memory-mapped file of the full-text index: a term dictionary followed by one
+ * {@link CompressedPostingList} per term. Only the dictionary is read onto the heap when a segment is
+ * opened; posting lists are decoded from the mapping on demand, so the page cache holds the hot ones.
+ * <p>
+ * Layout: magic, version, highest tweet id (long), term count, then per term its UTF-8 length (short),
+ * bytes, postings offset (int) and length (int) relative to the end of the dictionary, then the postings.
+ */
+final class IndexSegment {
+
+    private static final int MAGIC = 0x54575347;
+    private static final int VERSION = 1;
+
+    private record Entry(int offset, int length) {
+    }
+
+    private final Path file;
+    private final long maxId;
+    private final Map<String, Entry> dictionary;
+    private final ByteBuffer postings;
+
+    private IndexSegment(Path file, long maxId, Map<String, Entry> dictionary, ByteBuffer postings) {
+        this.file = file;
+        this.maxId = maxId;
+        this.dictionary = dictionary;
+        this.postings = postings;
+    }
+
+    /**
+     * Writes {@code postings}, each ascending, to {@code file} through a temporary file and an atomic
+     * rename, then opens the result.
+     */
+    static IndexSegment write(Path file, SortedMap<String, long[]> postings) throws IOException {
+        long maxId = 0;
+        List<byte[]> encoded = new ArrayList<>(postings.size());
+        for (long[] ids : postings.values()) {
+            encoded.add(CompressedPostingList.encode(ids));
+            if (ids.length > 0) {
+                maxId = Math.max(maxId, ids[ids.length - 1]);
+            }
+        }
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(maxId);
+            out.writeInt(postings.size());
+            int offset = 0;
+            int i = 0;
+            for (String term : postings.keySet()) {
+                byte[] bytes = term.getBytes(StandardCharsets.UTF_8);
+                out.writeShort(bytes.length);
+                out.write(bytes);
+                out.writeInt(offset);
+                out.writeInt(encoded.get(i).length);
+                offset += encoded.get(i++).length;
+            }
+            for (byte[] list : encoded) {
+                out.write(list);
+            }
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return open(file);
+    }
+
+    static IndexSegment open(Path file) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (mapped.getInt() != MAGIC || mapped.getInt() != VERSION) {
+            throw new IOException("Not a search index segment: " + file);
+        }
+        long maxId = mapped.getLong();
+        int terms = mapped.getInt();
+        Map<String, Entry> dictionary = new HashMap<>(terms * 2);
+        for (int i = 0; i < terms; i++) {
+            byte[] bytes = new byte[mapped.getShort()];
+            mapped.get(bytes);
+            dictionary.put(new String(bytes, StandardCharsets.UTF_8), new Entry(mapped.getInt(), mapped.getInt()));
+        }
+        return new IndexSegment(file, maxId, dictionary, mapped.slice());
+    }
+
+    Path file() {
+        return file;
+    }
+
+    long maxId() {
+        return maxId;
+    }
+
+    Set<String> terms() {
+        return dictionary.keySet();
+    }
+
+    /**
+     * The posting list of {@code term}, or null if no tweet in this segment contains it.
+     */
+    CompressedPostingList postings(String term) {
+        Entry entry = dictionary.get(term);
+        return entry == null ? null : new CompressedPostingList(postings.slice(entry.offset(), entry.length()));
+    }
+}
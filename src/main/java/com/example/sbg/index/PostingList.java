@@ -0,0 +1,96 @@
+package com.example.sbg.index;
+
+import java.util.Arrays;
+
+/**
+ * Sorted list of tweet ids kept in a growable primitive array, ascending by id.
+ * Ids are assigned in insertion order, so the common write is an append at the tail and
+ * newest-first reads walk the array backwards.
+ */
+public class PostingList implements SortedIds {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private long[] ids;
+    private int size;
+
+    public PostingList() {
+        ids = new long[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Builds the list from ids in any order with one sort, for bulk loads that would otherwise insert
+     * out of order one at a time. Duplicates are dropped.
+     */
+    public PostingList(long[] ids, int length) {
+        long[] sorted = Arrays.copyOf(ids, Math.max(length, INITIAL_CAPACITY));
+        Arrays.sort(sorted, 0, length);
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            if (count == 0 || sorted[count - 1] != sorted[i]) {
+                sorted[count++] = sorted[i];
+            }
+        }
+        this.ids = sorted;
+        this.size = count;
+    }
+
+    public synchronized void add(long id) {
+        int position = size == 0 || ids[size - 1] < id ? size : Arrays.binarySearch(ids, 0, size, id);
+        if (position >= 0 && position < size) {
+            return;
+        }
+        int insertAt = position >= 0 ? position : -position - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        size++;
+    }
+
+    public synchronized boolean remove(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position < 0) {
+            return false;
+        }
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+        return true;
+    }
+
+    @Override
+    public synchronized boolean contains(long id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    @Override
+    public synchronized long[] before(long beforeId, int limit) {
+        int position = Arrays.binarySearch(ids, 0, size, beforeId);
+        int end = position >= 0 ? position : -position - 1;
+        int count = Math.min(limit, end);
+        long[] result = new long[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = ids[end - 1 - i];
+        }
+        return result;
+    }
+
+    /**
+     * Returns up to {@code limit} ids strictly greater than {@code afterId}, oldest first.
+     */
+    public synchronized long[] after(long afterId, int limit) {
+        int position = Arrays.binarySearch(ids, 0, size, afterId);
+        int start = position >= 0 ? position + 1 : -position - 1;
+        return Arrays.copyOfRange(ids, start, start + Math.min(limit, size - start));
+    }
+
+    @Override
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized long[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+}
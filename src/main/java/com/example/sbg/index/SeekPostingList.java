@@ -0,0 +1,94 @@
+package com.example.sbg.index;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Tweet ids kept in the order of the database's keyset reads, ascending by {@code (created_at, id)},
+ * in two parallel growable arrays. Creation times are held as epoch microseconds, the precision of the
+ * created_at column, so a cursor seeks here exactly as it does in SQL. Most writes carry the newest
+ * key and append at the tail.
+ */
+final class SeekPostingList {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private long[] createdAts = new long[INITIAL_CAPACITY];
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int size;
+
+    static long key(LocalDateTime createdAt) {
+        return createdAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + createdAt.getNano() / 1_000;
+    }
+
+    synchronized void add(long createdAt, long id) {
+        int position = size == 0 || compare(size - 1, createdAt, id) < 0 ? -size - 1 : search(createdAt, id);
+        if (position >= 0) {
+            return;
+        }
+        int insertAt = -position - 1;
+        if (size == ids.length) {
+            createdAts = Arrays.copyOf(createdAts, size * 2);
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(createdAts, insertAt, createdAts, insertAt + 1, size - insertAt);
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        createdAts[insertAt] = createdAt;
+        ids[insertAt] = id;
+        size++;
+    }
+
+    synchronized boolean remove(long createdAt, long id) {
+        int position = search(createdAt, id);
+        if (position < 0) {
+            return false;
+        }
+        System.arraycopy(createdAts, position + 1, createdAts, position, size - position - 1);
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+        return true;
+    }
+
+    /**
+     * Returns up to {@code limit} entries strictly before {@code (createdAt, id)}, newest first, as
+     * an array of creation keys and an array of ids.
+     */
+    synchronized long[][] before(long createdAt, long id, int limit) {
+        int position = search(createdAt, id);
+        int end = position >= 0 ? position : -position - 1;
+        int count = Math.min(limit, end);
+        long[][] result = new long[2][count];
+        for (int i = 0; i < count; i++) {
+            result[0][i] = createdAts[end - 1 - i];
+            result[1][i] = ids[end - 1 - i];
+        }
+        return result;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    private int search(long createdAt, long id) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compare(middle, createdAt, id);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -low - 1;
+    }
+
+    private int compare(int position, long createdAt, long id) {
+        int comparison = Long.compare(createdAts[position], createdAt);
+        return comparison != 0 ? comparison : Long.compare(ids[position], id);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.sbg.index;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Read access shared by the in-memory and the compressed posting lists.
+ */
+public interface SortedIds {
+
+    int size();
+
+    boolean contains(long id);
+
+    /**
+     * Returns up to {@code limit} ids strictly lower than {@code beforeId}, newest first.
+     */
+    long[] before(long beforeId, int limit);
+
+    /**
+     * Returns up to {@code limit} distinct ids strictly lower than {@code beforeId} found in any of
+     * {@code lists}, newest first. Each list contributes at most {@code limit} candidates, which are then
+     * k-way merged.
+     */
+    static long[] mergeBefore(List<? extends SortedIds> lists, long beforeId, int limit) {
+        long[][] heads = new long[lists.size()][];
+        for (int i = 0; i < heads.length; i++) {
+            heads[i] = lists.get(i).before(beforeId, limit);
+        }
+        int[] positions = new int[heads.length];
+        long[] result = new long[limit];
+        int count = 0;
+        long last = Long.MAX_VALUE;
+        while (count < limit) {
+            int best = -1;
+            for (int i = 0; i < heads.length; i++) {
+                if (positions[i] < heads[i].length && (best < 0 || heads[i][positions[i]] > heads[best][positions[best]])) {
+                    best = i;
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+            long id = heads[best][positions[best]++];
+            if (id != last) {
+                result[count++] = id;
+                last = id;
+            }
+        }
+        return count == limit ? result : Arrays.copyOf(result, count);
+    }
+}
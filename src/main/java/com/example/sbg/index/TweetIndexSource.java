@@ -0,0 +1,24 @@
+package com.example.sbg.index;
+
+import com.example.sbg.repository.TweetContentRow;
+import com.example.sbg.repository.TweetHashTagRow;
+
+import java.util.List;
+
+/**
+ * The tweets the in-memory indexes are rebuilt from at startup, read from whichever store
+ * {@code tweeter.storage} selects.
+ */
+public interface TweetIndexSource {
+
+    /**
+     * Returns up to {@code limit} tweets with an id greater than {@code afterId}, ascending by id.
+     */
+    List<TweetContentRow> findContentRowsAfter(long afterId, int limit);
+
+    /**
+     * Returns up to {@code limit} tweet and tag pairs of tweets with an id of at least {@code fromId},
+     * ascending by tweet id. A tweet's tags may be split across two calls.
+     */
+    List<TweetHashTagRow> findHashTagRowsFrom(long fromId, int limit);
+}
@@ -0,0 +1,17 @@
+package com.example.sbg.ingest;
+
+/**
+ * When a write-behind {@code POST /tweets} answers its caller.
+ */
+public enum IngestAck {
+    /**
+     * As soon as the tweet is queued. Fastest, but a crash loses queued tweets and a failed flush is
+     * only logged and counted.
+     */
+    ENQUEUE,
+    /**
+     * Once the group commit holding the tweet succeeded. Still batches concurrent writers, and errors
+     * reach the caller.
+     */
+    FLUSH
+}
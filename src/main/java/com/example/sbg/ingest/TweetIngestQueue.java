@@ -0,0 +1,158 @@
+package com.example.sbg.ingest;
+
+import com.example.sbg.exceptions.ServiceUnavailableException;
+import com.example.sbg.model.Tweet;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Bounded queue of accepted tweets drained by a single writer thread. The writer takes whatever has
+ * queued up, up to {@code maxBatch} tweets, and hands it to the flusher as one group commit, so the
+ * batch grows with load instead of each request paying for its own transaction. When the queue stays
+ * full for longer than the offer timeout callers get a 503 rather than an unbounded backlog.
+ * A failed batch is retried tweet by tweet, so one bad tweet only fails its own future.
+ * Depth, flush latency, batch sizes, rejections and failures are exported as {@code tweeter.ingest.*} meters.
+ */
+public class TweetIngestQueue implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(TweetIngestQueue.class);
+    private static final long POLL_MILLIS = 100;
+
+    private final BlockingQueue<Pending> queue;
+    private final int maxBatch;
+    private final long offerTimeoutNanos;
+    private final Function<List<Tweet>, List<Tweet>> flusher;
+    private final Thread writer;
+    private final Timer flushTimer;
+    private final DistributionSummary batchSizes;
+    private final Counter rejected;
+    private final Counter failed;
+    private volatile boolean running = true;
+
+    public TweetIngestQueue(int capacity, int maxBatch, Duration offerTimeout,
+                            Function<List<Tweet>, List<Tweet>> flusher, MeterRegistry meterRegistry) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatch = maxBatch;
+        this.offerTimeoutNanos = offerTimeout.toNanos();
+        this.flusher = flusher;
+        this.flushTimer = Timer.builder("tweeter.ingest.flush")
+                .description("Time to persist one group commit of queued tweets")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("tweeter.ingest.batch.size")
+                .description("Tweets persisted per group commit")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("tweeter.ingest.rejected")
+                .description("Tweets refused because the ingest queue stayed full")
+                .register(meterRegistry);
+        this.failed = Counter.builder("tweeter.ingest.failed")
+                .description("Queued tweets that could not be persisted")
+                .register(meterRegistry);
+        meterRegistry.gauge("tweeter.ingest.queue.depth", queue, BlockingQueue::size);
+        this.writer = new Thread(this::run, "tweet-ingest-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Queues a tweet whose id is already assigned. The future completes with the persisted tweet once
+     * its group commit succeeded, or exceptionally if it could not be persisted.
+     */
+    public CompletableFuture<Tweet> submit(Tweet tweet) {
+        Pending pending = new Pending(tweet, new CompletableFuture<>());
+        boolean queued;
+        try {
+            queued = running && queue.offer(pending, offerTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        if (!queued) {
+            rejected.increment();
+            throw new ServiceUnavailableException("Too many pending tweets, try again later.");
+        }
+        return pending.done();
+    }
+
+    public int depth() {
+        return queue.size();
+    }
+
+    /**
+     * Stops accepting tweets, then waits up to {@code timeout} for the writer to flush what is queued.
+     */
+    public void close(Duration timeout) throws InterruptedException {
+        running = false;
+        writer.join(timeout.toMillis());
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        close(Duration.ofSeconds(30));
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                running = false;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Pending> batch) {
+        batchSizes.record(batch.size());
+        long start = System.nanoTime();
+        try {
+            List<Tweet> persisted = flusher.apply(batch.stream().map(Pending::tweet).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).done().complete(persisted.get(i));
+            }
+        } catch (RuntimeException batchFailure) {
+            if (batch.size() == 1) {
+                fail(batch.get(0), batchFailure);
+            } else {
+                for (Pending pending : batch) {
+                    try {
+                        pending.done().complete(flusher.apply(List.of(pending.tweet())).get(0));
+                    } catch (RuntimeException e) {
+                        fail(pending, e);
+                    }
+                }
+            }
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void fail(Pending pending, RuntimeException e) {
+        failed.increment();
+        log.error("Could not persist queued tweet {}", pending.tweet().getId(), e);
+        pending.done().completeExceptionally(e);
+    }
+
+    private record Pending(Tweet tweet, CompletableFuture<Tweet> done) {
+    }
+}
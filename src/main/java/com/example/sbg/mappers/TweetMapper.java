@@ -1,25 +1,23 @@
 package com.example.sbg.mappers;
 
-import com.example.sbg.api.models.PostTweetReq;
 import com.example.sbg.api.models.TweetResp;
+import com.example.sbg.events.TweetEvent;
 import com.example.sbg.model.HashTag;
 import com.example.sbg.model.Tweet;
-import com.example.sbg.repository.HashTagRepository;
+import com.example.sbg.repository.TweetRow;
 
-import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
 public class TweetMapper {
 
-    private static HashTagRepository hashTagRepository;
-
-    public TweetMapper(HashTagRepository hashTagRepository) {
-        TweetMapper.hashTagRepository = hashTagRepository;
-    }
-
     public static TweetResp toTweetResp(Tweet tweet) {
-        List<String> hashtags = tweet.getHashtags().stream()
+        // Loaded tweets carry their tag names, so the lazy tag collection is left untouched.
+        List<String> hashtags = tweet.getHashTagNames() != null
+                ? splitHashTags(tweet.getHashTagNames())
+                : tweet.getHashtags().stream()
                 .map(HashTag::getHashTag)
                 .collect(Collectors.toList());
 
@@ -32,19 +30,26 @@ public class TweetMapper {
         );
     }
 
-    public static Tweet toTweetEntity(PostTweetReq postTweetReq, String username) {
-        Tweet tweet = new Tweet();
-        tweet.setContent(postTweetReq.getTweetBody());
-        tweet.setHashtags(postTweetReq.getHashTags().stream()
-                .map(tag -> hashTagRepository.findByHashTag(tag).orElseGet(() -> {
-                    HashTag newTag = new HashTag();
-                    newTag.setHashTag(tag);
-                    return newTag;
-                }))
-                .collect(Collectors.toSet()));
-        tweet.setCreatedAt(LocalDateTime.now());
-        tweet.setUsername(username);
-        return tweet;
+    public static TweetResp toTweetResp(TweetRow row) {
+        List<String> hashtags = splitHashTags(row.getHashTags());
+
+        return new TweetResp(
+                row.getId().toString(),
+                row.getContent(),
+                hashtags,
+                row.getUsername(),
+                row.getCreatedAt().toString()
+        );
+    }
+
+    public static TweetResp toTweetResp(TweetEvent event) {
+        return new TweetResp(
+                event.getTweetId().toString(),
+                event.getContent(),
+                event.getHashtags(),
+                event.getUsername(),
+                event.getCreatedAt().toString()
+        );
     }
 
     public static List<TweetResp> toTweetRespList(List<Tweet> tweets) {
@@ -52,4 +57,16 @@ public class TweetMapper {
                 .map(TweetMapper::toTweetResp)
                 .collect(Collectors.toList());
     }
+
+    private static List<String> splitHashTags(String hashTags) {
+        return hashTags == null || hashTags.isEmpty()
+                ? Collections.emptyList()
+                : Arrays.asList(hashTags.split(","));
+    }
+
+    public static List<TweetResp> toTweetRespListFromRows(List<TweetRow> rows) {
+        return rows.stream()
+                .map(TweetMapper::toTweetResp)
+                .collect(Collectors.toList());
+    }
 }
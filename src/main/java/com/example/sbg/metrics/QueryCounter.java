@@ -0,0 +1,25 @@
+package com.example.sbg.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread. Readers take the count before
+ * and after a unit of work and record the difference, so an N+1 regression shows up as a jump in
+ * the {@code tweeter.*.queries} summaries rather than in the SQL log.
+ */
+@Component
+public class QueryCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    public long count() {
+        return COUNT.get()[0];
+    }
+}
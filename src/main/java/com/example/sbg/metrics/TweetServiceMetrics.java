@@ -0,0 +1,107 @@
+package com.example.sbg.metrics;
+
+import com.example.sbg.api.models.TweetCursor;
+import com.example.sbg.api.models.TweetsPageResp;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every {@code ITweeterService} call as {@code tweeter.service}, tagged with the method, the
+ * query variant (hashtags, usernames, both, all, or none for writes), the paging style and the
+ * exception, and records page sizes, result counts and SQL statements per call as histograms.
+ * Only the outermost call on a thread is measured, so a decorating service is not counted twice.
+ */
+@Aspect
+@Component
+public class TweetServiceMetrics {
+
+    private static final ThreadLocal<Boolean> IN_CALL = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+    private final QueryCounter queryCounter;
+
+    public TweetServiceMetrics(MeterRegistry meterRegistry, QueryCounter queryCounter) {
+        this.meterRegistry = meterRegistry;
+        this.queryCounter = queryCounter;
+    }
+
+    @Around("execution(* com.example.sbg.services.ITweeterService.*(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (IN_CALL.get() != null) {
+            return joinPoint.proceed();
+        }
+        String method = joinPoint.getSignature().getName();
+        Object[] args = joinPoint.getArgs();
+        Tags tags = Tags.of("method", method, "variant", variant(method), "paging", paging(method, args));
+        String exception = "none";
+        long queriesBefore = queryCounter.count();
+        long start = System.nanoTime();
+        IN_CALL.set(Boolean.TRUE);
+        try {
+            Object result = joinPoint.proceed();
+            if (result instanceof TweetsPageResp page) {
+                summary("tweeter.service.page.size", "Requested page size", tags).record((Integer) args[args.length - 1]);
+                summary("tweeter.service.result.count", "Tweets returned per page", tags).record(page.getTweets().size());
+            }
+            return result;
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            IN_CALL.remove();
+            Timer.builder("tweeter.service")
+                    .description("ITweeterService calls")
+                    .tags(tags)
+                    .tag("exception", exception)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            summary("tweeter.service.queries", "SQL statements per ITweeterService call", tags)
+                    .record(queryCounter.count() - queriesBefore);
+        }
+    }
+
+    private DistributionSummary summary(String name, String description, Tags tags) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    static String variant(String method) {
+        if (!method.startsWith("get")) {
+            return "none";
+        }
+        if (method.endsWith("ByHashtagsAndUsernames")) {
+            return "both";
+        }
+        if (method.endsWith("ByHashtags")) {
+            return "hashtags";
+        }
+        if (method.endsWith("ByUsernames")) {
+            return "usernames";
+        }
+        return "all";
+    }
+
+    private static String paging(String method, Object[] args) {
+        if (!method.startsWith("get")) {
+            return "none";
+        }
+        for (Object arg : args) {
+            if (arg instanceof TweetCursor) {
+                return "cursor";
+            }
+        }
+        return "offset";
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.sbg.model;
 
+import com.example.sbg.model.id.SnowflakeId;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -15,7 +16,7 @@ import java.util.Set;
 public class HashTag {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long id;
 
     @Column(unique = true, nullable = false, length = 20)
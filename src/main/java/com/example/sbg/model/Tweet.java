@@ -1,25 +1,33 @@
 package com.example.sbg.model;
 
 
+import com.example.sbg.model.id.SnowflakeId;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.proxy.HibernateProxy;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_tweet_username_created_at_id", columnList = "username, created_at desc, id desc"),
+        @Index(name = "idx_tweet_created_at_id", columnList = "created_at desc, id desc")
+})
 @Getter
 @Setter
 @RequiredArgsConstructor
 public class Tweet {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long id;
 
     @Column(nullable = false)
@@ -28,17 +36,36 @@ public class Tweet {
     @Column(nullable = false)
     private String content;
 
+    // Pages hold at most 100 tweets, so their tags are initialised with one IN query instead of one per tweet.
     @ManyToMany
+    @BatchSize(size = 100)
     @JoinTable(
             name = "tweet_hashtag",
             joinColumns = @JoinColumn(name = "tweet_id"),
-            inverseJoinColumns = @JoinColumn(name = "hashtag_id")
+            inverseJoinColumns = @JoinColumn(name = "hashtag_id"),
+            indexes = @Index(name = "idx_tweet_hashtag_hashtag_id_tweet_id", columnList = "hashtag_id, tweet_id")
     )
     private Set<HashTag> hashtags = new HashSet<>();
 
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
+    // Copy of the tag names, so pages are rendered from this table alone; the join table serves tag filters.
+    @Column(name = "hash_tags", length = 128)
+    private String hashTagNames;
+
+    @PrePersist
+    public void denormalizeHashTags() {
+        hashTagNames = joinHashTags(hashtags.stream().map(HashTag::getHashTag).toList());
+    }
+
+    /**
+     * The {@code hash_tags} column value for the given tag names: sorted, distinct and comma separated.
+     */
+    public static String joinHashTags(Collection<String> hashtags) {
+        return hashtags == null ? "" : hashtags.stream().distinct().sorted().collect(Collectors.joining(","));
+    }
+
     // Getters and Setters
 
     @Override
@@ -0,0 +1,88 @@
+package com.example.sbg.model.id;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Time-ordered 64-bit id source: 41 bits of milliseconds since {@link #EPOCH}, 10 bits of worker id
+ * and a 12 bit per-millisecond sequence. Ids from one worker are strictly increasing, so they sort in
+ * creation order and can be assigned before the insert, which lets Hibernate batch inserts.
+ */
+public class Snowflake {
+
+    /**
+     * 2024-01-01T00:00:00Z; leaves room for about 69 years of ids.
+     */
+    public static final long EPOCH = 1704067200000L;
+
+    static final int WORKER_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_WORKER_ID = (1L << WORKER_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final Map<Long, Snowflake> WORKERS = new ConcurrentHashMap<>();
+
+    private final long workerId;
+    private long lastTimestamp = -1;
+    private long sequence;
+
+    public Snowflake(long workerId) {
+        if (workerId < 0 || workerId > MAX_WORKER_ID) {
+            throw new IllegalArgumentException("Worker id must be between 0 and " + MAX_WORKER_ID + ": " + workerId);
+        }
+        this.workerId = workerId;
+    }
+
+    /**
+     * Shared instance for a worker id. Everything in one process that assigns ids for the same worker
+     * must draw from this instance, or two sequences could hand out the same id in one millisecond.
+     */
+    public static Snowflake forWorker(long workerId) {
+        return WORKERS.computeIfAbsent(workerId, Snowflake::new);
+    }
+
+    /**
+     * Milliseconds since the Unix epoch at which {@code id} was issued.
+     */
+    public static long timestampOf(long id) {
+        return (id >>> (WORKER_BITS + SEQUENCE_BITS)) + EPOCH;
+    }
+
+    /**
+     * The lowest id any worker can issue at {@code timestampMillis}; useful as a lower bound when
+     * scanning ids by time.
+     */
+    public static long minIdAt(long timestampMillis) {
+        return Math.max(0, timestampMillis - EPOCH) << (WORKER_BITS + SEQUENCE_BITS);
+    }
+
+    public synchronized long nextId() {
+        long timestamp = currentTimeMillis();
+        // If the clock moved backwards keep issuing from the last timestamp rather than repeat ids.
+        if (timestamp < lastTimestamp) {
+            timestamp = lastTimestamp;
+        }
+        if (timestamp == lastTimestamp) {
+            sequence = (sequence + 1) & SEQUENCE_MASK;
+            if (sequence == 0) {
+                timestamp = waitForNextMillis(lastTimestamp);
+            }
+        } else {
+            sequence = 0;
+        }
+        lastTimestamp = timestamp;
+        return ((timestamp - EPOCH) << (WORKER_BITS + SEQUENCE_BITS)) | (workerId << SEQUENCE_BITS) | sequence;
+    }
+
+    long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    private long waitForNextMillis(long lastTimestamp) {
+        long timestamp = currentTimeMillis();
+        while (timestamp <= lastTimestamp) {
+            Thread.onSpinWait();
+            timestamp = currentTimeMillis();
+        }
+        return timestamp;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.sbg.model.id;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+
+/**
+ * Hibernate generator behind {@link SnowflakeId}. The worker id is read from the Hibernate setting
+ * {@value #WORKER_ID_SETTING} (set through {@code spring.jpa.properties}) and must be unique per
+ * running instance.
+ */
+public class SnowflakeIdGenerator implements IdentifierGenerator {
+
+    public static final String WORKER_ID_SETTING = "tweeter.id.worker-id";
+
+    private final Snowflake snowflake;
+
+    public SnowflakeIdGenerator(SnowflakeId config, Member member, CustomIdGeneratorCreationContext context) {
+        Integer workerId = context.getServiceRegistry().getService(ConfigurationService.class)
+                .getSetting(WORKER_ID_SETTING, StandardConverters.INTEGER, 0);
+        this.snowflake = Snowflake.forWorker(workerId);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return snowflake.nextId();
+    }
+}
@@ -1,10 +1,30 @@
 package com.example.sbg.repository;
 
 import com.example.sbg.model.HashTag;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface HashTagRepository extends JpaRepository<HashTag, Long> {
+public interface HashTagRepository extends JpaRepository<HashTag, Long>, HashTagRepositoryCustom {
     Optional<HashTag> findByHashTag(String hashTag);
+
+    List<HashTag> findByHashTagIn(Collection<String> hashTags);
+
+    /**
+     * Locking read of the given tags. Unlike a plain select it sees rows committed by other transactions
+     * after this one started, which is needed right after {@link #insertIgnore(Collection)} skipped them.
+     */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("select h from HashTag h where h.hashTag in :hashTags")
+    List<HashTag> lockByHashTagIn(@Param("hashTags") Collection<String> hashTags);
+
+    @Query("select h from HashTag h join h.tweets t group by h order by count(t) desc")
+    List<HashTag> findMostUsed(Pageable pageable);
 }
@@ -0,0 +1,12 @@
+package com.example.sbg.repository;
+
+import java.util.Collection;
+
+public interface HashTagRepositoryCustom {
+
+    /**
+     * Inserts every tag in a single multi-row statement, silently skipping tags that already exist
+     * (including ones committed concurrently by another transaction).
+     */
+    void insertIgnore(Collection<String> hashTags);
+}
@@ -0,0 +1,39 @@
+package com.example.sbg.repository;
+
+import com.example.sbg.model.HashTag;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+
+import java.util.Collection;
+import java.util.Collections;
+
+public class HashTagRepositoryCustomImpl implements HashTagRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void insertIgnore(Collection<String> hashTags) {
+        if (hashTags.isEmpty()) {
+            return;
+        }
+        // Ids are not generated by the database, so take them from the entity's own generator.
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        BeforeExecutionGenerator idGenerator = (BeforeExecutionGenerator) session.getFactory().getMappingMetamodel()
+                .getEntityDescriptor(HashTag.class)
+                .getGenerator();
+
+        String values = String.join(",", Collections.nCopies(hashTags.size(), "(?, ?)"));
+        Query query = entityManager.createNativeQuery("insert ignore into hash_tag (id, hash_tag) values " + values);
+        int position = 1;
+        for (String hashTag : hashTags) {
+            query.setParameter(position++, idGenerator.generate(session, null, null, EventType.INSERT));
+            query.setParameter(position++, hashTag);
+        }
+        query.executeUpdate();
+    }
+}
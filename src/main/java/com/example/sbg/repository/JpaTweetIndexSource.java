@@ -0,0 +1,32 @@
+package com.example.sbg.repository;
+
+import com.example.sbg.index.TweetIndexSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Rebuilds the in-memory indexes from the tweet tables.
+ */
+@Component
+@ConditionalOnProperty(name = "tweeter.storage", havingValue = "jpa", matchIfMissing = true)
+public class JpaTweetIndexSource implements TweetIndexSource {
+
+    private final TweetRepository tweetRepository;
+
+    public JpaTweetIndexSource(TweetRepository tweetRepository) {
+        this.tweetRepository = tweetRepository;
+    }
+
+    @Override
+    public List<TweetContentRow> findContentRowsAfter(long afterId, int limit) {
+        return tweetRepository.findContentRowsAfter(afterId, PageRequest.ofSize(limit));
+    }
+
+    @Override
+    public List<TweetHashTagRow> findHashTagRowsFrom(long fromId, int limit) {
+        return tweetRepository.findHashTagRowsFrom(fromId, PageRequest.ofSize(limit));
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.sbg.repository;
+
+/**
+ * Projection of a tweet's id and text, used to rebuild the full-text index.
+ */
+public interface TweetContentRow {
+    Long getId();
+
+    String getContent();
+}
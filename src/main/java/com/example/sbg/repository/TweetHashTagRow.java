@@ -0,0 +1,14 @@
+package com.example.sbg.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of a single row of the tweet_hashtag join, used to rebuild in-memory indexes.
+ */
+public interface TweetHashTagRow {
+    Long getTweetId();
+
+    LocalDateTime getCreatedAt();
+
+    String getHashTag();
+}
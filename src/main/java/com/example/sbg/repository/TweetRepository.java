@@ -1,18 +1,71 @@
 package com.example.sbg.repository;
 
 import com.example.sbg.model.Tweet;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface TweetRepository extends JpaRepository<Tweet, Long> {
-    Page<Tweet> findByHashtags_HashTagInAndUsernameIn(List<String> hashtags, List<String> usernames, Pageable pageable);
+public interface TweetRepository extends JpaRepository<Tweet, Long>, TweetRepositoryCustom {
+    // Offset variants, newest first. Tag filters are semi-joins so a tweet matching several tags is
+    // returned once, and the order matches the (username, created_at, id) and (created_at, id) indexes.
 
-    Page<Tweet> findByHashtags_HashTagIn(List<String> hashtags, Pageable pageable);
+    @Query("select t from Tweet t where t.username in :usernames " +
+            "and exists (select 1 from t.hashtags h where h.hashTag in :hashtags) order by t.createdAt desc, t.id desc")
+    Slice<Tweet> findByHashtags_HashTagInAndUsernameIn(@Param("hashtags") List<String> hashtags, @Param("usernames") List<String> usernames, Pageable pageable);
 
-    Page<Tweet> findByUsernameIn(List<String> usernames, Pageable pageable);
+    @Query("select t from Tweet t where exists (select 1 from t.hashtags h where h.hashTag in :hashtags) order by t.createdAt desc, t.id desc")
+    Slice<Tweet> findByHashtags_HashTagIn(@Param("hashtags") List<String> hashtags, Pageable pageable);
+
+    @Query("select t from Tweet t where t.username in :usernames order by t.createdAt desc, t.id desc")
+    Slice<Tweet> findByUsernameIn(@Param("usernames") List<String> usernames, Pageable pageable);
+
+    @Query("select t from Tweet t order by t.createdAt desc, t.id desc")
+    Slice<Tweet> findAllBy(Pageable pageable);
+
+    // Keyset (seek) variants: rows strictly older than the (createdAt, id) cursor, newest first.
+    // They are read-only projections mapped straight to responses, so no entity is hydrated or tracked.
+
+    // Tags come from the denormalized column; the join table is only read for rows written without it.
+    String HASH_TAGS = "coalesce(t.hash_tags, " +
+            "(select group_concat(h.hash_tag) from tweet_hashtag th join hash_tag h on h.id = th.hashtag_id where th.tweet_id = t.id))";
+    String ROW_SELECT = "select t.id as id, t.username as username, t.content as content, t.created_at as createdAt, " +
+            HASH_TAGS + " as hashTags from tweet t ";
+    String HAS_ANY_HASHTAG = "exists (select 1 from tweet_hashtag th join hash_tag h on h.id = th.hashtag_id " +
+            "where th.tweet_id = t.id and h.hash_tag in (:hashtags)) ";
+    String BEFORE_CURSOR = "(t.created_at < :createdAt or (t.created_at = :createdAt and t.id < :id)) ";
+    String NEWEST_FIRST = "order by t.created_at desc, t.id desc";
+
+    @Query(nativeQuery = true, value = ROW_SELECT + "where t.username in (:usernames) and " + HAS_ANY_HASHTAG + "and " + BEFORE_CURSOR + NEWEST_FIRST)
+    Slice<TweetRow> findRowsByHashtagsAndUsernamesBefore(@Param("hashtags") List<String> hashtags, @Param("usernames") List<String> usernames,
+                                                         @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    @Query(nativeQuery = true, value = ROW_SELECT + "where " + HAS_ANY_HASHTAG + "and " + BEFORE_CURSOR + NEWEST_FIRST)
+    Slice<TweetRow> findRowsByHashtagsBefore(@Param("hashtags") List<String> hashtags,
+                                             @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    // One username walks (username, created_at, id) in order; several are a range over it that MySQL
+    // sorts, limited to those users' rows before the cursor.
+    @Query(nativeQuery = true, value = ROW_SELECT + "where t.username in (:usernames) and " + BEFORE_CURSOR + NEWEST_FIRST)
+    Slice<TweetRow> findRowsByUsernamesBefore(@Param("usernames") List<String> usernames,
+                                              @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    @Query(nativeQuery = true, value = ROW_SELECT + "where " + BEFORE_CURSOR + NEWEST_FIRST)
+    Slice<TweetRow> findRowsBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    @Query(nativeQuery = true, value = ROW_SELECT + "where t.id in (:ids)")
+    List<TweetRow> findRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select t.id as tweetId, t.createdAt as createdAt, h.hashTag as hashTag from Tweet t join t.hashtags h where t.id >= :fromId order by t.id, h.id")
+    List<TweetHashTagRow> findHashTagRowsFrom(@Param("fromId") Long fromId, Pageable pageable);
+
+    @Query("select t.id as id, t.content as content from Tweet t where t.id > :afterId order by t.id")
+    List<TweetContentRow> findContentRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
@@ -0,0 +1,14 @@
+package com.example.sbg.repository;
+
+import com.example.sbg.model.Tweet;
+
+import java.util.Collection;
+
+public interface TweetRepositoryCustom {
+
+    /**
+     * Inserts tweets whose ids are already assigned, with their tag links, using multi-row statements.
+     * The tweets' hash tags must be persisted. Unlike {@code saveAll}, this never merges or re-reads.
+     */
+    void insertAll(Collection<Tweet> tweets);
+}
@@ -0,0 +1,59 @@
+package com.example.sbg.repository;
+
+import com.example.sbg.model.HashTag;
+import com.example.sbg.model.Tweet;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+public class TweetRepositoryCustomImpl implements TweetRepositoryCustom {
+
+    // Keeps each statement well below the placeholder limit of the MySQL protocol.
+    private static final int ROWS_PER_STATEMENT = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void insertAll(Collection<Tweet> tweets) {
+        List<Tweet> rows = new ArrayList<>(tweets);
+        for (int from = 0; from < rows.size(); from += ROWS_PER_STATEMENT) {
+            List<Tweet> chunk = rows.subList(from, Math.min(from + ROWS_PER_STATEMENT, rows.size()));
+            String values = String.join(",", Collections.nCopies(chunk.size(), "(?, ?, ?, ?, ?)"));
+            Query query = entityManager.createNativeQuery("insert into tweet (id, username, content, created_at, hash_tags) values " + values);
+            int position = 1;
+            for (Tweet tweet : chunk) {
+                tweet.denormalizeHashTags();
+                query.setParameter(position++, tweet.getId());
+                query.setParameter(position++, tweet.getUsername());
+                query.setParameter(position++, tweet.getContent());
+                query.setParameter(position++, tweet.getCreatedAt());
+                query.setParameter(position++, tweet.getHashTagNames());
+            }
+            query.executeUpdate();
+        }
+
+        List<long[]> links = new ArrayList<>();
+        for (Tweet tweet : rows) {
+            for (HashTag hashTag : tweet.getHashtags()) {
+                links.add(new long[]{tweet.getId(), hashTag.getId()});
+            }
+        }
+        for (int from = 0; from < links.size(); from += ROWS_PER_STATEMENT) {
+            List<long[]> chunk = links.subList(from, Math.min(from + ROWS_PER_STATEMENT, links.size()));
+            String values = String.join(",", Collections.nCopies(chunk.size(), "(?, ?)"));
+            Query query = entityManager.createNativeQuery("insert into tweet_hashtag (tweet_id, hashtag_id) values " + values);
+            int position = 1;
+            for (long[] link : chunk) {
+                query.setParameter(position++, link[0]);
+                query.setParameter(position++, link[1]);
+            }
+            query.executeUpdate();
+        }
+    }
+}
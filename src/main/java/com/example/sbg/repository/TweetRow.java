@@ -0,0 +1,18 @@
+package com.example.sbg.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a tweet with its tags folded into one comma separated column.
+ */
+public interface TweetRow {
+    Long getId();
+
+    String getUsername();
+
+    String getContent();
+
+    LocalDateTime getCreatedAt();
+
+    String getHashTags();
+}
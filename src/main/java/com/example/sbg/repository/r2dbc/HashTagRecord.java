@@ -0,0 +1,16 @@
+package com.example.sbg.repository.r2dbc;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * R2DBC mapping of a {@code hash_tag} row.
+ */
+@Data
+@Table("hash_tag")
+public class HashTagRecord {
+    @Id
+    private Long id;
+    private String hashTag;
+}
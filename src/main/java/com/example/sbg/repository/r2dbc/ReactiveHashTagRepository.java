@@ -0,0 +1,19 @@
+package com.example.sbg.repository.r2dbc;
+
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.relational.core.sql.LockMode;
+import org.springframework.data.relational.repository.Lock;
+import reactor.core.publisher.Flux;
+
+import java.util.Collection;
+
+public interface ReactiveHashTagRepository extends R2dbcRepository<HashTagRecord, Long>, ReactiveHashTagRepositoryCustom {
+    Flux<HashTagRecord> findByHashTagIn(Collection<String> hashTags);
+
+    /**
+     * Locking read of the given tags. Unlike a plain select it sees rows committed by other transactions
+     * after this one started, which is needed right after {@link #insertIgnore(Collection)} skipped them.
+     */
+    @Lock(LockMode.PESSIMISTIC_READ)
+    Flux<HashTagRecord> findLockedByHashTagIn(Collection<String> hashTags);
+}
@@ -0,0 +1,14 @@
+package com.example.sbg.repository.r2dbc;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+public interface ReactiveHashTagRepositoryCustom {
+
+    /**
+     * Inserts the tags with one multi-row insert-ignore, skipping those another writer already inserted;
+     * the unique hash_tag constraint decides. Rows are written in the given order.
+     */
+    Mono<Long> insertIgnore(Collection<HashTagRecord> hashTags);
+}
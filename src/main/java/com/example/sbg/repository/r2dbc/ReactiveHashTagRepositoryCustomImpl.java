@@ -0,0 +1,34 @@
+package com.example.sbg.repository.r2dbc;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.StringJoiner;
+
+public class ReactiveHashTagRepositoryCustomImpl implements ReactiveHashTagRepositoryCustom {
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveHashTagRepositoryCustomImpl(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    @Override
+    public Mono<Long> insertIgnore(Collection<HashTagRecord> hashTags) {
+        if (hashTags.isEmpty()) {
+            return Mono.just(0L);
+        }
+        StringJoiner values = new StringJoiner(",");
+        for (int i = 0; i < hashTags.size(); i++) {
+            values.add("(:id" + i + ", :hashTag" + i + ")");
+        }
+        DatabaseClient.GenericExecuteSpec statement = databaseClient.sql("insert ignore into hash_tag (id, hash_tag) values " + values);
+        int position = 0;
+        for (HashTagRecord hashTag : hashTags) {
+            statement = statement.bind("id" + position, hashTag.getId()).bind("hashTag" + position, hashTag.getHashTag());
+            position++;
+        }
+        return statement.fetch().rowsUpdated();
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.sbg.repository.r2dbc;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Mono;
+
+/**
+ * Link rows between tweets and hash tags. The table has no single-column key, so only the two
+ * statements the reactive service needs are exposed.
+ */
+public interface ReactiveTweetHashTagRepository extends Repository<TweetHashTagRecord, Long> {
+
+    @Modifying
+    @Query("insert into tweet_hashtag (tweet_id, hashtag_id) values (:tweetId, :hashtagId)")
+    Mono<Integer> insert(@Param("tweetId") Long tweetId, @Param("hashtagId") Long hashtagId);
+
+    @Modifying
+    @Query("delete from tweet_hashtag where tweet_id = :tweetId")
+    Mono<Integer> deleteByTweetId(@Param("tweetId") Long tweetId);
+}
@@ -0,0 +1,39 @@
+package com.example.sbg.repository.r2dbc;
+
+import com.example.sbg.repository.TweetRepository;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of the keyset finders in {@link TweetRepository}, sharing their predicates.
+ * Columns are aliased in snake case because R2DBC maps {@link TweetRowRecord} through the naming strategy.
+ */
+public interface ReactiveTweetRepository extends R2dbcRepository<TweetRecord, Long> {
+
+    String ROW_SELECT = "select t.id, t.username, t.content, t.created_at, " + TweetRepository.HASH_TAGS + " as hash_tags from tweet t ";
+    String LIMIT = " limit :limit";
+
+    @Query(ROW_SELECT + "where t.username in (:usernames) and " + TweetRepository.HAS_ANY_HASHTAG + "and " + TweetRepository.BEFORE_CURSOR + TweetRepository.NEWEST_FIRST + LIMIT)
+    Flux<TweetRowRecord> findRowsByHashtagsAndUsernamesBefore(@Param("hashtags") List<String> hashtags, @Param("usernames") List<String> usernames,
+                                                              @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, @Param("limit") int limit);
+
+    @Query(ROW_SELECT + "where " + TweetRepository.HAS_ANY_HASHTAG + "and " + TweetRepository.BEFORE_CURSOR + TweetRepository.NEWEST_FIRST + LIMIT)
+    Flux<TweetRowRecord> findRowsByHashtagsBefore(@Param("hashtags") List<String> hashtags,
+                                                  @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, @Param("limit") int limit);
+
+    @Query(ROW_SELECT + "where t.username in (:usernames) and " + TweetRepository.BEFORE_CURSOR + TweetRepository.NEWEST_FIRST + LIMIT)
+    Flux<TweetRowRecord> findRowsByUsernamesBefore(@Param("usernames") List<String> usernames,
+                                                   @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, @Param("limit") int limit);
+
+    @Query(ROW_SELECT + "where " + TweetRepository.BEFORE_CURSOR + TweetRepository.NEWEST_FIRST + LIMIT)
+    Flux<TweetRowRecord> findRowsBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, @Param("limit") int limit);
+
+    @Query(ROW_SELECT + "where t.id in (:ids)")
+    Flux<TweetRowRecord> findRowsByIdIn(@Param("ids") Collection<Long> ids);
+}
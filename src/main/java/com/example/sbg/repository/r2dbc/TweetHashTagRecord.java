@@ -0,0 +1,14 @@
+package com.example.sbg.repository.r2dbc;
+
+import lombok.Data;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * R2DBC mapping of a {@code tweet_hashtag} link row.
+ */
+@Data
+@Table("tweet_hashtag")
+public class TweetHashTagRecord {
+    private Long tweetId;
+    private Long hashtagId;
+}
@@ -0,0 +1,21 @@
+package com.example.sbg.repository.r2dbc;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * R2DBC mapping of a {@code tweet} row. Ids are assigned by the service before the insert.
+ */
+@Data
+@Table("tweet")
+public class TweetRecord {
+    @Id
+    private Long id;
+    private String username;
+    private String content;
+    private LocalDateTime createdAt;
+    private String hashTags;
+}
@@ -0,0 +1,19 @@
+package com.example.sbg.repository.r2dbc;
+
+import com.example.sbg.repository.TweetRow;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * R2DBC result of the row queries in {@link ReactiveTweetRepository}; the same shape as the JPA
+ * {@link TweetRow} projection, so both are mapped to responses the same way.
+ */
+@Data
+public class TweetRowRecord implements TweetRow {
+    private Long id;
+    private String username;
+    private String content;
+    private LocalDateTime createdAt;
+    private String hashTags;
+}
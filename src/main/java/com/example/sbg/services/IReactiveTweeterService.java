@@ -0,0 +1,26 @@
+package com.example.sbg.services;
+
+import com.example.sbg.api.models.TweetCursor;
+import com.example.sbg.api.models.TweetResp;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Non-blocking variant of {@link ITweeterService}. Reads return at most {@code limit} tweets older than
+ * the cursor, newest first, and leave paging links to the caller.
+ */
+public interface IReactiveTweeterService {
+    Mono<TweetResp> createTweet(String username, String content, List<String> hashtags);
+
+    Mono<Void> deleteTweet(Long id, String username);
+
+    Flux<TweetResp> getTweetsByHashtagsAndUsernames(List<String> hashtags, List<String> usernames, TweetCursor cursor, int limit);
+
+    Flux<TweetResp> getTweetsByHashtags(List<String> hashtags, TweetCursor cursor, int limit);
+
+    Flux<TweetResp> getTweetsByUsernames(List<String> usernames, TweetCursor cursor, int limit);
+
+    Flux<TweetResp> getAllTweets(TweetCursor cursor, int limit);
+}
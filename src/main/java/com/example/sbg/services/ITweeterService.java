@@ -1,5 +1,8 @@
 package com.example.sbg.services;
 
+import com.example.sbg.api.models.BatchTweetResult;
+import com.example.sbg.api.models.PostTweetReq;
+import com.example.sbg.api.models.TweetCursor;
 import com.example.sbg.api.models.TweetsPageResp;
 import com.example.sbg.model.Tweet;
 
@@ -9,6 +12,12 @@ public interface ITweeterService {
 
     Tweet createTweet(String username, String content, List<String> hashtags);
 
+    /**
+     * Creates a chunk of tweets in one transaction. Items failing validation are reported individually,
+     * result indexes start at {@code firstIndex}.
+     */
+    List<BatchTweetResult> createTweets(String username, List<PostTweetReq> tweets, int firstIndex);
+
     void deleteTweet(Long id, String username);
 
     TweetsPageResp getTweetsByHashtagsAndUsernames(List<String> hashtags, List<String> usernames, int pageNumber, int pageSize);
@@ -18,4 +27,17 @@ public interface ITweeterService {
     TweetsPageResp getTweetsByUsernames(List<String> usernames, int pageNumber, int pageSize);
 
     TweetsPageResp getAllTweets(int pageNumber, int pageSize);
+
+    TweetsPageResp getTweetsByHashtagsAndUsernames(List<String> hashtags, List<String> usernames, TweetCursor cursor, int pageSize);
+
+    TweetsPageResp getTweetsByHashtags(List<String> hashtags, TweetCursor cursor, int pageSize);
+
+    TweetsPageResp getTweetsByUsernames(List<String> usernames, TweetCursor cursor, int pageSize);
+
+    TweetsPageResp getAllTweets(TweetCursor cursor, int pageSize);
+
+    /**
+     * Tweets whose content contains every word of {@code query}, newest first.
+     */
+    TweetsPageResp searchTweets(String query, TweetCursor cursor, int pageSize);
 }
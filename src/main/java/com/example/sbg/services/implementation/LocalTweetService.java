@@ -0,0 +1,231 @@
+package com.example.sbg.services.implementation;
+
+import com.example.sbg.api.models.BatchTweetResult;
+import com.example.sbg.api.models.PostTweetReq;
+import com.example.sbg.api.models.TweetCursor;
+import com.example.sbg.api.models.TweetResp;
+import com.example.sbg.api.models.TweetsPageResp;
+import com.example.sbg.events.TweetCreatedEvent;
+import com.example.sbg.events.TweetDeletedEvent;
+import com.example.sbg.exceptions.BadRequestException;
+import com.example.sbg.exceptions.ResourceNotFoundException;
+import com.example.sbg.exceptions.ServiceUnavailableException;
+import com.example.sbg.index.ContentIndex;
+import com.example.sbg.index.ContentTokenizer;
+import com.example.sbg.mappers.TweetMapper;
+import com.example.sbg.model.HashTag;
+import com.example.sbg.model.Tweet;
+import com.example.sbg.model.id.Snowflake;
+import com.example.sbg.services.ITweeterService;
+import com.example.sbg.store.LocalTweetStore;
+import com.example.sbg.store.StoredTweet;
+import com.example.sbg.validation.TweetValidator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * {@link ITweeterService} on the embedded {@link LocalTweetStore}, enabled with
+ * {@code tweeter.storage=local}. It keeps the validation, page shapes and next page links of
+ * {@link TweetService} and publishes the same tweet events, so the stream, trends and search index
+ * keep working. Tags are stored by name, so tweets carry hash tags without ids.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "tweeter.storage", havingValue = "local")
+public class LocalTweetService implements ITweeterService {
+
+    private static final int MAX_SEARCH_TERMS = 10;
+
+    private final LocalTweetStore store;
+    private final ContentIndex contentIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Snowflake snowflake;
+
+    public LocalTweetService(LocalTweetStore store,
+                             ContentIndex contentIndex,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${spring.jpa.properties.tweeter.id.worker-id:0}") int workerId) {
+        this.store = store;
+        this.contentIndex = contentIndex;
+        this.eventPublisher = eventPublisher;
+        this.snowflake = Snowflake.forWorker(workerId);
+    }
+
+    @Override
+    public Tweet createTweet(String username, String content, List<String> hashtags) {
+        TweetValidator.requireValidTweetHashTags(hashtags);
+        StoredTweet stored = newTweet(username, content, hashtags);
+        store.append(stored);
+        Tweet tweet = toTweet(stored);
+        eventPublisher.publishEvent(new TweetCreatedEvent(tweet));
+        return tweet;
+    }
+
+    @Override
+    public List<BatchTweetResult> createTweets(String username, List<PostTweetReq> tweets, int firstIndex) {
+        List<BatchTweetResult> results = new ArrayList<>(tweets.size());
+        for (int i = 0; i < tweets.size(); i++) {
+            PostTweetReq req = tweets.get(i);
+            try {
+                if (req == null || req.getTweetBody() == null || req.getTweetBody().isEmpty()) {
+                    throw new BadRequestException("Tweet body is missing.");
+                }
+                Tweet tweet = createTweet(username, req.getTweetBody(), req.getHashTags());
+                results.add(new BatchTweetResult(firstIndex + i, HttpStatus.CREATED.value(), tweet.getId().toString(), null));
+            } catch (BadRequestException e) {
+                results.add(new BatchTweetResult(firstIndex + i, HttpStatus.BAD_REQUEST.value(), null, e.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public void deleteTweet(Long id, String username) {
+        StoredTweet stored = store.find(id).orElseThrow(() -> new ResourceNotFoundException("Tweet not found"));
+        if (!stored.username().equals(username)) {
+            throw new ResourceNotFoundException("You are not authorized to delete this tweet");
+        }
+        if (store.delete(id)) {
+            eventPublisher.publishEvent(new TweetDeletedEvent(toTweet(stored)));
+        }
+    }
+
+    @Override
+    public TweetsPageResp getTweetsByHashtagsAndUsernames(List<String> hashtags, List<String> usernames, int pageNumber, int pageSize) {
+        return toOffsetPage(hashtags, usernames, pageNumber, pageSize);
+    }
+
+    @Override
+    public TweetsPageResp getTweetsByHashtags(List<String> hashtags, int pageNumber, int pageSize) {
+        return toOffsetPage(hashtags, Collections.emptyList(), pageNumber, pageSize);
+    }
+
+    @Override
+    public TweetsPageResp getTweetsByUsernames(List<String> usernames, int pageNumber, int pageSize) {
+        return toOffsetPage(Collections.emptyList(), usernames, pageNumber, pageSize);
+    }
+
+    @Override
+    public TweetsPageResp getAllTweets(int pageNumber, int pageSize) {
+        return toOffsetPage(Collections.emptyList(), Collections.emptyList(), pageNumber, pageSize);
+    }
+
+    @Override
+    public TweetsPageResp getTweetsByHashtagsAndUsernames(List<String> hashtags, List<String> usernames, TweetCursor cursor, int pageSize) {
+        return toCursorPage(hashtags, usernames, cursor, pageSize);
+    }
+
+    @Override
+    public TweetsPageResp getTweetsByHashtags(List<String> hashtags, TweetCursor cursor, int pageSize) {
+        return toCursorPage(hashtags, Collections.emptyList(), cursor, pageSize);
+    }
+
+    @Override
+    public TweetsPageResp getTweetsByUsernames(List<String> usernames, TweetCursor cursor, int pageSize) {
+        return toCursorPage(Collections.emptyList(), usernames, cursor, pageSize);
+    }
+
+    @Override
+    public TweetsPageResp getAllTweets(TweetCursor cursor, int pageSize) {
+        return toCursorPage(Collections.emptyList(), Collections.emptyList(), cursor, pageSize);
+    }
+
+    @Override
+    public TweetsPageResp searchTweets(String query, TweetCursor cursor, int pageSize) {
+        Set<String> terms = ContentTokenizer.tokenize(query);
+        if (terms.isEmpty()) {
+            throw new BadRequestException("Search query is missing.");
+        }
+        if (terms.size() > MAX_SEARCH_TERMS) {
+            throw new BadRequestException("Search query can contain at most " + MAX_SEARCH_TERMS + " words.");
+        }
+        if (contentIndex == null || !contentIndex.isReady()) {
+            throw new ServiceUnavailableException("Search index is not available yet.");
+        }
+
+        // Reads on until the page and one more tweet are filled, so ids of deleted tweets never end a page early.
+        List<TweetResp> tweetResponses = new ArrayList<>(pageSize + 1);
+        long cursorId = cursor.getId();
+        while (tweetResponses.size() <= pageSize) {
+            int wanted = pageSize + 1 - tweetResponses.size();
+            long[] ids = contentIndex.findIdsBefore(terms, cursorId, wanted);
+            for (long id : ids) {
+                store.find(id).ifPresent(stored -> tweetResponses.add(TweetMapper.toTweetResp(toTweet(stored))));
+            }
+            if (ids.length < wanted) {
+                break;
+            }
+            cursorId = ids[ids.length - 1];
+        }
+        boolean hasNext = tweetResponses.size() > pageSize;
+        List<TweetResp> page = hasNext ? tweetResponses.subList(0, pageSize) : tweetResponses;
+        return new TweetsPageResp(page,
+                hasNext
+                        ? TweetsPageResp.createSearchNextPageUrl(query, TweetCursor.after(page.get(page.size() - 1)), pageSize)
+                        : null);
+    }
+
+    /**
+     * Offset pages are read like the database would: skip {@code pageNumber} pages of the filter's
+     * newest-first order. Deep pages cost a walk over the skipped ids; cursor paging avoids that.
+     */
+    private TweetsPageResp toOffsetPage(List<String> hashtags, List<String> usernames, int pageNumber, int pageSize) {
+        int skip = pageNumber * pageSize;
+        List<StoredTweet> found = store.findBefore(hashtags, usernames, Long.MAX_VALUE, skip + pageSize + 1);
+        List<TweetResp> tweetResponses = found.stream()
+                .skip(skip)
+                .limit(pageSize)
+                .map(stored -> TweetMapper.toTweetResp(toTweet(stored)))
+                .toList();
+        return new TweetsPageResp(tweetResponses,
+                found.size() > skip + pageSize ? TweetsPageResp.createNextPageUrl(pageNumber, pageSize, hashtags, usernames) : null);
+    }
+
+    private TweetsPageResp toCursorPage(List<String> hashtags, List<String> usernames, TweetCursor cursor, int pageSize) {
+        List<StoredTweet> found = store.findBefore(hashtags, usernames, cursor.getId(), pageSize + 1);
+        List<TweetResp> tweetResponses = found.stream()
+                .limit(pageSize)
+                .map(stored -> TweetMapper.toTweetResp(toTweet(stored)))
+                .toList();
+        return new TweetsPageResp(tweetResponses,
+                found.size() > pageSize && !tweetResponses.isEmpty()
+                        ? TweetsPageResp.createNextPageUrl(TweetCursor.after(tweetResponses.get(tweetResponses.size() - 1)), pageSize, hashtags, usernames)
+                        : null);
+    }
+
+    private StoredTweet newTweet(String username, String content, List<String> hashtags) {
+        if (content == null || content.isEmpty()) {
+            throw new BadRequestException("Tweet body is missing.");
+        }
+        List<String> tags = hashtags == null ? List.of() : hashtags.stream().distinct().sorted().toList();
+        if (!LocalTweetStore.fits(username, content, tags)) {
+            throw new BadRequestException("Tweet is too long.");
+        }
+        // Stored with microsecond precision, so the returned copy and cursors built from it match later reads.
+        return new StoredTweet(snowflake.nextId(), username, content, tags, LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+    }
+
+    private static Tweet toTweet(StoredTweet stored) {
+        Tweet tweet = new Tweet();
+        tweet.setId(stored.id());
+        tweet.setUsername(stored.username());
+        tweet.setContent(stored.content());
+        tweet.setCreatedAt(stored.createdAt());
+        tweet.setHashtags(stored.hashtags().stream().map(tag -> {
+            HashTag hashTag = new HashTag();
+            hashTag.setHashTag(tag);
+            return hashTag;
+        }).collect(Collectors.toSet()));
+        tweet.setHashTagNames(Tweet.joinHashTags(stored.hashtags()));
+        return tweet;
+    }
+}
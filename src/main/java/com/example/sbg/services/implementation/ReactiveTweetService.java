@@ -0,0 +1,188 @@
+package com.example.sbg.services.implementation;
+
+import com.example.sbg.api.models.TweetCursor;
+import com.example.sbg.api.models.TweetResp;
+import com.example.sbg.events.TweetCreatedEvent;
+import com.example.sbg.events.TweetDeletedEvent;
+import com.example.sbg.exceptions.ResourceNotFoundException;
+import com.example.sbg.mappers.TweetMapper;
+import com.example.sbg.model.HashTag;
+import com.example.sbg.model.Tweet;
+import com.example.sbg.model.id.Snowflake;
+import com.example.sbg.repository.r2dbc.HashTagRecord;
+import com.example.sbg.repository.r2dbc.ReactiveHashTagRepository;
+import com.example.sbg.repository.r2dbc.ReactiveTweetHashTagRepository;
+import com.example.sbg.repository.r2dbc.ReactiveTweetRepository;
+import com.example.sbg.repository.r2dbc.TweetRecord;
+import com.example.sbg.repository.r2dbc.TweetRowRecord;
+import com.example.sbg.services.IReactiveTweeterService;
+import com.example.sbg.validation.TweetValidator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * R2DBC implementation of {@link IReactiveTweeterService}. Writes run in a reactive transaction and
+ * publish the same tweet events as {@link TweetService}, so the hash tag index and timeline cache stay
+ * current whichever stack accepted the write. Only created for a reactive web application, as are the
+ * R2DBC beans it needs (see {@link com.example.sbg.config.AutoConfigurationExclusions}).
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTweetService implements IReactiveTweeterService {
+
+    private final ReactiveTweetRepository tweetRepository;
+    private final ReactiveHashTagRepository hashTagRepository;
+    private final ReactiveTweetHashTagRepository tweetHashTagRepository;
+    private final R2dbcEntityTemplate entityTemplate;
+    private final TransactionalOperator transactionalOperator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Snowflake snowflake;
+
+    public ReactiveTweetService(ReactiveTweetRepository tweetRepository,
+                                ReactiveHashTagRepository hashTagRepository,
+                                ReactiveTweetHashTagRepository tweetHashTagRepository,
+                                R2dbcEntityTemplate entityTemplate,
+                                TransactionalOperator transactionalOperator,
+                                ApplicationEventPublisher eventPublisher,
+                                @Value("${spring.jpa.properties.tweeter.id.worker-id:0}") int workerId) {
+        this.tweetRepository = tweetRepository;
+        this.hashTagRepository = hashTagRepository;
+        this.tweetHashTagRepository = tweetHashTagRepository;
+        this.entityTemplate = entityTemplate;
+        this.transactionalOperator = transactionalOperator;
+        this.eventPublisher = eventPublisher;
+        // Same instance Hibernate uses for this worker, so ids stay unique across both stacks.
+        this.snowflake = Snowflake.forWorker(workerId);
+    }
+
+    @Override
+    public Mono<TweetResp> createTweet(String username, String content, List<String> hashtags) {
+        return Mono.fromRunnable(() -> TweetValidator.requireValidTweetHashTags(hashtags))
+                .then(Mono.defer(() -> {
+                    TweetRecord tweet = newTweet(username, content, hashtags);
+                    return resolveHashTags(hashtags).collectList()
+                            .flatMap(hashTags -> entityTemplate.insert(tweet)
+                                    .thenMany(Flux.fromIterable(hashTags)
+                                            .concatMap(hashTag -> tweetHashTagRepository.insert(tweet.getId(), hashTag.getId())))
+                                    .then(Mono.fromSupplier(() -> toTweet(tweet, hashTags.stream().map(HashTagRecord::getHashTag).toList()))));
+                }))
+                .as(transactionalOperator::transactional)
+                .doOnNext(saved -> eventPublisher.publishEvent(new TweetCreatedEvent(saved)))
+                .map(TweetMapper::toTweetResp);
+    }
+
+    @Override
+    public Mono<Void> deleteTweet(Long id, String username) {
+        return tweetRepository.findRowsByIdIn(List.of(id)).next()
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Tweet not found")))
+                .flatMap(row -> {
+                    if (!row.getUsername().equals(username)) {
+                        return Mono.error(new ResourceNotFoundException("You are not authorized to delete this tweet"));
+                    }
+                    return tweetHashTagRepository.deleteByTweetId(id)
+                            .then(tweetRepository.deleteById(id))
+                            .thenReturn(toTweet(row));
+                })
+                .as(transactionalOperator::transactional)
+                .doOnNext(deleted -> eventPublisher.publishEvent(new TweetDeletedEvent(deleted)))
+                .then();
+    }
+
+    @Override
+    public Flux<TweetResp> getTweetsByHashtagsAndUsernames(List<String> hashtags, List<String> usernames, TweetCursor cursor, int limit) {
+        return tweetRepository.findRowsByHashtagsAndUsernamesBefore(hashtags, usernames, cursor.getCreatedAt(), cursor.getId(), limit)
+                .map(TweetMapper::toTweetResp);
+    }
+
+    @Override
+    public Flux<TweetResp> getTweetsByHashtags(List<String> hashtags, TweetCursor cursor, int limit) {
+        return tweetRepository.findRowsByHashtagsBefore(hashtags, cursor.getCreatedAt(), cursor.getId(), limit)
+                .map(TweetMapper::toTweetResp);
+    }
+
+    @Override
+    public Flux<TweetResp> getTweetsByUsernames(List<String> usernames, TweetCursor cursor, int limit) {
+        return tweetRepository.findRowsByUsernamesBefore(usernames, cursor.getCreatedAt(), cursor.getId(), limit)
+                .map(TweetMapper::toTweetResp);
+    }
+
+    @Override
+    public Flux<TweetResp> getAllTweets(TweetCursor cursor, int limit) {
+        return tweetRepository.findRowsBefore(cursor.getCreatedAt(), cursor.getId(), limit)
+                .map(TweetMapper::toTweetResp);
+    }
+
+    private TweetRecord newTweet(String username, String content, List<String> hashtags) {
+        TweetRecord tweet = new TweetRecord();
+        tweet.setId(snowflake.nextId());
+        tweet.setUsername(username);
+        tweet.setContent(content);
+        tweet.setHashTags(Tweet.joinHashTags(hashtags));
+        tweet.setCreatedAt(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        return tweet;
+    }
+
+    /**
+     * Same resolution as the blocking service: one bulk lookup, then a multi-row insert-ignore of the
+     * missing tags in sorted order and a locking re-read, which sees tags committed concurrently by
+     * another writer where a plain select would read this transaction's older snapshot.
+     */
+    private Flux<HashTagRecord> resolveHashTags(List<String> hashtags) {
+        if (hashtags == null || hashtags.isEmpty()) {
+            return Flux.empty();
+        }
+        Set<String> wanted = new LinkedHashSet<>(hashtags);
+        return hashTagRepository.findByHashTagIn(wanted).collectList()
+                .flatMapMany(found -> {
+                    Set<String> missing = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+                    missing.addAll(wanted);
+                    found.forEach(hashTag -> missing.remove(hashTag.getHashTag()));
+                    if (missing.isEmpty()) {
+                        return Flux.fromIterable(found);
+                    }
+                    List<HashTagRecord> inserts = missing.stream().map(tag -> {
+                        HashTagRecord hashTag = new HashTagRecord();
+                        hashTag.setId(snowflake.nextId());
+                        hashTag.setHashTag(tag);
+                        return hashTag;
+                    }).toList();
+                    return Flux.fromIterable(found)
+                            .concatWith(hashTagRepository.insertIgnore(inserts)
+                                    .thenMany(hashTagRepository.findLockedByHashTagIn(missing)));
+                });
+    }
+
+    private Tweet toTweet(TweetRecord record, List<String> hashtags) {
+        Tweet tweet = new Tweet();
+        tweet.setId(record.getId());
+        tweet.setUsername(record.getUsername());
+        tweet.setContent(record.getContent());
+        tweet.setCreatedAt(record.getCreatedAt());
+        tweet.setHashtags(hashtags.stream().map(tag -> {
+            HashTag hashTag = new HashTag();
+            hashTag.setHashTag(tag);
+            return hashTag;
+        }).collect(Collectors.toSet()));
+        return tweet;
+    }
+
+    private Tweet toTweet(TweetRowRecord row) {
+        TweetRecord record = new TweetRecord();
+        record.setId(row.getId());
+        record.setUsername(row.getUsername());
+        record.setContent(row.getContent());
+        record.setCreatedAt(row.getCreatedAt());
+        return toTweet(record, TweetMapper.toTweetResp(row).getHashTags());
+    }
+}
@@ -1,85 +1,178 @@
 package com.example.sbg.services.implementation;
 
+import com.example.sbg.api.models.BatchTweetResult;
+import com.example.sbg.api.models.PostTweetReq;
+import com.example.sbg.api.models.TweetCursor;
 import com.example.sbg.api.models.TweetResp;
 import com.example.sbg.api.models.TweetsPageResp;
+import com.example.sbg.cache.HashTagCache;
+import com.example.sbg.cache.TimelineCache;
+import com.example.sbg.events.TweetCreatedEvent;
+import com.example.sbg.events.TweetDeletedEvent;
 import com.example.sbg.exceptions.BadRequestException;
 import com.example.sbg.exceptions.ResourceNotFoundException;
+import com.example.sbg.exceptions.ServiceUnavailableException;
+import com.example.sbg.index.ContentIndex;
+import com.example.sbg.index.ContentTokenizer;
+import com.example.sbg.index.HashtagIndex;
 import com.example.sbg.mappers.TweetMapper;
 import com.example.sbg.model.HashTag;
 import com.example.sbg.model.Tweet;
 import com.example.sbg.repository.HashTagRepository;
 import com.example.sbg.repository.TweetRepository;
+import com.example.sbg.repository.TweetRow;
 import com.example.sbg.services.ITweeterService;
+import com.example.sbg.validation.TweetValidator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@ConditionalOnProperty(name = "tweeter.storage", havingValue = "jpa", matchIfMissing = true)
 public class TweetService implements ITweeterService {
 
+    private static final int MAX_SEARCH_TERMS = 10;
+
     private final TweetRepository tweetRepository;
     private final HashTagRepository hashTagRepository;
+    private final HashTagCache hashTagCache;
+    private final HashtagIndex hashtagIndex;
+    private final TimelineCache timelineCache;
+    private final ContentIndex contentIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     public TweetService(TweetRepository tweetRepository, HashTagRepository hashTagRepository) {
+        this(tweetRepository, hashTagRepository, null, null, null, event -> {
+        });
+    }
+
+    public TweetService(TweetRepository tweetRepository, HashTagRepository hashTagRepository, HashTagCache hashTagCache,
+                        HashtagIndex hashtagIndex, TimelineCache timelineCache, ApplicationEventPublisher eventPublisher) {
+        this(tweetRepository, hashTagRepository, hashTagCache, hashtagIndex, timelineCache, null, eventPublisher);
+    }
+
+    @Autowired
+    public TweetService(TweetRepository tweetRepository, HashTagRepository hashTagRepository, HashTagCache hashTagCache,
+                        HashtagIndex hashtagIndex, TimelineCache timelineCache, ContentIndex contentIndex,
+                        ApplicationEventPublisher eventPublisher) {
         this.tweetRepository = tweetRepository;
         this.hashTagRepository = hashTagRepository;
+        this.hashTagCache = hashTagCache;
+        this.hashtagIndex = hashtagIndex;
+        this.timelineCache = timelineCache;
+        this.contentIndex = contentIndex;
+        this.eventPublisher = eventPublisher;
     }
 
+    @Transactional
     public Tweet createTweet(String username, String content, List<String> hashtags) {
 
-        if (hashtags != null) {
+        validateHashTags(hashtags);
 
-            if (hashtags.size() > 5)
-                throw new BadRequestException("Too many hash tags");
+        Tweet tweet = newTweet(username, content, resolveHashTags(hashtags));
 
-            for (String tag : hashtags) {
-                if (!tag.matches("^#[a-zA-Z0-9_]*$")) {
-                    throw new BadRequestException("Invalid hash tag: " + tag);
+        Tweet savedTweet = tweetRepository.save(tweet);
+        eventPublisher.publishEvent(new TweetCreatedEvent(savedTweet));
+        return savedTweet;
+    }
+
+    @Override
+    @Transactional
+    public List<BatchTweetResult> createTweets(String username, List<PostTweetReq> tweets, int firstIndex) {
+        List<BatchTweetResult> results = new ArrayList<>(tweets.size());
+        List<Integer> acceptedIndexes = new ArrayList<>(tweets.size());
+        Set<String> allHashtags = new LinkedHashSet<>();
+
+        for (int i = 0; i < tweets.size(); i++) {
+            PostTweetReq req = tweets.get(i);
+            try {
+                if (req == null || req.getTweetBody() == null || req.getTweetBody().isEmpty()) {
+                    throw new BadRequestException("Tweet body is missing.");
                 }
+                validateHashTags(req.getHashTags());
+            } catch (BadRequestException e) {
+                results.add(new BatchTweetResult(firstIndex + i, HttpStatus.BAD_REQUEST.value(), null, e.getMessage()));
+                continue;
+            }
+            acceptedIndexes.add(i);
+            if (req.getHashTags() != null) {
+                allHashtags.addAll(req.getHashTags());
             }
         }
 
-        Set<HashTag> hashTagSet = new HashSet<>();
-        if (hashtags != null) {
-            for (String tag : hashtags) {
-                HashTag hashTag = hashTagRepository.findByHashTag(tag).orElseGet(() -> {
-                    HashTag newTag = new HashTag();
-                    newTag.setHashTag(tag);
-                    return newTag;
-                });
-                hashTagSet.add(hashTag);
-            }
+        // One resolution pass for every tag in the chunk, then a single batched insert of the tweets.
+        Map<String, HashTag> hashTagsByName = byTagName(resolveHashTags(allHashtags));
+        List<Tweet> newTweets = new ArrayList<>(acceptedIndexes.size());
+        for (int i : acceptedIndexes) {
+            PostTweetReq req = tweets.get(i);
+            Set<HashTag> hashTagSet = req.getHashTags() == null ? new HashSet<>() : req.getHashTags().stream()
+                    .map(hashTagsByName::get)
+                    .collect(Collectors.toSet());
+            newTweets.add(newTweet(username, req.getTweetBody(), hashTagSet));
         }
 
-        // Save hashtags to ensure they are persisted
-        hashTagSet = hashTagSet.stream()
-                .map(hashTagRepository::save)
-                .collect(Collectors.toSet());
+        List<Tweet> savedTweets = tweetRepository.saveAll(newTweets);
+        for (int i = 0; i < savedTweets.size(); i++) {
+            Tweet savedTweet = savedTweets.get(i);
+            eventPublisher.publishEvent(new TweetCreatedEvent(savedTweet));
+            results.add(new BatchTweetResult(firstIndex + acceptedIndexes.get(i), HttpStatus.CREATED.value(), savedTweet.getId().toString(), null));
+        }
+        results.sort(Comparator.comparingInt(BatchTweetResult::getIndex));
+        return results;
+    }
 
-        Tweet tweet = new Tweet();
-        tweet.setUsername(username);
-        tweet.setContent(content);
-        tweet.setHashtags(hashTagSet);
-        tweet.setCreatedAt(LocalDateTime.now());
+    /**
+     * Persists tweets whose ids were assigned up front, as one group commit: their tags are resolved
+     * in one pass and all rows are written with multi-row inserts. Used by the write-behind writer.
+     * The given tweets are not modified.
+     */
+    @Transactional
+    public List<Tweet> persistTweets(List<Tweet> tweets) {
+        Set<String> allHashtags = new LinkedHashSet<>();
+        tweets.forEach(tweet -> tweet.getHashtags().forEach(hashTag -> allHashtags.add(hashTag.getHashTag())));
+        Map<String, HashTag> hashTagsByName = byTagName(resolveHashTags(allHashtags));
 
-        return tweetRepository.save(tweet);
+        List<Tweet> persisted = new ArrayList<>(tweets.size());
+        for (Tweet tweet : tweets) {
+            Tweet copy = new Tweet();
+            copy.setId(tweet.getId());
+            copy.setUsername(tweet.getUsername());
+            copy.setContent(tweet.getContent());
+            copy.setCreatedAt(tweet.getCreatedAt());
+            copy.setHashtags(tweet.getHashtags().stream()
+                    .map(hashTag -> hashTagsByName.get(hashTag.getHashTag()))
+                    .collect(Collectors.toSet()));
+            persisted.add(copy);
+        }
+        tweetRepository.insertAll(persisted);
+        persisted.forEach(tweet -> eventPublisher.publishEvent(new TweetCreatedEvent(tweet)));
+        return persisted;
     }
 
+    @Transactional
     public void deleteTweet(Long id, String username) {
         Tweet tweet = tweetRepository.findById(id).orElseThrow(() -> new RuntimeException("Tweet not found"));
         if (!tweet.getUsername().equals(username)) {
             throw new ResourceNotFoundException("You are not authorized to delete this tweet");
         }
+        eventPublisher.publishEvent(new TweetDeletedEvent(tweet));
         tweetRepository.delete(tweet);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public TweetsPageResp getTweetsByHashtagsAndUsernames(List<String> hashtags, List<String> usernames, int pageNumber, int pageSize) {
         var tweetPage = tweetRepository.findByHashtags_HashTagInAndUsernameIn(hashtags, usernames, PageRequest.of(pageNumber, pageSize));
         List<TweetResp> tweetResponses = TweetMapper.toTweetRespList(tweetPage.getContent());
@@ -89,6 +182,7 @@ public class TweetService implements ITweeterService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public TweetsPageResp getTweetsByHashtags(List<String> hashtags, int pageNumber, int pageSize) {
         var tweetPage = tweetRepository.findByHashtags_HashTagIn(hashtags, PageRequest.of(pageNumber, pageSize));
         List<TweetResp> tweetResponses = TweetMapper.toTweetRespList(tweetPage.getContent());
@@ -98,6 +192,7 @@ public class TweetService implements ITweeterService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public TweetsPageResp getTweetsByUsernames(List<String> usernames, int pageNumber, int pageSize) {
         var tweetPage = tweetRepository.findByUsernameIn(usernames, PageRequest.of(pageNumber, pageSize));
         List<TweetResp> tweetResponses = TweetMapper.toTweetRespList(tweetPage.getContent());
@@ -107,12 +202,190 @@ public class TweetService implements ITweeterService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public TweetsPageResp getAllTweets(int pageNumber, int pageSize) {
-        var tweetPage = tweetRepository.findAll(PageRequest.of(pageNumber, pageSize));
+        var tweetPage = tweetRepository.findAllBy(PageRequest.of(pageNumber, pageSize));
         List<TweetResp> tweetResponses = TweetMapper.toTweetRespList(tweetPage.getContent());
 
         return new TweetsPageResp(tweetResponses,
                 tweetPage.hasNext() ? TweetsPageResp.createNextPageUrl(pageNumber, pageSize, Collections.emptyList(), Collections.emptyList()) : null);
     }
-}
 
+    @Override
+    @Transactional(readOnly = true)
+    public TweetsPageResp getTweetsByHashtagsAndUsernames(List<String> hashtags, List<String> usernames, TweetCursor cursor, int pageSize) {
+        var rowSlice = tweetRepository.findRowsByHashtagsAndUsernamesBefore(hashtags, usernames, cursor.getCreatedAt(), cursor.getId(), PageRequest.ofSize(pageSize));
+        return toCursorPage(TweetMapper.toTweetRespListFromRows(rowSlice.getContent()), rowSlice.hasNext(), pageSize, hashtags, usernames);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TweetsPageResp getTweetsByHashtags(List<String> hashtags, TweetCursor cursor, int pageSize) {
+        if (hashtagIndex != null && hashtagIndex.isReady()) {
+            var rowSlice = findByHashtagIndex(hashtags, cursor, pageSize);
+            return toCursorPage(TweetMapper.toTweetRespListFromRows(rowSlice.getContent()), rowSlice.hasNext(), pageSize, hashtags, Collections.emptyList());
+        }
+        var rowSlice = tweetRepository.findRowsByHashtagsBefore(hashtags, cursor.getCreatedAt(), cursor.getId(), PageRequest.ofSize(pageSize));
+        return toCursorPage(TweetMapper.toTweetRespListFromRows(rowSlice.getContent()), rowSlice.hasNext(), pageSize, hashtags, Collections.emptyList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TweetsPageResp getTweetsByUsernames(List<String> usernames, TweetCursor cursor, int pageSize) {
+        if (timelineCache != null) {
+            var cachedSlice = timelineCache.findBefore(usernames, cursor, pageSize);
+            if (cachedSlice.isPresent()) {
+                return toCursorPage(cachedSlice.get().getContent(), cachedSlice.get().hasNext(), pageSize, Collections.emptyList(), usernames);
+            }
+        }
+        var rowSlice = tweetRepository.findRowsByUsernamesBefore(usernames, cursor.getCreatedAt(), cursor.getId(), PageRequest.ofSize(pageSize));
+        return toCursorPage(TweetMapper.toTweetRespListFromRows(rowSlice.getContent()), rowSlice.hasNext(), pageSize, Collections.emptyList(), usernames);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TweetsPageResp getAllTweets(TweetCursor cursor, int pageSize) {
+        var rowSlice = tweetRepository.findRowsBefore(cursor.getCreatedAt(), cursor.getId(), PageRequest.ofSize(pageSize));
+        return toCursorPage(TweetMapper.toTweetRespListFromRows(rowSlice.getContent()), rowSlice.hasNext(), pageSize, Collections.emptyList(), Collections.emptyList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TweetsPageResp searchTweets(String query, TweetCursor cursor, int pageSize) {
+        Set<String> terms = ContentTokenizer.tokenize(query);
+        if (terms.isEmpty()) {
+            throw new BadRequestException("Search query is missing.");
+        }
+        if (terms.size() > MAX_SEARCH_TERMS) {
+            throw new BadRequestException("Search query can contain at most " + MAX_SEARCH_TERMS + " words.");
+        }
+        if (contentIndex == null || !contentIndex.isReady()) {
+            throw new ServiceUnavailableException("Search index is not available yet.");
+        }
+
+        var rowSlice = findSearchRows(terms, cursor.getId(), pageSize);
+        List<TweetResp> tweetResponses = TweetMapper.toTweetRespListFromRows(rowSlice.getContent());
+        return new TweetsPageResp(tweetResponses,
+                rowSlice.hasNext() && !tweetResponses.isEmpty()
+                        ? TweetsPageResp.createSearchNextPageUrl(query, TweetCursor.after(tweetResponses.get(tweetResponses.size() - 1)), pageSize)
+                        : null);
+    }
+
+    private void validateHashTags(List<String> hashtags) {
+        TweetValidator.requireValidTweetHashTags(hashtags);
+    }
+
+    private Tweet newTweet(String username, String content, Set<HashTag> hashTagSet) {
+        Tweet tweet = new Tweet();
+        tweet.setUsername(username);
+        tweet.setContent(content);
+        tweet.setHashtags(hashTagSet);
+        // Stored with microsecond precision, so keep the in-memory copy and cursors built from it identical.
+        tweet.setCreatedAt(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        return tweet;
+    }
+
+    /**
+     * Resolves the tags from the hash tag cache first, and the rest in at most three statements: a bulk
+     * lookup, and only when some tags are new, a multi-row insert-ignore followed by a locking re-read
+     * of the new tags. Insert-ignore makes two tweets introducing the same tag concurrently both succeed
+     * against the unique constraint. New tags are inserted in sorted order, so two such tweets take their
+     * row locks in the same order instead of deadlocking. Only tags read as already committed are added
+     * to the cache.
+     */
+    private Set<HashTag> resolveHashTags(Collection<String> hashtags) {
+        if (hashtags == null || hashtags.isEmpty()) {
+            return new HashSet<>();
+        }
+        Set<HashTag> hashTagSet = new HashSet<>();
+        Set<String> uncached = new LinkedHashSet<>();
+        for (String tag : hashtags) {
+            Optional<HashTag> cached = hashTagCache != null ? hashTagCache.getIfPresent(tag) : Optional.empty();
+            cached.ifPresentOrElse(hashTagSet::add, () -> uncached.add(tag));
+        }
+        if (uncached.isEmpty()) {
+            return hashTagSet;
+        }
+
+        List<HashTag> found = hashTagRepository.findByHashTagIn(uncached);
+        hashTagSet.addAll(found);
+        if (hashTagCache != null) {
+            found.forEach(hashTagCache::put);
+        }
+
+        // Case-insensitive like the column collation, so a stored spelling also settles its case variants.
+        Set<String> missing = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        missing.addAll(uncached);
+        found.forEach(hashTag -> missing.remove(hashTag.getHashTag()));
+        if (!missing.isEmpty()) {
+            hashTagRepository.insertIgnore(missing);
+            hashTagSet.addAll(hashTagRepository.lockByHashTagIn(missing));
+        }
+        return hashTagSet;
+    }
+
+    /**
+     * Indexes resolved tags for lookup by any spelling of the request. The column collation matches tags
+     * case-insensitively, so {@code #News} resolves to a stored {@code #news}.
+     */
+    private static Map<String, HashTag> byTagName(Collection<HashTag> hashTags) {
+        Map<String, HashTag> byName = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        hashTags.forEach(hashTag -> byName.put(hashTag.getHashTag(), hashTag));
+        return byName;
+    }
+
+    /**
+     * Picks the page ids from the in-memory hash tag index and loads only those rows by primary key.
+     */
+    private Slice<TweetRow> findByHashtagIndex(List<String> hashtags, TweetCursor cursor, int pageSize) {
+        return findRowsByIds(hashtagIndex.findIdsBefore(hashtags, cursor.getCreatedAt(), cursor.getId(), pageSize + 1), pageSize);
+    }
+
+    /**
+     * Reads search hits until the page and one more row are filled or the index runs out, so ids of
+     * tweets that no longer exist never end a page early.
+     */
+    private Slice<TweetRow> findSearchRows(Set<String> terms, long beforeId, int pageSize) {
+        List<TweetRow> rows = new ArrayList<>(pageSize + 1);
+        long cursorId = beforeId;
+        while (rows.size() <= pageSize) {
+            int wanted = pageSize + 1 - rows.size();
+            long[] ids = contentIndex.findIdsBefore(terms, cursorId, wanted);
+            if (ids.length == 0) {
+                break;
+            }
+            rows.addAll(findRowsByIds(ids, ids.length).getContent());
+            if (ids.length < wanted) {
+                break;
+            }
+            cursorId = ids[ids.length - 1];
+        }
+        boolean hasNext = rows.size() > pageSize;
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageSize) : rows, PageRequest.ofSize(pageSize), hasNext);
+    }
+
+    /**
+     * Loads the rows of index hits by primary key, keeping the index order. One id past the page
+     * signals a next page.
+     */
+    private Slice<TweetRow> findRowsByIds(long[] ids, int pageSize) {
+        boolean hasNext = ids.length > pageSize;
+        List<Long> pageIds = Arrays.stream(ids).limit(pageSize).boxed().toList();
+
+        Map<Long, TweetRow> rowsById = tweetRepository.findRowsByIdIn(pageIds).stream()
+                .collect(Collectors.toMap(TweetRow::getId, Function.identity()));
+        List<TweetRow> rows = pageIds.stream()
+                .map(rowsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+
+        return new SliceImpl<>(rows, PageRequest.ofSize(pageSize), hasNext);
+    }
+
+    private TweetsPageResp toCursorPage(List<TweetResp> tweetResponses, boolean hasNext, int pageSize, List<String> hashtags, List<String> usernames) {
+        return new TweetsPageResp(tweetResponses,
+                hasNext && !tweetResponses.isEmpty()
+                        ? TweetsPageResp.createNextPageUrl(TweetCursor.after(tweetResponses.get(tweetResponses.size() - 1)), pageSize, hashtags, usernames)
+                        : null);
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.sbg.services.implementation;
+
+import com.example.sbg.api.models.BatchTweetResult;
+import com.example.sbg.api.models.PostTweetReq;
+import com.example.sbg.api.models.TweetCursor;
+import com.example.sbg.api.models.TweetsPageResp;
+import com.example.sbg.exceptions.BadRequestException;
+import com.example.sbg.exceptions.TweetAcceptedException;
+import com.example.sbg.ingest.IngestAck;
+import com.example.sbg.ingest.TweetIngestQueue;
+import com.example.sbg.model.HashTag;
+import com.example.sbg.model.Tweet;
+import com.example.sbg.model.id.Snowflake;
+import com.example.sbg.services.ITweeterService;
+import com.example.sbg.validation.TweetValidator;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind front for {@link TweetService}, enabled with {@code tweeter.write-behind.enabled=true}.
+ * Single tweet creation validates the request, assigns the id and timestamp up front and queues the
+ * tweet; a writer thread persists queued tweets in group commits, so request threads no longer hold a
+ * connection per insert. With {@link IngestAck#FLUSH} the request waits for its group commit; with
+ * {@link IngestAck#ENQUEUE} it returns at once, and the tweet becomes visible to reads, caches and the
+ * stream once its batch commits. A flush that outlasts {@code tweeter.write-behind.flush-timeout} is
+ * answered 202 with the assigned id, since the tweet will still commit and a retry would duplicate it.
+ * Everything else goes straight to {@link TweetService}. Only applies to the jpa store.
+ */
+@Service
+@Primary
+@ConditionalOnExpression("${tweeter.write-behind.enabled:false} and '${tweeter.storage:jpa}' == 'jpa'")
+public class WriteBehindTweetService implements ITweeterService {
+
+    private final TweetService tweetService;
+    private final TweetIngestQueue ingestQueue;
+    private final IngestAck ack;
+    private final Duration flushTimeout;
+    private final Snowflake snowflake;
+
+    public WriteBehindTweetService(TweetService tweetService,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${tweeter.write-behind.ack:flush}") IngestAck ack,
+                                   @Value("${tweeter.write-behind.queue-capacity:10000}") int queueCapacity,
+                                   @Value("${tweeter.write-behind.max-batch:500}") int maxBatch,
+                                   @Value("${tweeter.write-behind.offer-timeout:50ms}") Duration offerTimeout,
+                                   @Value("${tweeter.write-behind.flush-timeout:5s}") Duration flushTimeout,
+                                   @Value("${spring.jpa.properties.tweeter.id.worker-id:0}") int workerId) {
+        this.tweetService = tweetService;
+        this.ack = ack;
+        this.flushTimeout = flushTimeout;
+        this.ingestQueue = new TweetIngestQueue(queueCapacity, maxBatch, offerTimeout, tweetService::persistTweets, meterRegistry);
+        // Same instance Hibernate uses for this worker, so queued ids never collide with directly saved ones.
+        this.snowflake = Snowflake.forWorker(workerId);
+    }
+
+    @Override
+    public Tweet createTweet(String username, String content, List<String> hashtags) {
+        if (content == null || content.isEmpty()) {
+            throw new BadRequestException("Tweet body is missing.");
+        }
+        TweetValidator.requireValidTweetHashTags(hashtags);
+
+        long id = snowflake.nextId();
+        LocalDateTime createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        CompletableFuture<Tweet> flushed = ingestQueue.submit(pendingTweet(id, username, content, createdAt, hashtags));
+        if (ack == IngestAck.ENQUEUE) {
+            // The queued instance belongs to the writer thread from here on, so answer with a twin.
+            return pendingTweet(id, username, content, createdAt, hashtags);
+        }
+        try {
+            return flushed.get(flushTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new TweetAcceptedException(pendingTweet(id, username, content, createdAt, hashtags));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TweetAcceptedException(pendingTweet(id, username, content, createdAt, hashtags));
+        }
+    }
+
+    @Override
+    public List<BatchTweetResult> createTweets(String username, List<PostTweetReq> tweets, int firstIndex) {
+        return tweetService.createTweets(username, tweets, firstIndex);
+    }
+
+    @Override
+    public void deleteTweet(Long id, String username) {
+        tweetService.deleteTweet(id, username);
+    }
+
+    @Override
+    public TweetsPageResp getTweetsByHashtagsAndUsernames(List<String> hashtags, List<String> usernames, int pageNumber, int pageSize) {
+        return tweetService.getTweetsByHashtagsAndUsernames(hashtags, usernames, pageNumber, pageSize);
+    }
+
+    @Override
+    public TweetsPageResp getTweetsByHashtags(List<String> hashtags, int pageNumber, int pageSize) {
+        return tweetService.getTweetsByHashtags(hashtags, pageNumber, pageSize);
+    }
+
+    @Override
+    public TweetsPageResp getTweetsByUsernames(List<String> usernames, int pageNumber, int pageSize) {
+        return tweetService.getTweetsByUsernames(usernames, pageNumber, pageSize);
+    }
+
+    @Override
+    public TweetsPageResp getAllTweets(int pageNumber, int pageSize) {
+        return tweetService.getAllTweets(pageNumber, pageSize);
+    }
+
+    @Override
+    public TweetsPageResp getTweetsByHashtagsAndUsernames(List<String> hashtags, List<String> usernames, TweetCursor cursor, int pageSize) {
+        return tweetService.getTweetsByHashtagsAndUsernames(hashtags, usernames, cursor, pageSize);
+    }
+
+    @Override
+    public TweetsPageResp getTweetsByHashtags(List<String> hashtags, TweetCursor cursor, int pageSize) {
+        return tweetService.getTweetsByHashtags(hashtags, cursor, pageSize);
+    }
+
+    @Override
+    public TweetsPageResp getTweetsByUsernames(List<String> usernames, TweetCursor cursor, int pageSize) {
+        return tweetService.getTweetsByUsernames(usernames, cursor, pageSize);
+    }
+
+    @Override
+    public TweetsPageResp getAllTweets(TweetCursor cursor, int pageSize) {
+        return tweetService.getAllTweets(cursor, pageSize);
+    }
+
+    @Override
+    public TweetsPageResp searchTweets(String query, TweetCursor cursor, int pageSize) {
+        return tweetService.searchTweets(query, cursor, pageSize);
+    }
+
+    /**
+     * Flushes what is still queued before the context closes the data source.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        ingestQueue.close();
+    }
+
+    private static Tweet pendingTweet(long id, String username, String content, LocalDateTime createdAt, List<String> hashtags) {
+        Tweet tweet = new Tweet();
+        tweet.setId(id);
+        tweet.setUsername(username);
+        tweet.setContent(content);
+        tweet.setCreatedAt(createdAt);
+        if (hashtags != null) {
+            tweet.setHashtags(new LinkedHashSet<>(hashtags).stream().map(tag -> {
+                HashTag hashTag = new HashTag();
+                hashTag.setHashTag(tag);
+                return hashTag;
+            }).collect(Collectors.toSet()));
+        }
+        return tweet;
+    }
+}
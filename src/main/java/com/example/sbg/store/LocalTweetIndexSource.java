@@ -0,0 +1,61 @@
+package com.example.sbg.store;
+
+import com.example.sbg.index.TweetIndexSource;
+import com.example.sbg.repository.TweetContentRow;
+import com.example.sbg.repository.TweetHashTagRow;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rebuilds the in-memory indexes from the {@link LocalTweetStore}, so search and tag reads cover the
+ * tweets it recovered at startup.
+ */
+@Component
+@ConditionalOnProperty(name = "tweeter.storage", havingValue = "local")
+public class LocalTweetIndexSource implements TweetIndexSource {
+
+    private final LocalTweetStore store;
+
+    public LocalTweetIndexSource(LocalTweetStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public List<TweetContentRow> findContentRowsAfter(long afterId, int limit) {
+        return store.findAfter(afterId, limit).stream()
+                .<TweetContentRow>map(tweet -> new ContentRow(tweet.id(), tweet.content()))
+                .toList();
+    }
+
+    @Override
+    public List<TweetHashTagRow> findHashTagRowsFrom(long fromId, int limit) {
+        List<TweetHashTagRow> rows = new ArrayList<>();
+        long afterId = fromId - 1;
+        while (rows.size() < limit) {
+            List<StoredTweet> batch = store.findAfter(afterId, limit);
+            for (StoredTweet tweet : batch) {
+                for (String tag : tweet.hashtags()) {
+                    if (rows.size() == limit) {
+                        return rows;
+                    }
+                    rows.add(new HashTagRow(tweet.id(), tweet.createdAt(), tag));
+                }
+            }
+            if (batch.size() < limit) {
+                break;
+            }
+            afterId = batch.get(batch.size() - 1).id();
+        }
+        return rows;
+    }
+
+    private record ContentRow(Long getId, String getContent) implements TweetContentRow {
+    }
+
+    private record HashTagRow(Long getTweetId, LocalDateTime getCreatedAt, String getHashTag) implements TweetHashTagRow {
+    }
+}
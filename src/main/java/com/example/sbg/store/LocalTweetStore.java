@@ -0,0 +1,412 @@
+package com.example.sbg.store;
+
+import com.example.sbg.index.PostingList;
+import com.example.sbg.index.SortedIds;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Embedded tweet storage for nodes without a database server. Tweets are appended to memory-mapped
+ * {@link TweetLogSegment}s; an off-heap {@link OffHeapIdIndex} maps ids to record locations, and
+ * per-username and per-tag posting lists order each filter's tweets by id, which follows creation order.
+ * Records keep the spelling they were written with; the posting lists are keyed by the lower-cased name,
+ * so filters match case-insensitively as they do against MySQL.
+ * <p>
+ * Deletes mark the record in place. A background task rewrites sealed segments whose share of deleted
+ * records reaches {@code compaction-threshold} into a new segment with only the live records. On start
+ * every segment is replayed to rebuild the indexes; a compacted segment holds older ids than the segments
+ * numbered before it, so the posting lists are collected unordered and sorted once. Appends reach the page cache immediately and the
+ * disk when the OS writes the pages back, or on every append with {@code sync=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "tweeter.storage", havingValue = "local")
+public class LocalTweetStore {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalTweetStore.class);
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d+)\\.log");
+    private static final int SCAN_BATCH = 256;
+
+    private final Path directory;
+    private final int segmentRecords;
+    private final double compactionThreshold;
+    private final Duration compactionInterval;
+    private final boolean sync;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<Integer, TweetLogSegment> segments = new TreeMap<>();
+    private final Map<String, PostingList> byUsername = new ConcurrentHashMap<>();
+    private final Map<String, PostingList> byHashTag = new ConcurrentHashMap<>();
+    private volatile PostingList all = new PostingList();
+    private OffHeapIdIndex index;
+    private TweetLogSegment active;
+    private int nextSegment = 1;
+    private ScheduledExecutorService compactor;
+
+    public LocalTweetStore(@Value("${tweeter.storage.local.directory:data/tweets}") String directory,
+                           @Value("${tweeter.storage.local.segment-records:65536}") int segmentRecords,
+                           @Value("${tweeter.storage.local.compaction-threshold:0.5}") double compactionThreshold,
+                           @Value("${tweeter.storage.local.compaction-interval:60s}") Duration compactionInterval,
+                           @Value("${tweeter.storage.local.sync:false}") boolean sync) {
+        if (segmentRecords < 1 || (long) segmentRecords * TweetLogSegment.RECORD_SIZE > Integer.MAX_VALUE - 64) {
+            throw new IllegalArgumentException("Segment records out of range: " + segmentRecords);
+        }
+        this.directory = Path.of(directory);
+        this.segmentRecords = segmentRecords;
+        this.compactionThreshold = compactionThreshold;
+        this.compactionInterval = compactionInterval;
+        this.sync = sync;
+    }
+
+    /**
+     * True if the fields fit the fixed-width record columns.
+     */
+    public static boolean fits(String username, String content, List<String> hashtags) {
+        return TweetLogSegment.fits(username, content, hashtags);
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        lock.writeLock().lock();
+        try {
+            long started = System.currentTimeMillis();
+            Files.createDirectories(directory);
+            try (var files = Files.list(directory)) {
+                for (Path file : files.toList()) {
+                    String name = file.getFileName().toString();
+                    Matcher matcher = SEGMENT_NAME.matcher(name);
+                    if (matcher.matches()) {
+                        int number = Integer.parseInt(matcher.group(1));
+                        segments.put(number, TweetLogSegment.open(file, number));
+                    } else if (name.endsWith(".tmp")) {
+                        // An interrupted compaction; the segment it was rewriting is still in place.
+                        Files.delete(file);
+                    }
+                }
+            }
+
+            int records = segments.values().stream().mapToInt(TweetLogSegment::live).sum();
+            index = new OffHeapIdIndex(records);
+            IdBuffer allIds = new IdBuffer();
+            Map<String, IdBuffer> usernameIds = new HashMap<>();
+            Map<String, IdBuffer> hashTagIds = new HashMap<>();
+            for (TweetLogSegment segment : segments.values()) {
+                for (int slot = 0; slot < segment.size(); slot++) {
+                    if (segment.isLive(slot)) {
+                        StoredTweet tweet = segment.read(slot);
+                        long previous = index.get(tweet.id());
+                        if (previous >= 0) {
+                            // A compaction finished writing its copy but not deleting the original.
+                            segments.get(segmentOf(previous)).markDeleted(slotOf(previous));
+                        }
+                        index.put(tweet.id(), location(segment.number(), slot));
+                        allIds.add(tweet.id());
+                        usernameIds.computeIfAbsent(fold(tweet.username()), u -> new IdBuffer()).add(tweet.id());
+                        for (String tag : tweet.hashtags()) {
+                            hashTagIds.computeIfAbsent(fold(tag), t -> new IdBuffer()).add(tweet.id());
+                        }
+                    }
+                }
+                if (!segment.isFull()) {
+                    active = segment;
+                }
+            }
+            all = allIds.toPostingList();
+            usernameIds.forEach((username, ids) -> byUsername.put(username, ids.toPostingList()));
+            hashTagIds.forEach((tag, ids) -> byHashTag.put(tag, ids.toPostingList()));
+            nextSegment = segments.isEmpty() ? 1 : segments.lastKey() + 1;
+            log.info("Local tweet store opened {} segments with {} tweets in {} ms",
+                    segments.size(), index.size(), System.currentTimeMillis() - started);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        if (!compactionInterval.isZero()) {
+            compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "tweet-store-compactor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            compactor.scheduleWithFixedDelay(this::compactQuietly,
+                    compactionInterval.toMillis(), compactionInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (compactor != null) {
+            compactor.shutdownNow();
+        }
+        lock.writeLock().lock();
+        try {
+            segments.values().forEach(TweetLogSegment::force);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void append(StoredTweet tweet) {
+        lock.writeLock().lock();
+        try {
+            if (active == null || active.isFull()) {
+                if (active != null) {
+                    active.force();
+                }
+                int number = nextSegment++;
+                active = TweetLogSegment.create(segmentFile(number), number, segmentRecords);
+                segments.put(number, active);
+            }
+            int slot = active.append(tweet);
+            if (sync) {
+                active.force();
+            }
+            index.put(tweet.id(), location(active.number(), slot));
+            addToIndexes(tweet);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Optional<StoredTweet> find(long id) {
+        lock.readLock().lock();
+        try {
+            long location = index.get(id);
+            return location < 0 ? Optional.empty() : Optional.of(segments.get(segmentOf(location)).read(slotOf(location)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Marks the tweet deleted and drops it from the indexes. Returns false if it does not exist.
+     */
+    public boolean delete(long id) {
+        lock.writeLock().lock();
+        try {
+            long location = index.get(id);
+            if (location < 0) {
+                return false;
+            }
+            TweetLogSegment segment = segments.get(segmentOf(location));
+            StoredTweet tweet = segment.read(slotOf(location));
+            segment.markDeleted(slotOf(location));
+            if (sync) {
+                segment.force();
+            }
+            index.remove(id);
+            removeFromIndexes(tweet);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} tweets with an id lower than {@code beforeId}, newest first, tagged
+     * with any of {@code hashtags} and posted by any of {@code usernames}. An empty filter matches
+     * every tweet. The more selective filter drives the scan and the other is probed per candidate.
+     */
+    public List<StoredTweet> findBefore(Collection<String> hashtags, Collection<String> usernames, long beforeId, int limit) {
+        List<List<PostingList>> filters = new ArrayList<>(2);
+        if (hashtags != null && !hashtags.isEmpty()) {
+            filters.add(postings(byHashTag, hashtags));
+        }
+        if (usernames != null && !usernames.isEmpty()) {
+            filters.add(postings(byUsername, usernames));
+        }
+        if (filters.isEmpty()) {
+            filters.add(List.of(all));
+        }
+        filters.sort(Comparator.comparingLong(lists -> lists.stream().mapToLong(PostingList::size).sum()));
+
+        lock.readLock().lock();
+        try {
+            List<StoredTweet> result = new ArrayList<>(Math.min(limit, SCAN_BATCH));
+            long cursor = beforeId;
+            while (result.size() < limit) {
+                long[] candidates = SortedIds.mergeBefore(filters.get(0), cursor, SCAN_BATCH);
+                if (candidates.length == 0) {
+                    break;
+                }
+                for (int i = 0; i < candidates.length && result.size() < limit; i++) {
+                    long id = candidates[i];
+                    if (filters.size() == 1 || filters.get(1).stream().anyMatch(list -> list.contains(id))) {
+                        long location = index.get(id);
+                        if (location >= 0) {
+                            result.add(segments.get(segmentOf(location)).read(slotOf(location)));
+                        }
+                    }
+                }
+                cursor = candidates[candidates.length - 1];
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} tweets with an id greater than {@code afterId}, oldest first.
+     */
+    public List<StoredTweet> findAfter(long afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            long[] ids = all.after(afterId, limit);
+            List<StoredTweet> result = new ArrayList<>(ids.length);
+            for (long id : ids) {
+                long location = index.get(id);
+                if (location >= 0) {
+                    result.add(segments.get(segmentOf(location)).read(slotOf(location)));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rewrites every sealed segment whose share of deleted records reaches the compaction threshold.
+     * Each segment is compacted under the write lock, so writers wait for one segment at a time.
+     */
+    public void compact() throws IOException {
+        List<Integer> candidates = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (TweetLogSegment segment : segments.values()) {
+                if (segment != active && segment.size() > 0
+                        && (segment.size() - segment.live()) >= compactionThreshold * segment.size()) {
+                    candidates.add(segment.number());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        for (int number : candidates) {
+            lock.writeLock().lock();
+            try {
+                compact(segments.get(number));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void compact(TweetLogSegment source) throws IOException {
+        if (source.live() > 0) {
+            int number = nextSegment++;
+            Path file = segmentFile(number);
+            TweetLogSegment target = TweetLogSegment.create(file.resolveSibling(file.getFileName() + ".tmp"), number, source.live());
+            for (int slot = 0; slot < source.size(); slot++) {
+                if (source.isLive(slot)) {
+                    StoredTweet tweet = source.read(slot);
+                    index.put(tweet.id(), location(number, target.append(tweet)));
+                }
+            }
+            target.force();
+            target.moveTo(file);
+            segments.put(number, target);
+        }
+        segments.remove(source.number());
+        Files.delete(source.file());
+        log.info("Compacted segment {} keeping {} of {} tweets", source.number(), source.live(), source.size());
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Tweet store compaction failed", e);
+        }
+    }
+
+    private void addToIndexes(StoredTweet tweet) {
+        all.add(tweet.id());
+        byUsername.computeIfAbsent(fold(tweet.username()), u -> new PostingList()).add(tweet.id());
+        for (String tag : tweet.hashtags()) {
+            byHashTag.computeIfAbsent(fold(tag), t -> new PostingList()).add(tweet.id());
+        }
+    }
+
+    private void removeFromIndexes(StoredTweet tweet) {
+        all.remove(tweet.id());
+        Optional.ofNullable(byUsername.get(fold(tweet.username()))).ifPresent(list -> list.remove(tweet.id()));
+        for (String tag : tweet.hashtags()) {
+            Optional.ofNullable(byHashTag.get(fold(tag))).ifPresent(list -> list.remove(tweet.id()));
+        }
+    }
+
+    private static List<PostingList> postings(Map<String, PostingList> postings, Collection<String> keys) {
+        return keys.stream().map(LocalTweetStore::fold).distinct().map(postings::get).filter(Objects::nonNull).toList();
+    }
+
+    private static String fold(String key) {
+        return key.toLowerCase(Locale.ROOT);
+    }
+
+    private Path segmentFile(int number) {
+        return directory.resolve(String.format("segment-%06d.log", number));
+    }
+
+    private static long location(int segment, int slot) {
+        return ((long) segment << 32) | slot;
+    }
+
+    private static int segmentOf(long location) {
+        return (int) (location >>> 32);
+    }
+
+    private static int slotOf(long location) {
+        return (int) location;
+    }
+
+    /**
+     * Ids collected during recovery, in replay order.
+     */
+    private static final class IdBuffer {
+
+        private long[] ids = new long[8];
+        private int size;
+
+        void add(long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        PostingList toPostingList() {
+            return new PostingList(ids, size);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.sbg.store;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Map from tweet id to record location, kept in a direct buffer so millions of entries cost no heap
+ * objects and no GC work. Open addressing with linear probing; removals shift the following entries
+ * back instead of leaving markers, so lookups never slow down as tweets are deleted. Id 0 marks an
+ * empty slot, which Snowflake ids never use. Not thread-safe; {@link LocalTweetStore} guards it.
+ */
+final class OffHeapIdIndex {
+
+    private static final int ENTRY_BYTES = 16;
+    private static final double MAX_LOAD = 0.7;
+    private static final long MISSING = -1;
+
+    private ByteBuffer table;
+    private int capacity;
+    private int size;
+
+    OffHeapIdIndex(int expectedSize) {
+        capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / MAX_LOAD)) - 1) << 1;
+        table = ByteBuffer.allocateDirect(capacity * ENTRY_BYTES);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the location of {@code id}, or -1 if it is not indexed.
+     */
+    long get(long id) {
+        for (int slot = slot(id); ; slot = (slot + 1) & (capacity - 1)) {
+            long key = table.getLong(slot * ENTRY_BYTES);
+            if (key == 0) {
+                return MISSING;
+            }
+            if (key == id) {
+                return table.getLong(slot * ENTRY_BYTES + 8);
+            }
+        }
+    }
+
+    void put(long id, long location) {
+        if (size + 1 > capacity * MAX_LOAD) {
+            grow();
+        }
+        for (int slot = slot(id); ; slot = (slot + 1) & (capacity - 1)) {
+            long key = table.getLong(slot * ENTRY_BYTES);
+            if (key == 0 || key == id) {
+                table.putLong(slot * ENTRY_BYTES, id);
+                table.putLong(slot * ENTRY_BYTES + 8, location);
+                if (key == 0) {
+                    size++;
+                }
+                return;
+            }
+        }
+    }
+
+    boolean remove(long id) {
+        int mask = capacity - 1;
+        int slot = slot(id);
+        while (true) {
+            long key = table.getLong(slot * ENTRY_BYTES);
+            if (key == 0) {
+                return false;
+            }
+            if (key == id) {
+                break;
+            }
+            slot = (slot + 1) & mask;
+        }
+        // Move back every following entry of the probe run that would otherwise become unreachable.
+        int hole = slot;
+        for (int next = (hole + 1) & mask; ; next = (next + 1) & mask) {
+            long key = table.getLong(next * ENTRY_BYTES);
+            if (key == 0) {
+                break;
+            }
+            int home = slot(key);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                table.putLong(hole * ENTRY_BYTES, key);
+                table.putLong(hole * ENTRY_BYTES + 8, table.getLong(next * ENTRY_BYTES + 8));
+                hole = next;
+            }
+        }
+        table.putLong(hole * ENTRY_BYTES, 0);
+        table.putLong(hole * ENTRY_BYTES + 8, 0);
+        size--;
+        return true;
+    }
+
+    private void grow() {
+        ByteBuffer old = table;
+        int oldCapacity = capacity;
+        capacity = oldCapacity << 1;
+        table = ByteBuffer.allocateDirect(capacity * ENTRY_BYTES);
+        size = 0;
+        for (int slot = 0; slot < oldCapacity; slot++) {
+            long key = old.getLong(slot * ENTRY_BYTES);
+            if (key != 0) {
+                put(key, old.getLong(slot * ENTRY_BYTES + 8));
+            }
+        }
+    }
+
+    private int slot(long id) {
+        long hash = id * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & (capacity - 1);
+    }
+}
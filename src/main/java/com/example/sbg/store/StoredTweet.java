@@ -0,0 +1,11 @@
+package com.example.sbg.store;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A tweet as kept by the {@link LocalTweetStore}; tag names are stored inline, the way the
+ * {@code hash_tags} column holds them.
+ */
+public record StoredTweet(long id, String username, String content, List<String> hashtags, LocalDateTime createdAt) {
+}
@@ -0,0 +1,224 @@
+package com.example.sbg.store;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Memory-mapped, append-only file of fixed-width tweet records. A record's slot number is its offset,
+ * so a tweet is read back with one positional access and deleted by flipping its state byte in place.
+ * The state byte is written last, so a record torn by a crash reads as the end of the segment.
+ * <p>
+ * Layout: magic, version, record size and capacity in a {@value #HEADER_BYTES} byte header, then
+ * {@code capacity} records of state (byte), username, tag names and content lengths (shorts), id,
+ * creation time in epoch microseconds (longs), then the UTF-8 username, tag names and content.
+ */
+final class TweetLogSegment {
+
+    static final int RECORD_SIZE = 1536;
+    static final int MAX_USERNAME_BYTES = 255;
+    static final int MAX_HASH_TAGS_BYTES = 128;
+
+    private static final int MAGIC = 0x54574C47;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+
+    private static final byte EMPTY = 0;
+    private static final byte LIVE = 1;
+    private static final byte DELETED = 2;
+
+    private static final int STATE = 0;
+    private static final int USERNAME_LENGTH = 2;
+    private static final int HASH_TAGS_LENGTH = 4;
+    private static final int CONTENT_LENGTH = 6;
+    private static final int ID = 8;
+    private static final int CREATED_AT = 16;
+    private static final int USERNAME = 24;
+    private static final int HASH_TAGS = USERNAME + MAX_USERNAME_BYTES;
+    private static final int CONTENT = HASH_TAGS + MAX_HASH_TAGS_BYTES;
+
+    static final int MAX_CONTENT_BYTES = RECORD_SIZE - CONTENT;
+
+    private final int number;
+    private final int capacity;
+    private final MappedByteBuffer buffer;
+    private Path file;
+    private int size;
+    private int live;
+
+    private TweetLogSegment(Path file, int number, int capacity, MappedByteBuffer buffer) {
+        this.file = file;
+        this.number = number;
+        this.capacity = capacity;
+        this.buffer = buffer;
+    }
+
+    static TweetLogSegment create(Path file, int number, int capacity) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) capacity * RECORD_SIZE);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putInt(8, RECORD_SIZE);
+            buffer.putInt(12, capacity);
+            buffer.force();
+            return new TweetLogSegment(file, number, capacity, buffer);
+        }
+    }
+
+    /**
+     * Maps an existing segment and finds its end by scanning for the first empty slot.
+     */
+    static TweetLogSegment open(Path file, int number) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getInt(8) != RECORD_SIZE) {
+                throw new IOException("Not a tweet log segment: " + file);
+            }
+            int capacity = buffer.getInt(12);
+            if (channel.size() != HEADER_BYTES + (long) capacity * RECORD_SIZE) {
+                throw new IOException("Truncated tweet log segment: " + file);
+            }
+            TweetLogSegment segment = new TweetLogSegment(file, number, capacity, buffer);
+            while (segment.size < capacity && segment.state(segment.size) != EMPTY) {
+                if (segment.state(segment.size) == LIVE) {
+                    segment.live++;
+                }
+                segment.size++;
+            }
+            return segment;
+        }
+    }
+
+    /**
+     * True if the fields fit their fixed-width columns.
+     */
+    static boolean fits(String username, String content, List<String> hashtags) {
+        return utf8Length(username) <= MAX_USERNAME_BYTES
+                && utf8Length(content) <= MAX_CONTENT_BYTES
+                && utf8Length(String.join(",", hashtags)) <= MAX_HASH_TAGS_BYTES;
+    }
+
+    int number() {
+        return number;
+    }
+
+    Path file() {
+        return file;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int live() {
+        return live;
+    }
+
+    boolean isFull() {
+        return size == capacity;
+    }
+
+    boolean isLive(int slot) {
+        return state(slot) == LIVE;
+    }
+
+    /**
+     * Writes {@code tweet} to the next free slot and returns the slot.
+     */
+    int append(StoredTweet tweet) {
+        if (isFull()) {
+            throw new IllegalStateException("Segment " + number + " is full");
+        }
+        byte[] username = tweet.username().getBytes(StandardCharsets.UTF_8);
+        byte[] hashTags = String.join(",", tweet.hashtags()).getBytes(StandardCharsets.UTF_8);
+        byte[] content = tweet.content().getBytes(StandardCharsets.UTF_8);
+        if (username.length > MAX_USERNAME_BYTES || hashTags.length > MAX_HASH_TAGS_BYTES || content.length > MAX_CONTENT_BYTES) {
+            throw new IllegalArgumentException("Tweet " + tweet.id() + " does not fit a record");
+        }
+        int slot = size;
+        int base = offset(slot);
+        buffer.putShort(base + USERNAME_LENGTH, (short) username.length);
+        buffer.putShort(base + HASH_TAGS_LENGTH, (short) hashTags.length);
+        buffer.putShort(base + CONTENT_LENGTH, (short) content.length);
+        buffer.putLong(base + ID, tweet.id());
+        buffer.putLong(base + CREATED_AT, toEpochMicros(tweet.createdAt()));
+        buffer.put(base + USERNAME, username);
+        buffer.put(base + HASH_TAGS, hashTags);
+        buffer.put(base + CONTENT, content);
+        buffer.put(base + STATE, LIVE);
+        size++;
+        live++;
+        return slot;
+    }
+
+    StoredTweet read(int slot) {
+        int base = offset(slot);
+        String hashTags = string(base + HASH_TAGS, buffer.getShort(base + HASH_TAGS_LENGTH));
+        return new StoredTweet(
+                buffer.getLong(base + ID),
+                string(base + USERNAME, buffer.getShort(base + USERNAME_LENGTH)),
+                string(base + CONTENT, buffer.getShort(base + CONTENT_LENGTH)),
+                hashTags.isEmpty() ? List.of() : Arrays.asList(hashTags.split(",")),
+                fromEpochMicros(buffer.getLong(base + CREATED_AT)));
+    }
+
+    void markDeleted(int slot) {
+        if (isLive(slot)) {
+            buffer.put(offset(slot) + STATE, DELETED);
+            live--;
+        }
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    /**
+     * Renames the file, used to publish a segment written under a temporary name. The mapping stays valid.
+     */
+    void moveTo(Path target) throws IOException {
+        Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+        file = target;
+    }
+
+    private byte state(int slot) {
+        return buffer.get(offset(slot) + STATE);
+    }
+
+    private String string(int position, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(position, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int offset(int slot) {
+        return HEADER_BYTES + slot * RECORD_SIZE;
+    }
+
+    private static long toEpochMicros(LocalDateTime createdAt) {
+        return ChronoUnit.MICROS.between(LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC), createdAt);
+    }
+
+    private static LocalDateTime fromEpochMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC).plus(micros, ChronoUnit.MICROS);
+    }
+
+    private static int utf8Length(String value) {
+        return value == null ? 0 : value.getBytes(StandardCharsets.UTF_8).length;
+    }
+}
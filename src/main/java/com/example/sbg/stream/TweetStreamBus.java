@@ -0,0 +1,176 @@
+package com.example.sbg.stream;
+
+import com.example.sbg.api.models.TweetResp;
+import com.example.sbg.events.TweetCreatedEvent;
+import com.example.sbg.exceptions.ServiceUnavailableException;
+import com.example.sbg.mappers.TweetMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process broadcast of newly created tweets to live stream subscribers. Each subscription is
+ * indexed under its usernames, or its tags when it has no usernames, or in a catch-all set when it
+ * has neither, so a publish only visits subscriptions that can match the tweet. Keys are lower-cased,
+ * as {@code GET /tweets} matches tags and usernames case-insensitively.
+ * Subscribers whose bounded buffer overflows are dropped rather than buffered without limit; the
+ * publisher only unregisters them, and their sinks are closed on a writer thread. Sends also run on
+ * writer threads with a timeout, so a stalled client costs a writer thread, not a dispatcher.
+ * Subscriber count and drops are exported as {@code tweeter.stream.*} meters.
+ */
+@Component
+public class TweetStreamBus {
+
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final Map<String, Set<TweetSubscription>> byUsername = new ConcurrentHashMap<>();
+    private final Map<String, Set<TweetSubscription>> byHashtag = new ConcurrentHashMap<>();
+    private final Set<TweetSubscription> unfiltered = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final Counter dropped;
+    private final ExecutorService dispatcher;
+    private final ExecutorService writer;
+    private final Duration writeTimeout;
+
+    public TweetStreamBus(MeterRegistry meterRegistry,
+                          @Value("${tweeter.stream.buffer-size:256}") int bufferSize,
+                          @Value("${tweeter.stream.max-subscribers:10000}") int maxSubscribers,
+                          @Value("${tweeter.stream.dispatch-threads:4}") int dispatchThreads,
+                          @Value("${tweeter.stream.write-timeout:10s}") Duration writeTimeout) {
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.writeTimeout = writeTimeout;
+        this.dropped = Counter.builder("tweeter.stream.dropped")
+                .description("Stream subscribers disconnected because their buffer overflowed")
+                .register(meterRegistry);
+        meterRegistry.gauge("tweeter.stream.subscribers", subscribers);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.dispatcher = Executors.newFixedThreadPool(dispatchThreads, runnable -> {
+            Thread thread = new Thread(runnable, "tweet-stream-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger writerCount = new AtomicInteger();
+        this.writer = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "tweet-stream-writer-" + writerCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public TweetSubscription subscribe(Collection<String> hashtags, Collection<String> usernames, TweetStreamSink sink) {
+        if (subscribers.incrementAndGet() > maxSubscribers) {
+            subscribers.decrementAndGet();
+            throw new ServiceUnavailableException("Too many stream subscribers, try again later.");
+        }
+        TweetSubscription subscription = new TweetSubscription(hashtags, usernames, sink, bufferSize);
+        Set<String> keys = indexKeys(subscription);
+        if (keys.isEmpty()) {
+            unfiltered.add(subscription);
+        }
+        for (String key : keys) {
+            index(subscription).compute(key, (k, set) -> {
+                Set<TweetSubscription> subscriptions = set == null ? ConcurrentHashMap.newKeySet() : set;
+                subscriptions.add(subscription);
+                return subscriptions;
+            });
+        }
+        return subscription;
+    }
+
+    public void unsubscribe(TweetSubscription subscription) {
+        remove(subscription);
+    }
+
+    /**
+     * Removes the subscription from the indexes; true only for the first caller.
+     */
+    private boolean remove(TweetSubscription subscription) {
+        if (!subscription.unregister()) {
+            return false;
+        }
+        Set<String> keys = indexKeys(subscription);
+        if (keys.isEmpty()) {
+            unfiltered.remove(subscription);
+        }
+        for (String key : keys) {
+            index(subscription).computeIfPresent(key, (k, set) -> {
+                set.remove(subscription);
+                return set.isEmpty() ? null : set;
+            });
+        }
+        subscribers.decrementAndGet();
+        return true;
+    }
+
+    public int subscriberCount() {
+        return subscribers.get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTweetCreated(TweetCreatedEvent event) {
+        if (subscribers.get() > 0) {
+            publish(TweetMapper.toTweetResp(event));
+        }
+    }
+
+    void publish(TweetResp tweet) {
+        Set<TweetSubscription> targets = Collections.newSetFromMap(new IdentityHashMap<>());
+        targets.addAll(byUsername.getOrDefault(TweetSubscription.fold(tweet.getCreatedBy()), Set.of()));
+        for (String tag : tweet.getHashTags()) {
+            targets.addAll(byHashtag.getOrDefault(TweetSubscription.fold(tag), Set.of()));
+        }
+        targets.addAll(unfiltered);
+
+        for (TweetSubscription subscription : targets) {
+            if (!subscription.matches(tweet)) {
+                continue;
+            }
+            if (!subscription.offer(tweet)) {
+                drop(subscription);
+            } else if (subscription.markScheduled()) {
+                dispatcher.execute(() -> {
+                    if (!subscription.drain(writer, writeTimeout) && remove(subscription)) {
+                        close(subscription);
+                    }
+                });
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        writer.shutdownNow();
+    }
+
+    private void drop(TweetSubscription subscription) {
+        if (remove(subscription)) {
+            dropped.increment();
+            close(subscription);
+        }
+    }
+
+    private void close(TweetSubscription subscription) {
+        subscription.markClosed();
+        writer.execute(subscription::close);
+    }
+
+    private Set<String> indexKeys(TweetSubscription subscription) {
+        return subscription.getUsernames().isEmpty() ? subscription.getHashtags() : subscription.getUsernames();
+    }
+
+    private Map<String, Set<TweetSubscription>> index(TweetSubscription subscription) {
+        return subscription.getUsernames().isEmpty() ? byHashtag : byUsername;
+    }
+}
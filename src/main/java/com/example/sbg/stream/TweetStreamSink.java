@@ -0,0 +1,18 @@
+package com.example.sbg.stream;
+
+import com.example.sbg.api.models.TweetResp;
+
+import java.io.IOException;
+
+/**
+ * Delivery end of a stream subscription, typically an SSE connection.
+ */
+public interface TweetStreamSink {
+
+    void send(TweetResp tweet) throws IOException;
+
+    /**
+     * Ends the stream because the subscriber could not keep up or its connection failed.
+     */
+    void close();
+}
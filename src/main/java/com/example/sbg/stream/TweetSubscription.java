@@ -0,0 +1,149 @@
+package com.example.sbg.stream;
+
+import com.example.sbg.api.models.TweetResp;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One live stream client. Tweets are queued in a bounded buffer by the publisher and written to
+ * the sink by a dispatcher thread, so a slow client never blocks the writer that created the tweet.
+ * Each send is bounded by a write timeout, so a client that stops reading cannot pin a dispatcher thread.
+ */
+public class TweetSubscription {
+
+    private final Set<String> hashtags;
+    private final Set<String> usernames;
+    private final TweetStreamSink sink;
+    private final BlockingQueue<TweetResp> buffer;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final AtomicBoolean registered = new AtomicBoolean(true);
+    private volatile boolean closed;
+
+    TweetSubscription(Collection<String> hashtags, Collection<String> usernames, TweetStreamSink sink, int bufferSize) {
+        this.hashtags = folded(hashtags);
+        this.usernames = folded(usernames);
+        this.sink = sink;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+    }
+
+    Set<String> getHashtags() {
+        return hashtags;
+    }
+
+    Set<String> getUsernames() {
+        return usernames;
+    }
+
+    /**
+     * Lower-cases a tag or username in {@link Locale#ROOT}; filters are held and indexed in this form.
+     */
+    static String fold(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Same filter semantics as {@code GET /tweets}: a tweet must carry one of the tags, if any are
+     * given, and be written by one of the users, if any are given, both compared case-insensitively.
+     */
+    boolean matches(TweetResp tweet) {
+        if (!usernames.isEmpty() && !usernames.contains(fold(tweet.getCreatedBy()))) {
+            return false;
+        }
+        if (hashtags.isEmpty()) {
+            return true;
+        }
+        for (String tag : tweet.getHashTags()) {
+            if (hashtags.contains(fold(tag))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Queues a tweet without blocking; false means the buffer is full and the subscriber has fallen behind.
+     */
+    boolean offer(TweetResp tweet) {
+        return !closed && buffer.offer(tweet);
+    }
+
+    /**
+     * True if the caller must schedule a drain; at most one drain runs per subscription.
+     */
+    boolean markScheduled() {
+        return scheduled.compareAndSet(false, true);
+    }
+
+    /**
+     * Writes everything buffered to the sink, handing each send to {@code writer} and waiting at most
+     * {@code writeTimeout} for it. Returns false once the sink has failed or a send has timed out.
+     */
+    boolean drain(ExecutorService writer, Duration writeTimeout) {
+        while (true) {
+            TweetResp tweet;
+            while (!closed && (tweet = buffer.poll()) != null) {
+                if (!send(tweet, writer, writeTimeout)) {
+                    return false;
+                }
+            }
+            scheduled.set(false);
+            // A tweet offered after the poll loop but before the flag was cleared would otherwise wait for the next one.
+            if (closed || buffer.isEmpty() || !scheduled.compareAndSet(false, true)) {
+                return true;
+            }
+        }
+    }
+
+    private boolean send(TweetResp tweet, ExecutorService writer, Duration writeTimeout) {
+        Future<?> write = writer.submit(() -> {
+            sink.send(tweet);
+            return null;
+        });
+        try {
+            write.get(writeTimeout.toNanos(), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (ExecutionException | TimeoutException e) {
+            // A timed out send stays blocked on its writer thread until the container gives up on the socket.
+            write.cancel(true);
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            write.cancel(true);
+            return false;
+        }
+    }
+
+    /**
+     * True for the one caller that removes this subscription from the bus.
+     */
+    boolean unregister() {
+        return registered.compareAndSet(true, false);
+    }
+
+    /**
+     * Stops delivery without touching the sink, so it is safe on the publishing thread.
+     */
+    void markClosed() {
+        closed = true;
+        buffer.clear();
+    }
+
+    /**
+     * Closes the sink. This may wait behind a send still blocked on the client, so it never runs on
+     * the publishing thread.
+     */
+    void close() {
+        markClosed();
+        sink.close();
+    }
+
+    private static Set<String> folded(Collection<String> values) {
+        return values == null ? Set.of() : values.stream().map(TweetSubscription::fold).collect(Collectors.toUnmodifiableSet());
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.sbg.trending;
+
+import java.util.Arrays;
+
+/**
+ * Count-Min sketch over strings: {@code depth} rows of {@code width} counters. Estimates never fall
+ * below the true count and exceed it by at most {@code e / width} of the total with probability
+ * {@code 1 - e^-depth}. Not thread-safe.
+ */
+public class CountMinSketch {
+
+    private final int width;
+    private final int depth;
+    private final int[] counts;
+
+    public CountMinSketch(int width, int depth) {
+        if (width < 1 || depth < 1) {
+            throw new IllegalArgumentException("Sketch width and depth must be positive");
+        }
+        this.width = width;
+        this.depth = depth;
+        this.counts = new int[width * depth];
+    }
+
+    public void add(String key, int count) {
+        long h1 = mix(key.hashCode());
+        long h2 = mix(h1) | 1;
+        for (int row = 0; row < depth; row++) {
+            counts[row * width + column(h1 + row * h2)] += count;
+        }
+    }
+
+    public int estimate(String key) {
+        long h1 = mix(key.hashCode());
+        long h2 = mix(h1) | 1;
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counts[row * width + column(h1 + row * h2)]);
+        }
+        return min;
+    }
+
+    public void clear() {
+        Arrays.fill(counts, 0);
+    }
+
+    private int column(long hash) {
+        return (int) ((hash >>> 1) % width);
+    }
+
+    // 64-bit finalizer of MurmurHash3; the row hashes are derived from two of them (Kirsch-Mitzenmacher).
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.sbg.trending;
+
+import com.example.sbg.api.models.TrendingHashTag;
+import com.example.sbg.events.TweetCreatedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.LongSupplier;
+
+/**
+ * Streaming counts of tag usage for {@code GET /hashtags/trending}. Time is split into buckets held
+ * in a ring covering the longest supported window; each bucket has a Count-Min sketch for counts and
+ * a Space-Saving summary naming its heavy hitters, so memory is fixed whatever the number of tags.
+ * A window's ranking scores the heavy hitters of its buckets by their summed sketch estimates, which
+ * never undercount. Rankings are kept per window for the refresh interval, so a request costs O(k).
+ * Each bucket has its own lock, held by a write only for its tags and by a ranking only while it reads
+ * that bucket, so recomputing a ranking never holds up the after-commit path of {@code POST /tweets}.
+ * Deleted tweets are not subtracted: trends count how often a tag was used.
+ */
+@Component
+public class HashtagTrends {
+
+    private static final class Bucket {
+        long index = -1;
+        final CountMinSketch sketch;
+        final SpaceSaving heavyHitters;
+
+        Bucket(int width, int depth, int capacity) {
+            this.sketch = new CountMinSketch(width, depth);
+            this.heavyHitters = new SpaceSaving(capacity);
+        }
+    }
+
+    private record Ranking(long bucketIndex, long computedAt, List<TrendingHashTag> hashTags) {
+    }
+
+    private final long bucketMillis;
+    private final int maxK;
+    private final long refreshMillis;
+    private final LongSupplier clock;
+    private final Bucket[] ring;
+    // Guards rankings; never held together with a bucket lock by record.
+    private final Object rankingLock = new Object();
+    private final Map<Integer, Ranking> rankings = new HashMap<>();
+
+    @Autowired
+    public HashtagTrends(@Value("${tweeter.trending.bucket:5m}") Duration bucket,
+                         @Value("${tweeter.trending.max-window:24h}") Duration maxWindow,
+                         @Value("${tweeter.trending.sketch-width:1024}") int sketchWidth,
+                         @Value("${tweeter.trending.sketch-depth:4}") int sketchDepth,
+                         @Value("${tweeter.trending.heavy-hitters:200}") int heavyHitters,
+                         @Value("${tweeter.trending.max-k:100}") int maxK,
+                         @Value("${tweeter.trending.refresh:5s}") Duration refresh) {
+        this(bucket, maxWindow, sketchWidth, sketchDepth, heavyHitters, maxK, refresh, System::currentTimeMillis);
+    }
+
+    public HashtagTrends(Duration bucket, Duration maxWindow, int sketchWidth, int sketchDepth, int heavyHitters,
+                         int maxK, Duration refresh, LongSupplier clock) {
+        this.bucketMillis = bucket.toMillis();
+        this.maxK = maxK;
+        this.refreshMillis = refresh.toMillis();
+        this.clock = clock;
+        this.ring = new Bucket[bucketsIn(maxWindow)];
+        for (int i = 0; i < ring.length; i++) {
+            ring[i] = new Bucket(sketchWidth, sketchDepth, heavyHitters);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTweetCreated(TweetCreatedEvent event) {
+        record(event.getHashtags());
+    }
+
+    public void record(Collection<String> hashtags) {
+        if (hashtags == null || hashtags.isEmpty()) {
+            return;
+        }
+        long index = clock.getAsLong() / bucketMillis;
+        Bucket bucket = ring[(int) (index % ring.length)];
+        synchronized (bucket) {
+            if (bucket.index != index) {
+                bucket.sketch.clear();
+                bucket.heavyHitters.clear();
+                bucket.index = index;
+            }
+            for (String hashtag : hashtags) {
+                bucket.sketch.add(hashtag, 1);
+                bucket.heavyHitters.add(hashtag, 1);
+            }
+        }
+    }
+
+    /**
+     * The {@code k} most used tags over {@code window}, rounded up to whole buckets including the
+     * current one, most used first.
+     *
+     * @throws IllegalArgumentException if the window is not positive or longer than the ring, or
+     *                                  {@code k} is not between 1 and the configured maximum
+     */
+    public List<TrendingHashTag> top(Duration window, int k) {
+        if (window.isNegative() || window.isZero() || bucketsIn(window) > ring.length) {
+            throw new IllegalArgumentException("Window must be positive and at most " + Duration.ofMillis(bucketMillis * ring.length));
+        }
+        if (k < 1 || k > maxK) {
+            throw new IllegalArgumentException("k must be between 1 and " + maxK);
+        }
+        int buckets = bucketsIn(window);
+        long now = clock.getAsLong();
+        long index = now / bucketMillis;
+        Ranking ranking;
+        synchronized (rankingLock) {
+            ranking = rankings.get(buckets);
+            if (ranking == null || ranking.bucketIndex() != index || now - ranking.computedAt() >= refreshMillis) {
+                ranking = new Ranking(index, now, rank(index, buckets));
+                rankings.put(buckets, ranking);
+            }
+        }
+        return ranking.hashTags().subList(0, Math.min(k, ranking.hashTags().size()));
+    }
+
+    /**
+     * Locks one bucket at a time: first to collect its heavy hitters, then to add its estimates. A bucket
+     * that rotates in between simply drops out of the second pass.
+     */
+    private List<TrendingHashTag> rank(long index, int buckets) {
+        Set<String> candidates = new HashSet<>();
+        for (long i = index - buckets + 1; i <= index; i++) {
+            Bucket bucket = ring[(int) (Math.floorMod(i, ring.length))];
+            synchronized (bucket) {
+                if (bucket.index == i) {
+                    candidates.addAll(bucket.heavyHitters.keys());
+                }
+            }
+        }
+
+        String[] tags = candidates.toArray(new String[0]);
+        long[] counts = new long[tags.length];
+        for (long i = index - buckets + 1; i <= index; i++) {
+            Bucket bucket = ring[(int) (Math.floorMod(i, ring.length))];
+            synchronized (bucket) {
+                if (bucket.index == i) {
+                    for (int t = 0; t < tags.length; t++) {
+                        counts[t] += bucket.sketch.estimate(tags[t]);
+                    }
+                }
+            }
+        }
+        List<TrendingHashTag> scored = new ArrayList<>(tags.length);
+        for (int t = 0; t < tags.length; t++) {
+            scored.add(new TrendingHashTag(tags[t], counts[t]));
+        }
+        scored.sort(Comparator.comparingLong(TrendingHashTag::getCount).reversed().thenComparing(TrendingHashTag::getHashTag));
+        return List.copyOf(scored.subList(0, Math.min(maxK, scored.size())));
+    }
+
+    private int bucketsIn(Duration window) {
+        return (int) ((window.toMillis() + bucketMillis - 1) / bucketMillis);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.sbg.trending;
+
+import java.util.*;
+
+/**
+ * Space-Saving heavy hitters: monitors at most {@code capacity} keys. A new key evicts the key with
+ * the smallest count and inherits that count, so every key that occurred more than
+ * {@code total / capacity} times is guaranteed to be monitored. Not thread-safe.
+ */
+public class SpaceSaving {
+
+    private record Counter(String key, long count) {
+    }
+
+    private static final Comparator<Counter> BY_COUNT = Comparator.comparingLong(Counter::count).thenComparing(Counter::key);
+
+    private final int capacity;
+    private final Map<String, Counter> counters;
+    private final TreeSet<Counter> byCount = new TreeSet<>(BY_COUNT);
+
+    public SpaceSaving(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    public void add(String key, int count) {
+        Counter current = counters.get(key);
+        long base;
+        if (current != null) {
+            byCount.remove(current);
+            base = current.count();
+        } else if (counters.size() < capacity) {
+            base = 0;
+        } else {
+            Counter evicted = byCount.pollFirst();
+            counters.remove(evicted.key());
+            base = evicted.count();
+        }
+        Counter updated = new Counter(key, base + count);
+        counters.put(key, updated);
+        byCount.add(updated);
+    }
+
+    public Set<String> keys() {
+        return Collections.unmodifiableSet(counters.keySet());
+    }
+
+    public void clear() {
+        counters.clear();
+        byCount.clear();
+    }
+}
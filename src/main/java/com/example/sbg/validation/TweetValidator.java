@@ -0,0 +1,81 @@
+package com.example.sbg.validation;
+
+import com.example.sbg.exceptions.BadRequestException;
+
+import java.util.List;
+
+/**
+ * Hash tag and username checks shared by the controller and the service. A hand-written scan over
+ * {@code [a-zA-Z0-9_]} replaces {@code String.matches}, which compiles a fresh Pattern and allocates a
+ * Matcher on every call.
+ */
+public final class TweetValidator {
+
+    /**
+     * Length of the {@code hash_tag.hash_tag} column, including the leading '#'.
+     */
+    public static final int MAX_HASH_TAG_LENGTH = 20;
+
+    /**
+     * Length of the {@code tweet.username} column.
+     */
+    public static final int MAX_USERNAME_LENGTH = 255;
+
+    public static final int MAX_HASH_TAGS_PER_TWEET = 5;
+
+    private TweetValidator() {
+    }
+
+    public static boolean isValidHashTag(String tag) {
+        if (tag == null || tag.isEmpty() || tag.length() > MAX_HASH_TAG_LENGTH || tag.charAt(0) != '#') {
+            return false;
+        }
+        return isWordChars(tag, 1);
+    }
+
+    public static boolean isValidUsername(String username) {
+        return username != null && username.length() <= MAX_USERNAME_LENGTH && isWordChars(username, 0);
+    }
+
+    public static void requireValidHashTags(List<String> hashTags) {
+        if (hashTags != null) {
+            for (String tag : hashTags) {
+                if (!isValidHashTag(tag)) {
+                    throw new BadRequestException("Invalid hash tag: " + tag);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks the tags of a tweet being posted: at most {@value #MAX_HASH_TAGS_PER_TWEET}, each one valid.
+     */
+    public static void requireValidTweetHashTags(List<String> hashTags) {
+        if (hashTags != null) {
+            if (hashTags.size() > MAX_HASH_TAGS_PER_TWEET) {
+                throw new BadRequestException("Too many hash tags");
+            }
+            requireValidHashTags(hashTags);
+        }
+    }
+
+    public static void requireValidUsernames(List<String> usernames) {
+        if (usernames != null) {
+            for (String name : usernames) {
+                if (!isValidUsername(name)) {
+                    throw new BadRequestException("Invalid username: " + name);
+                }
+            }
+        }
+    }
+
+    private static boolean isWordChars(String value, int from) {
+        for (int i = from; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_')) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
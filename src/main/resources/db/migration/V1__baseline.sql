@@ -0,0 +1,27 @@
+-- Tables and constraints as hibernate ddl-auto=update created them before migrations were introduced.
+-- Databases that already have these tables are baselined at this version and skip this script; their
+-- tweet and hash_tag ids are still IDENTITY (auto_increment) columns from before ids were assigned by
+-- the application, which is harmless since every insert now supplies the id. New databases get plain ids.
+
+create table hash_tag (
+    id bigint not null,
+    hash_tag varchar(20) not null,
+    primary key (id),
+    constraint uk_9wx1xac7liuaktgh8st053sc9 unique (hash_tag)
+);
+
+create table tweet (
+    id bigint not null,
+    content varchar(255) not null,
+    created_at datetime(6) not null,
+    username varchar(255) not null,
+    primary key (id)
+);
+
+create table tweet_hashtag (
+    tweet_id bigint not null,
+    hashtag_id bigint not null,
+    primary key (tweet_id, hashtag_id),
+    constraint fk5fxvi0tkpbia5gdhxrn5rts6p foreign key (tweet_id) references tweet (id),
+    constraint fkmjkvgbba873gvwqijxkgflvlk foreign key (hashtag_id) references hash_tag (id)
+);
@@ -0,0 +1,6 @@
+-- Newest-first reads by user and unfiltered reads walk these in index order instead of sorting.
+create index idx_tweet_username_created_at_id on tweet (username, created_at desc, id desc);
+create index idx_tweet_created_at_id on tweet (created_at desc, id desc);
+
+-- Lookups from a tag to its tweets; the primary key (tweet_id, hashtag_id) only serves the reverse.
+create index idx_tweet_hashtag_hashtag_id_tweet_id on tweet_hashtag (hashtag_id, tweet_id);
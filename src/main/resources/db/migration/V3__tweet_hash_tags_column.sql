@@ -0,0 +1,7 @@
+-- Denormalized tag names, so timeline and all-tweets pages read only the tweet table.
+alter table tweet add column hash_tags varchar(128);
+
+update tweet t set hash_tags = coalesce(
+        (select group_concat(h.hash_tag order by h.hash_tag separator ',')
+         from tweet_hashtag th join hash_tag h on h.id = th.hashtag_id
+         where th.tweet_id = t.id), '');
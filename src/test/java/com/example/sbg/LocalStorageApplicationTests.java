@@ -0,0 +1,46 @@
+package com.example.sbg;
+
+import com.example.sbg.services.ITweeterService;
+import com.example.sbg.services.implementation.LocalTweetService;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+// The datasource points at a closed port: the local storage mode must start without touching it.
+@SpringBootTest(properties = {
+		"tweeter.storage=local",
+		"spring.datasource.url=jdbc:mysql://localhost:1/tweeter"
+})
+class LocalStorageApplicationTests {
+
+	@Autowired
+	private ApplicationContext context;
+
+	@DynamicPropertySource
+	static void storageDirectory(DynamicPropertyRegistry registry) throws IOException {
+		String directory = Files.createTempDirectory("tweeter-local").toString();
+		registry.add("tweeter.storage.local.directory", () -> directory);
+	}
+
+	// Local storage should serve tweets from the embedded store without a DataSource, JPA or Flyway
+	@Test
+	void localStorageHasNoJdbcStack() {
+		assertInstanceOf(LocalTweetService.class, context.getBean(ITweeterService.class));
+		assertEquals(0, context.getBeanNamesForType(DataSource.class).length);
+		assertEquals(0, context.getBeanNamesForType(EntityManagerFactory.class).length);
+		assertEquals(0, context.getBeanNamesForType(Flyway.class).length);
+	}
+
+}
@@ -1,13 +1,29 @@
 package com.example.sbg;
 
+import com.example.sbg.services.IReactiveTweeterService;
+import io.r2dbc.spi.ConnectionFactory;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @SpringBootTest
 class TweeterApplicationTests {
 
+	@Autowired
+	private ApplicationContext context;
+
 	@Test
 	void contextLoads() {
 	}
 
+	// The default servlet mode should not create the reactive service or connect over R2DBC
+	@Test
+	void servletModeHasNoReactiveStack() {
+		assertEquals(0, context.getBeanNamesForType(IReactiveTweeterService.class).length);
+		assertEquals(0, context.getBeanNamesForType(ConnectionFactory.class).length);
+	}
+
 }
@@ -0,0 +1,227 @@
+package com.example.sbg.cache;
+
+import com.example.sbg.events.TweetCreatedEvent;
+import com.example.sbg.model.HashTag;
+import com.example.sbg.model.Tweet;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class TweetPageCacheFilterTest {
+
+    private static MockHttpServletRequest get(String hashtags, String usernames) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tweets");
+        request.addHeader("X-Username", "reader");
+        if (hashtags != null) {
+            request.addParameter("hashTag", hashtags);
+        }
+        if (usernames != null) {
+            request.addParameter("usernames", usernames);
+        }
+        return request;
+    }
+
+    /**
+     * Stands in for the controller: renders a body counting the calls, under the current page ETag.
+     */
+    private static FilterChain controller(TweetPageVersions versions, AtomicInteger calls) {
+        return (request, response) -> {
+            calls.incrementAndGet();
+            List<String> hashtags = request.getParameter("hashTag") == null ? List.of() : List.of(request.getParameter("hashTag").split(","));
+            List<String> usernames = request.getParameter("usernames") == null ? List.of() : List.of(request.getParameter("usernames").split(","));
+            HttpServletResponse httpResponse = (HttpServletResponse) response;
+            httpResponse.setHeader("ETag", versions.eTag(hashtags, usernames));
+            httpResponse.setContentType("application/json");
+            httpResponse.getOutputStream().write(("{\"call\":" + calls.get() + "}").getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    private static TweetCreatedEvent created(String username, String... hashtags) {
+        Tweet tweet = new Tweet();
+        tweet.setId(1L);
+        tweet.setUsername(username);
+        tweet.setContent("content");
+        tweet.setHashtags(Arrays.stream(hashtags).map(tag -> {
+            HashTag hashTag = new HashTag();
+            hashTag.setHashTag(tag);
+            return hashTag;
+        }).collect(Collectors.toSet()));
+        tweet.setCreatedAt(LocalDateTime.now());
+        return new TweetCreatedEvent(tweet);
+    }
+
+    private static String fetch(TweetPageCacheFilter filter, FilterChain chain, MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        assertEquals(200, response.getStatus());
+        assertNotNull(response.getHeader("ETag"));
+        return response.getContentAsString();
+    }
+
+    // Equivalent queries should be served from the cached bytes without reaching the controller
+    @Test
+    public void test_normalized_queries_share_cached_page() throws Exception {
+        // Arrange
+        TweetPageVersions versions = new TweetPageVersions();
+        TweetPageCache cache = new TweetPageCache(new SimpleMeterRegistry(), DataSize.ofMegabytes(1), Duration.ofMinutes(10), Duration.ZERO);
+        TweetPageCacheFilter filter = new TweetPageCacheFilter(cache, true);
+        AtomicInteger calls = new AtomicInteger();
+        FilterChain chain = controller(versions, calls);
+
+        // Act
+        String first = fetch(filter, chain, get("#b,#a", "bob,alice"));
+        String second = fetch(filter, chain, get("#a,#b,#a", "alice,bob"));
+        MockHttpServletRequest anonymous = get("#a,#b", "alice,bob");
+        anonymous.removeHeader("X-Username");
+        filter.doFilter(anonymous, new MockHttpServletResponse(), chain);
+
+        // Assert
+        assertEquals(first, second);
+        assertEquals(2, calls.get());
+        assertEquals(1, cache.size());
+    }
+
+    // A write should drop only the pages its tweet could appear on
+    @Test
+    public void test_writes_invalidate_intersecting_pages_only() throws Exception {
+        // Arrange
+        TweetPageVersions versions = new TweetPageVersions();
+        TweetPageCache cache = new TweetPageCache(new SimpleMeterRegistry(), DataSize.ofMegabytes(1), Duration.ofMinutes(10), Duration.ZERO);
+        TweetPageCacheFilter filter = new TweetPageCacheFilter(cache, true);
+        AtomicInteger calls = new AtomicInteger();
+        FilterChain chain = controller(versions, calls);
+        List<MockHttpServletRequest> pages = List.of(get(null, null), get("#java", null), get("#go", null), get(null, "alice"), get("#java", "bob"));
+        for (MockHttpServletRequest page : pages) {
+            fetch(filter, chain, page);
+        }
+
+        // Act
+        TweetCreatedEvent event = created("alice", "#java");
+        versions.onTweetCreated(event);
+        cache.onTweetCreated(event);
+
+        // Assert
+        assertEquals(2, cache.size());
+        calls.set(0);
+        for (MockHttpServletRequest page : pages) {
+            fetch(filter, chain, page);
+        }
+        assertEquals(3, calls.get());
+    }
+
+    // A write should drop pages filtering on its tags and author in another case, as the database matches them
+    @Test
+    public void test_writes_invalidate_pages_ignoring_case() throws Exception {
+        // Arrange
+        TweetPageVersions versions = new TweetPageVersions();
+        TweetPageCache cache = new TweetPageCache(new SimpleMeterRegistry(), DataSize.ofMegabytes(1), Duration.ofMinutes(10), Duration.ZERO);
+        TweetPageCacheFilter filter = new TweetPageCacheFilter(cache, true);
+        AtomicInteger calls = new AtomicInteger();
+        FilterChain chain = controller(versions, calls);
+        fetch(filter, chain, get("#Java", null));
+        fetch(filter, chain, get(null, "Alice"));
+        TweetPageCache.PageKey key = TweetPageCache.PageKey.of(List.of("#JAVA"), List.of(), null, 0, 10);
+        long stamp = cache.stamp(key);
+
+        // Act
+        TweetCreatedEvent event = created("alice", "#java");
+        versions.onTweetCreated(event);
+        cache.onTweetCreated(event);
+        cache.put(key, new TweetPageCache.CachedPage(new byte[0], "\"0\""), stamp);
+
+        // Assert
+        assertEquals(0, cache.size());
+    }
+
+    // A page rendered while a matching write commits should not be cached
+    @Test
+    public void test_page_rendered_across_a_write_is_not_kept() throws Exception {
+        // Arrange
+        TweetPageVersions versions = new TweetPageVersions();
+        TweetPageCache cache = new TweetPageCache(new SimpleMeterRegistry(), DataSize.ofMegabytes(1), Duration.ofMinutes(10), Duration.ZERO);
+        TweetPageCacheFilter filter = new TweetPageCacheFilter(cache, true);
+        AtomicInteger calls = new AtomicInteger();
+        FilterChain render = controller(versions, calls);
+        FilterChain racing = (request, response) -> {
+            render.doFilter(request, response);
+            TweetCreatedEvent event = created("alice", "#java");
+            versions.onTweetCreated(event);
+            cache.onTweetCreated(event);
+        };
+
+        // Act
+        fetch(filter, racing, get("#java", null));
+
+        // Assert
+        assertEquals(0, cache.size());
+    }
+
+    // With micro-caching, writes are ignored and pages are served until the short TTL passes
+    @Test
+    public void test_micro_caching_serves_until_ttl() throws Exception {
+        // Arrange
+        AtomicLong nanos = new AtomicLong();
+        TweetPageVersions versions = new TweetPageVersions();
+        TweetPageCache cache = new TweetPageCache(new SimpleMeterRegistry(), DataSize.ofMegabytes(1), Duration.ofMinutes(10), Duration.ofSeconds(1), Duration.ZERO, nanos::get);
+        TweetPageCacheFilter filter = new TweetPageCacheFilter(cache, true);
+        AtomicInteger calls = new AtomicInteger();
+        FilterChain chain = controller(versions, calls);
+        fetch(filter, chain, get("#java", null));
+
+        // Act
+        TweetCreatedEvent event = created("alice", "#java");
+        versions.onTweetCreated(event);
+        cache.onTweetCreated(event);
+        String stale = fetch(filter, chain, get("#java", null));
+        nanos.addAndGet(Duration.ofMillis(1500).toNanos());
+        String fresh = fetch(filter, chain, get("#java", null));
+
+        // Assert
+        assertEquals("{\"call\":1}", stale);
+        assertEquals("{\"call\":2}", fresh);
+    }
+
+    // With read replicas, pages depending on a write younger than the replica lag should not be cached
+    @Test
+    public void test_pages_are_not_cached_within_replica_lag() throws Exception {
+        // Arrange
+        AtomicLong nanos = new AtomicLong(Duration.ofSeconds(1).toNanos());
+        TweetPageVersions versions = new TweetPageVersions();
+        TweetPageCache cache = new TweetPageCache(new SimpleMeterRegistry(), DataSize.ofMegabytes(1), Duration.ofMinutes(10), Duration.ZERO, Duration.ofSeconds(5), nanos::get);
+        TweetPageCacheFilter filter = new TweetPageCacheFilter(cache, true);
+        AtomicInteger calls = new AtomicInteger();
+        FilterChain chain = controller(versions, calls);
+        TweetCreatedEvent event = created("alice", "#java");
+        versions.onTweetCreated(event);
+        cache.onTweetCreated(event);
+
+        // Act
+        fetch(filter, chain, get("#java", null));
+        fetch(filter, chain, get("#java", null));
+        fetch(filter, chain, get("#kotlin", null));
+        fetch(filter, chain, get("#kotlin", null));
+        nanos.addAndGet(Duration.ofSeconds(6).toNanos());
+        fetch(filter, chain, get("#java", null));
+        fetch(filter, chain, get("#java", null));
+
+        // Assert
+        assertEquals(4, calls.get());
+        assertEquals(2, cache.size());
+    }
+}
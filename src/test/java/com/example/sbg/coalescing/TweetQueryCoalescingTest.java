@@ -0,0 +1,162 @@
+package com.example.sbg.coalescing;
+
+import com.example.sbg.api.models.TweetCursor;
+import com.example.sbg.api.models.TweetsPageResp;
+import com.example.sbg.cache.TweetPageVersions;
+import com.example.sbg.events.TweetCreatedEvent;
+import com.example.sbg.exceptions.ServiceUnavailableException;
+import com.example.sbg.model.Tweet;
+import com.example.sbg.services.ITweeterService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class TweetQueryCoalescingTest {
+
+    private static final List<String> CELEBRITY = List.of("celebrity");
+
+    private static ITweeterService coalesced(ITweeterService target, TweetPageVersions versions, MeterRegistry meterRegistry) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(new TweetQueryCoalescing(versions, meterRegistry, true));
+        return factory.getProxy();
+    }
+
+    /**
+     * Starts {@code threads} callers at the same instant and collects what each one got back.
+     */
+    private static <T> List<Future<T>> race(int threads, Callable<T> call) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<T>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            results.add(executor.submit(() -> {
+                ready.countDown();
+                start.await();
+                return call.call();
+            }));
+        }
+        ready.await();
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        return results;
+    }
+
+    private static TweetCreatedEvent created(String username) {
+        Tweet tweet = new Tweet();
+        tweet.setId(1L);
+        tweet.setUsername(username);
+        tweet.setContent("content");
+        tweet.setCreatedAt(LocalDateTime.now());
+        return new TweetCreatedEvent(tweet);
+    }
+
+    // Hundreds of identical concurrent reads should share a handful of executions and all get the same page
+    @Test
+    public void test_concurrent_identical_reads_share_one_call() throws Exception {
+        // Arrange
+        ITweeterService target = Mockito.mock(ITweeterService.class);
+        AtomicInteger executions = new AtomicInteger();
+        Mockito.when(target.getTweetsByUsernames(CELEBRITY, TweetCursor.FIRST, 50)).thenAnswer(invocation -> {
+            executions.incrementAndGet();
+            Thread.sleep(200);
+            return new TweetsPageResp(List.of(), null);
+        });
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ITweeterService service = coalesced(target, new TweetPageVersions(), meterRegistry);
+
+        // Act
+        List<Future<TweetsPageResp>> results = race(200, () -> service.getTweetsByUsernames(CELEBRITY, TweetCursor.FIRST, 50));
+
+        // Assert
+        Set<TweetsPageResp> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Future<TweetsPageResp> result : results) {
+            distinct.add(result.get());
+        }
+        assertTrue(executions.get() <= 5, executions.get() + " executions for 200 identical reads");
+        assertEquals(executions.get(), distinct.size());
+        double leaders = meterRegistry.get("tweeter.coalescing.calls").tag("role", "leader").counter().count();
+        double followers = meterRegistry.get("tweeter.coalescing.calls").tag("role", "follower").counter().count();
+        assertEquals(executions.get(), leaders);
+        assertEquals(200, leaders + followers);
+        assertTrue(meterRegistry.get("tweeter.coalescing.ratio").gauge().value() >= 0.97);
+        assertEquals(0, meterRegistry.get("tweeter.coalescing.in-flight").gauge().value());
+    }
+
+    // Followers should receive the leader's exception, and the next call should start afresh
+    @Test
+    public void test_failures_are_shared_and_not_cached() throws Exception {
+        // Arrange
+        ITweeterService target = Mockito.mock(ITweeterService.class);
+        AtomicInteger executions = new AtomicInteger();
+        Mockito.when(target.getAllTweets(TweetCursor.FIRST, 10)).thenAnswer(invocation -> {
+            if (executions.incrementAndGet() == 1) {
+                Thread.sleep(200);
+                throw new ServiceUnavailableException("Database unavailable");
+            }
+            return new TweetsPageResp(List.of(), null);
+        });
+        ITweeterService service = coalesced(target, new TweetPageVersions(), new SimpleMeterRegistry());
+
+        // Act
+        List<Future<TweetsPageResp>> results = race(50, () -> service.getAllTweets(TweetCursor.FIRST, 10));
+
+        // Assert
+        for (Future<TweetsPageResp> result : results) {
+            ExecutionException e = assertThrows(ExecutionException.class, result::get);
+            assertInstanceOf(ServiceUnavailableException.class, e.getCause());
+        }
+        assertNotNull(service.getAllTweets(TweetCursor.FIRST, 10));
+        assertEquals(2, executions.get());
+    }
+
+    // A read arriving after a matching write should not join a read that started before it, other reads should
+    @Test
+    public void test_matching_write_starts_a_new_flight() throws Exception {
+        // Arrange
+        ITweeterService target = Mockito.mock(ITweeterService.class);
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(target.getTweetsByUsernames(Mockito.anyList(), Mockito.any(TweetCursor.class), Mockito.anyInt())).thenAnswer(invocation -> {
+            if (executions.incrementAndGet() == 1) {
+                leaderStarted.countDown();
+                release.await();
+            }
+            return new TweetsPageResp(List.of(), null);
+        });
+        TweetPageVersions versions = new TweetPageVersions();
+        ITweeterService service = coalesced(target, versions, new SimpleMeterRegistry());
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<TweetsPageResp> leader = executor.submit(() -> service.getTweetsByUsernames(CELEBRITY, TweetCursor.FIRST, 50));
+        leaderStarted.await();
+
+        // Act
+        versions.onTweetCreated(created("someone-else"));
+        Future<TweetsPageResp> follower = executor.submit(() -> service.getTweetsByUsernames(CELEBRITY, TweetCursor.FIRST, 50));
+        Thread.sleep(100);
+        int executionsBeforeWrite = executions.get();
+        versions.onTweetCreated(created("celebrity"));
+        TweetsPageResp afterWrite = service.getTweetsByUsernames(CELEBRITY, TweetCursor.FIRST, 50);
+        release.countDown();
+
+        // Assert
+        assertSame(leader.get(), follower.get());
+        assertNotSame(leader.get(), afterWrite);
+        assertEquals(1, executionsBeforeWrite);
+        assertEquals(2, executions.get());
+        executor.shutdown();
+    }
+}
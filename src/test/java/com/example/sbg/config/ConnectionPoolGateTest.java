@@ -0,0 +1,40 @@
+package com.example.sbg.config;
+
+import com.example.sbg.exceptions.ServiceUnavailableException;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class ConnectionPoolGateTest {
+
+    // preHandle should reject requests beyond the pool size and admit them again once a permit is released
+    @Test
+    public void test_gate_rejects_when_pool_is_exhausted() throws Exception {
+        // Arrange
+        ConnectionPoolGate gate = new ConnectionPoolGate(2, Duration.ofMillis(20));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tweets");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        boolean first = gate.preHandle(request, response, null);
+        boolean second = gate.preHandle(request, response, null);
+
+        // Assert
+        assertTrue(first);
+        assertTrue(second);
+        assertEquals(0, gate.availablePermits());
+        assertThrows(ServiceUnavailableException.class, () -> gate.preHandle(request, response, null));
+
+        // Act
+        gate.afterCompletion(request, response, null, null);
+
+        // Assert
+        assertTrue(gate.preHandle(request, response, null));
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.sbg.config;
+
+import com.example.sbg.api.models.TweetCursor;
+import com.example.sbg.api.models.TweetResp;
+import com.example.sbg.services.ITweeterService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The search and tag indexes are off so no background read moves the replicas' round-robin.
+@SpringBootTest(properties = {
+        "tweeter.search.enabled=false",
+        "tweeter.hashtag-index.enabled=false"
+})
+public class ReadWriteRoutingDataSourceTest {
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    @Autowired
+    private ITweeterService tweeterService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Points the application's replicas at two in-memory H2 databases, migrated before the context
+     * starts and each holding one tweet whose content names the database.
+     */
+    @DynamicPropertySource
+    static void readReplicas(DynamicPropertyRegistry registry) {
+        String urls = Stream.of("jpa_replica_a", "jpa_replica_b")
+                .map(ReadWriteRoutingDataSourceTest::migratedServer)
+                .collect(Collectors.joining(","));
+        registry.add("tweeter.read-replicas.urls", () -> urls);
+    }
+
+    private static String migratedServer(String name) {
+        String url = "jdbc:h2:mem:routing_" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+        Flyway.configure().dataSource(url, "sa", "").load().migrate();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+        jdbcTemplate.update("DELETE FROM tweet");
+        jdbcTemplate.update("INSERT INTO tweet (id, content, created_at, username, hash_tags) VALUES (?, ?, ?, ?, '')",
+                1L, name, LocalDateTime.of(2024, 5, 1, 10, 0), "reader");
+        return url;
+    }
+
+    /**
+     * An in-memory H2 database standing in for one MySQL server, with a table naming it.
+     */
+    private HikariDataSource server(String name) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:routing_" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        pool.setUsername("sa");
+        pool.setMaximumPoolSize(4);
+        pools.add(pool);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(pool);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS server (name VARCHAR(32))");
+        jdbcTemplate.update("DELETE FROM server");
+        jdbcTemplate.update("INSERT INTO server (name) VALUES (?)", name);
+        return pool;
+    }
+
+    private static String serverName(DataSource dataSource, boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status -> new JdbcTemplate(dataSource).queryForObject("SELECT name FROM server", String.class));
+    }
+
+    @AfterEach
+    public void close() {
+        ReadWriteRoutingDataSource.unpin();
+        pools.forEach(HikariDataSource::close);
+    }
+
+    // Read-only transactions should go to the replicas in turn and read-write ones to the primary
+    @Test
+    public void test_read_only_transactions_use_replicas_round_robin() {
+        // Arrange
+        HikariDataSource primary = server("primary");
+        ReadReplicas replicas = new ReadReplicas(List.of(server("replica_a"), server("replica_b")), ReplicaSelection.ROUND_ROBIN);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replicas));
+
+        // Act
+        List<String> reads = List.of(serverName(dataSource, true), serverName(dataSource, true), serverName(dataSource, true));
+        String write = serverName(dataSource, false);
+
+        // Assert
+        assertEquals(List.of("replica_a", "replica_b", "replica_a"), reads);
+        assertEquals("primary", write);
+    }
+
+    // Least-busy selection should skip a replica whose pool has connections in use
+    @Test
+    public void test_least_busy_avoids_replica_with_active_connections() throws Exception {
+        // Arrange
+        HikariDataSource primary = server("primary");
+        HikariDataSource busy = server("replica_a");
+        ReadReplicas replicas = new ReadReplicas(List.of(busy, server("replica_b")), ReplicaSelection.LEAST_BUSY);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replicas));
+
+        try (Connection held = busy.getConnection()) {
+            // Act
+            List<String> reads = List.of(serverName(dataSource, true), serverName(dataSource, true), serverName(dataSource, true));
+
+            // Assert
+            assertEquals(List.of("replica_b", "replica_b", "replica_b"), reads);
+        }
+    }
+
+    // A user who wrote within the window should have their reads pinned to the primary until the request completes
+    @Test
+    public void test_recent_writer_reads_from_primary() throws Exception {
+        // Arrange
+        HikariDataSource primary = server("primary");
+        ReadReplicas replicas = new ReadReplicas(List.of(server("replica_a")), ReplicaSelection.ROUND_ROBIN);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replicas));
+        ReadYourWritesWindow window = new ReadYourWritesWindow(Duration.ofSeconds(5), 100);
+        window.recordWrite("alice");
+        MockHttpServletRequest alice = new MockHttpServletRequest("GET", "/tweets");
+        alice.addHeader("X-Username", "alice");
+        MockHttpServletRequest bob = new MockHttpServletRequest("GET", "/tweets");
+        bob.addHeader("X-Username", "bob");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        window.preHandle(alice, response, null);
+        String aliceRead = serverName(dataSource, true);
+        window.afterCompletion(alice, response, null, null);
+        window.preHandle(bob, response, null);
+        String bobRead = serverName(dataSource, true);
+        window.afterCompletion(bob, response, null, null);
+
+        // Assert
+        assertEquals("primary", aliceRead);
+        assertEquals("replica_a", bobRead);
+        assertFalse(ReadWriteRoutingDataSource.isPinnedToPrimary());
+    }
+
+    // A read-only TweetService read should reach the replicas through the JPA transaction manager and Hibernate
+    @Test
+    public void test_read_only_service_reads_use_replicas_through_jpa() {
+        // Arrange
+        Set<String> expected = Set.of("jpa_replica_a", "jpa_replica_b");
+
+        // Act
+        Set<String> served = new HashSet<>();
+        for (int i = 0; i < 2; i++) {
+            List<TweetResp> tweets = tweeterService.getAllTweets(TweetCursor.FIRST, 10).getTweets();
+            assertEquals(1, tweets.size());
+            served.add(tweets.get(0).getTweetBody());
+        }
+
+        // Assert
+        assertInstanceOf(JpaTransactionManager.class, transactionManager);
+        assertEquals(expected, served);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.sbg.controllers;
+
+import com.example.sbg.api.models.TrendingHashTag;
+import com.example.sbg.api.models.TrendingHashTagsResp;
+import com.example.sbg.exceptions.BadRequestException;
+import com.example.sbg.trending.HashtagTrends;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+
+@SpringBootTest
+public class HashtagControllerTests {
+
+    private final HashtagTrends hashtagTrends = new HashtagTrends(Duration.ofMinutes(5), Duration.ofHours(24), 256, 4, 50, 100, Duration.ZERO, System::currentTimeMillis);
+
+    // Get trending hash tags for a window given in the short duration format
+    @Test
+    public void get_trending_successfully() {
+        // Arrange
+        HashtagController controller = new HashtagController(hashtagTrends);
+        hashtagTrends.record(List.of("#java", "#spring"));
+        hashtagTrends.record(List.of("#java"));
+
+        // Act
+        ResponseEntity<TrendingHashTagsResp> response = controller.getTrending("user", "1h", 1);
+
+        // Assert
+        assertEquals("", HttpStatus.OK, response.getStatusCode());
+        assertEquals("", List.of(new TrendingHashTag("#java", 2)), response.getBody().getHashTags());
+    }
+
+    // Reject windows that cannot be parsed or exceed the tracked range, and k out of range
+    @Test
+    public void get_trending_rejects_invalid_parameters() {
+        // Arrange
+        HashtagController controller = new HashtagController(hashtagTrends);
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> controller.getTrending("user", "an hour", 20));
+        assertThrows(BadRequestException.class, () -> controller.getTrending("user", "7d", 20));
+        assertThrows(BadRequestException.class, () -> controller.getTrending("user", "1h", 101));
+        assertThrows(BadRequestException.class, () -> controller.getTrending("", "1h", 20));
+    }
+}
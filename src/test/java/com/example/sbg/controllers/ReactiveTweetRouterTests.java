@@ -0,0 +1,97 @@
+package com.example.sbg.controllers;
+
+import com.example.sbg.api.models.PostTweetReq;
+import com.example.sbg.api.models.TweetCursor;
+import com.example.sbg.api.models.TweetResp;
+import com.example.sbg.exceptions.ResourceNotFoundException;
+import com.example.sbg.services.IReactiveTweeterService;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+public class ReactiveTweetRouterTests {
+
+    private static WebTestClient client(IReactiveTweeterService tweeterService) {
+        return WebTestClient.bindToRouterFunction(new ReactiveTweetRouter().tweetRoutes(new ReactiveTweetHandler(tweeterService))).build();
+    }
+
+    private static TweetResp tweetResp(long id) {
+        return new TweetResp(String.valueOf(id), "Hello " + id, List.of("#test"), "user", "2024-05-01T10:00:00." + String.format("%06d", id));
+    }
+
+    // POST /tweets should create a tweet and answer 201 with the tweet
+    @Test
+    public void create_tweet_successfully() {
+        // Arrange
+        IReactiveTweeterService tweeterService = Mockito.mock(IReactiveTweeterService.class);
+        Mockito.when(tweeterService.createTweet("user", "Hello World!", List.of("#test"))).thenReturn(Mono.just(tweetResp(1)));
+
+        // Act & Assert
+        client(tweeterService).post().uri("/tweets")
+                .header("X-Username", "user")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new PostTweetReq("Hello World!", List.of("#test")))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody().jsonPath("$.tweetId").isEqualTo("1");
+    }
+
+    // GET /tweets should fetch one extra row and link the next page with a cursor after the last tweet
+    @Test
+    public void get_tweets_links_next_page_with_cursor() {
+        // Arrange
+        IReactiveTweeterService tweeterService = Mockito.mock(IReactiveTweeterService.class);
+        Mockito.when(tweeterService.getTweetsByUsernames(List.of("user"), TweetCursor.FIRST, 3))
+                .thenReturn(Flux.just(tweetResp(3), tweetResp(2), tweetResp(1)));
+        String nextCursor = TweetCursor.after(tweetResp(2)).encode();
+
+        // Act & Assert
+        client(tweeterService).get().uri("/tweets?usernames=user&limit=2")
+                .header("X-Username", "user")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.tweets.length()").isEqualTo(2)
+                .jsonPath("$.nextPage").value(nextPage -> assertTrue(((String) nextPage).endsWith("cursor=" + nextCursor)));
+    }
+
+    // GET /tweets should answer 400 with the error body for an invalid hash tag
+    @Test
+    public void get_tweets_rejects_invalid_hash_tag() {
+        // Arrange
+        IReactiveTweeterService tweeterService = Mockito.mock(IReactiveTweeterService.class);
+
+        // Act & Assert
+        client(tweeterService).get().uri("/tweets?hashTag=nohash")
+                .header("X-Username", "user")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.errorCode").isEqualTo(101)
+                .jsonPath("$.message").isEqualTo("Invalid hash tag: nohash");
+    }
+
+    // DELETE /tweets/{id} should answer 404 when the service refuses the delete
+    @Test
+    public void delete_tweet_not_authorized() {
+        // Arrange
+        IReactiveTweeterService tweeterService = Mockito.mock(IReactiveTweeterService.class);
+        Mockito.when(tweeterService.deleteTweet(1L, "other"))
+                .thenReturn(Mono.error(new ResourceNotFoundException("You are not authorized to delete this tweet")));
+
+        // Act & Assert
+        client(tweeterService).delete().uri("/tweets/1")
+                .header("X-Username", "other")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
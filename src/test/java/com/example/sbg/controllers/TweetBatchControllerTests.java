@@ -0,0 +1,105 @@
+package com.example.sbg.controllers;
+
+import com.example.sbg.api.models.BatchTweetResult;
+import com.example.sbg.api.models.BatchTweetsResp;
+import com.example.sbg.api.models.PostTweetReq;
+import com.example.sbg.services.ITweeterService;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest
+public class TweetBatchControllerTests {
+
+    // Create tweets from a JSON array body, forwarding every item to the service
+    @Test
+    public void create_tweets_from_json_array() throws Exception {
+        // Arrange
+        ITweeterService tweeterService = mockBatchService();
+        TweetBatchController controller = new TweetBatchController(tweeterService, Jackson2ObjectMapperBuilder.json().build());
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContent("""
+                [{"tweetBody": "First", "hashTags": ["#a"]},
+                 {"tweetBody": "Second", "hashTags": []}]""".getBytes());
+
+        // Act
+        ResponseEntity<BatchTweetsResp> response = controller.createTweets("user", request);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(2, response.getBody().getCreated());
+        assertEquals(0, response.getBody().getFailed());
+    }
+
+    // Create tweets from an NDJSON body, keeping accepted items when a later line is malformed
+    @Test
+    public void create_tweets_from_ndjson_with_malformed_item() throws Exception {
+        // Arrange
+        ITweeterService tweeterService = mockBatchService();
+        TweetBatchController controller = new TweetBatchController(tweeterService, Jackson2ObjectMapperBuilder.json().build());
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContent("""
+                {"tweetBody": "First", "hashTags": ["#a"]}
+                {"tweetBody": "Second", "hashTags": ["#b"]}
+                {"tweetBody": oops}
+                """.getBytes());
+
+        // Act
+        ResponseEntity<BatchTweetsResp> response = controller.createTweets("user", request);
+
+        // Assert
+        assertNotNull(response.getBody());
+        assertEquals(2, response.getBody().getCreated());
+        assertEquals(1, response.getBody().getFailed());
+        assertEquals(2, response.getBody().getResults().get(2).getIndex());
+    }
+
+    // Items beyond one chunk should be handed to the service in several chunks with continuous indexes
+    @Test
+    public void create_tweets_in_chunks() throws Exception {
+        // Arrange
+        ITweeterService tweeterService = mockBatchService();
+        TweetBatchController controller = new TweetBatchController(tweeterService, Jackson2ObjectMapperBuilder.json().build());
+        StringBuilder body = new StringBuilder();
+        int total = TweetBatchController.CHUNK_SIZE + 3;
+        for (int i = 0; i < total; i++) {
+            body.append("{\"tweetBody\": \"Tweet ").append(i).append("\", \"hashTags\": []}\n");
+        }
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContent(body.toString().getBytes());
+
+        // Act
+        ResponseEntity<BatchTweetsResp> response = controller.createTweets("user", request);
+
+        // Assert
+        assertNotNull(response.getBody());
+        assertEquals(total, response.getBody().getCreated());
+        assertEquals(total - 1, response.getBody().getResults().get(total - 1).getIndex());
+        Mockito.verify(tweeterService, Mockito.times(2)).createTweets(Mockito.eq("user"), Mockito.anyList(), Mockito.anyInt());
+    }
+
+    private static ITweeterService mockBatchService() {
+        ITweeterService tweeterService = Mockito.mock(ITweeterService.class);
+        Mockito.when(tweeterService.createTweets(Mockito.eq("user"), Mockito.anyList(), Mockito.anyInt())).thenAnswer(invocation -> {
+            List<PostTweetReq> chunk = invocation.getArgument(1);
+            int firstIndex = invocation.getArgument(2);
+            List<BatchTweetResult> results = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                results.add(new BatchTweetResult(firstIndex + i, HttpStatus.CREATED.value(), String.valueOf(firstIndex + i), null));
+            }
+            return results;
+        });
+        return tweeterService;
+    }
+}
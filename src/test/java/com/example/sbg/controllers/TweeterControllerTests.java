@@ -1,6 +1,11 @@
 package com.example.sbg.controllers;
 
 import com.example.sbg.api.models.PostTweetReq;
+import com.example.sbg.api.models.TweetCursor;
+import com.example.sbg.api.models.TweetsPageResp;
+import com.example.sbg.cache.TweetPageVersions;
+import com.example.sbg.events.TweetCreatedEvent;
+import com.example.sbg.events.TweetDeletedEvent;
 import com.example.sbg.exceptions.BadRequestException;
 import com.example.sbg.model.HashTag;
 import com.example.sbg.model.Tweet;
@@ -15,7 +20,9 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.springframework.test.util.AssertionErrors.assertEquals;
 
@@ -86,4 +93,118 @@ public class TweeterControllerTests {
         // Act & Assert
         assertThrows(BadRequestException.class, () -> controller.deleteTweet("", "1"));
     }
+
+    // Get tweets returns an ETag and answers 304 without querying when If-None-Match still matches
+    @Test
+    public void get_tweets_not_modified_when_etag_matches() {
+        // Arrange
+        ITweeterService tweeterService = Mockito.mock(ITweeterService.class);
+        TweeterController controller = new TweeterController(tweeterService, new TweetPageVersions());
+        Mockito.when(tweeterService.getTweetsByUsernames(List.of("user"), TweetCursor.FIRST, 50))
+                .thenReturn(new TweetsPageResp(List.of(), null));
+        String eTag = controller.getTweets("user", null, List.of("user"), 50, 0, null, null).getHeaders().getETag();
+
+        // Act
+        ResponseEntity<TweetsPageResp> response = controller.getTweets("user", null, List.of("user"), 50, 0, null, "W/" + eTag);
+
+        // Assert
+        assertNotNull(eTag);
+        assertEquals("", HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+        Mockito.verify(tweeterService, Mockito.times(1)).getTweetsByUsernames(List.of("user"), TweetCursor.FIRST, 50);
+    }
+
+    // Get tweets changes the ETag only when a tweet matching the page filters is created or deleted
+    @Test
+    public void get_tweets_etag_changes_with_matching_writes() {
+        // Arrange
+        ITweeterService tweeterService = Mockito.mock(ITweeterService.class);
+        TweetPageVersions versions = new TweetPageVersions();
+        TweeterController controller = new TweeterController(tweeterService, versions);
+        Mockito.when(tweeterService.getTweetsByHashtags(List.of("#java"), TweetCursor.FIRST, 50))
+                .thenReturn(new TweetsPageResp(List.of(), null));
+        String before = controller.getTweets("user", List.of("#java"), null, 50, 0, null, null).getHeaders().getETag();
+
+        // Act
+        versions.onTweetCreated(new TweetCreatedEvent(tweet(1L, "other", "#spring")));
+        String afterUnrelated = controller.getTweets("user", List.of("#java"), null, 50, 0, null, null).getHeaders().getETag();
+        versions.onTweetDeleted(new TweetDeletedEvent(tweet(2L, "other", "#java")));
+        String afterMatching = controller.getTweets("user", List.of("#java"), null, 50, 0, null, before).getHeaders().getETag();
+
+        // Assert
+        assertEquals("", before, afterUnrelated);
+        assertNotEquals(before, afterMatching);
+    }
+
+    // Get tweets changes the ETag for a write whose tag or username differs from the filter only in case
+    @Test
+    public void get_tweets_etag_ignores_case() {
+        // Arrange
+        ITweeterService tweeterService = Mockito.mock(ITweeterService.class);
+        TweetPageVersions versions = new TweetPageVersions();
+        TweeterController controller = new TweeterController(tweeterService, versions);
+        Mockito.when(tweeterService.getTweetsByHashtags(List.of("#News"), TweetCursor.FIRST, 50))
+                .thenReturn(new TweetsPageResp(List.of(), null));
+        Mockito.when(tweeterService.getTweetsByUsernames(List.of("Alice"), TweetCursor.FIRST, 50))
+                .thenReturn(new TweetsPageResp(List.of(), null));
+        String tagBefore = controller.getTweets("user", List.of("#News"), null, 50, 0, null, null).getHeaders().getETag();
+        String userBefore = controller.getTweets("user", null, List.of("Alice"), 50, 0, null, null).getHeaders().getETag();
+
+        // Act
+        versions.onTweetCreated(new TweetCreatedEvent(tweet(1L, "alice", "#news")));
+        String tagAfter = controller.getTweets("user", List.of("#News"), null, 50, 0, null, tagBefore).getHeaders().getETag();
+        String userAfter = controller.getTweets("user", null, List.of("Alice"), 50, 0, null, userBefore).getHeaders().getETag();
+
+        // Assert
+        assertNotEquals(tagBefore, tagAfter);
+        assertNotEquals(userBefore, userAfter);
+    }
+
+    // Get tweets sends no ETag unless tweeter.etag.enabled is set
+    @Test
+    public void get_tweets_without_etag_by_default() {
+        // Arrange
+        ITweeterService tweeterService = Mockito.mock(ITweeterService.class);
+        TweeterController controller = new TweeterController(tweeterService, new TweetPageVersions(), false);
+        Mockito.when(tweeterService.getAllTweets(TweetCursor.FIRST, 50)).thenReturn(new TweetsPageResp(List.of(), null));
+
+        // Act
+        ResponseEntity<TweetsPageResp> response = controller.getTweets("user", null, null, 50, 0, null, "*");
+
+        // Assert
+        assertEquals("", HttpStatus.OK, response.getStatusCode());
+        assertNull(response.getHeaders().getETag());
+    }
+
+    private static Tweet tweet(Long id, String username, String tag) {
+        HashTag hashTag = new HashTag();
+        hashTag.setHashTag(tag);
+        Tweet tweet = new Tweet();
+        tweet.setId(id);
+        tweet.setUsername(username);
+        tweet.setContent("Hello");
+        tweet.setHashtags(Set.of(hashTag));
+        tweet.setCreatedAt(LocalDateTime.now());
+        return tweet;
+    }
+
+    // Search should pass the query and decoded cursor to the service, and reject a blank query
+    @Test
+    public void search_tweets_passes_query_and_cursor() {
+        // Arrange
+        ITweeterService tweeterService = Mockito.mock(ITweeterService.class);
+        TweeterController controller = new TweeterController(tweeterService);
+        TweetCursor cursor = new TweetCursor(LocalDateTime.of(2024, 5, 1, 10, 0), 42L);
+        TweetsPageResp page = new TweetsPageResp(List.of(), null);
+        Mockito.when(tweeterService.searchTweets("spring boot", cursor, 20)).thenReturn(page);
+
+        // Act
+        ResponseEntity<TweetsPageResp> response = controller.searchTweets("user", "spring boot", 20, cursor.encode());
+
+        // Assert
+        assertEquals("", HttpStatus.OK, response.getStatusCode());
+        assertEquals("", page, response.getBody());
+        assertThrows(BadRequestException.class, () -> controller.searchTweets("user", "  ", 20, null));
+        assertThrows(BadRequestException.class, () -> controller.searchTweets("user", "spring", 0, null));
+    }
 }
@@ -0,0 +1,177 @@
+package com.example.sbg.index;
+
+import com.example.sbg.events.TweetCreatedEvent;
+import com.example.sbg.events.TweetDeletedEvent;
+import com.example.sbg.model.Tweet;
+import com.example.sbg.repository.TweetContentRow;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class ContentIndexTest {
+
+    private static ContentIndex contentIndex(TweetIndexSource source, Path directory, int flushDocs, int maxSegments) {
+        return new ContentIndex(source, true, directory.toString(), flushDocs, maxSegments, 100);
+    }
+
+    private static TweetIndexSource source(List<TweetContentRow> rows) {
+        TweetIndexSource source = Mockito.mock(TweetIndexSource.class);
+        Mockito.when(source.findContentRowsAfter(Mockito.anyLong(), Mockito.anyInt())).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            return rows.stream().filter(row -> row.getId() > afterId).toList();
+        });
+        return source;
+    }
+
+    private static TweetContentRow row(long id, String content) {
+        return new TweetContentRow() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getContent() {
+                return content;
+            }
+        };
+    }
+
+    private static Tweet tweet(long id, String content) {
+        Tweet tweet = new Tweet();
+        tweet.setId(id);
+        tweet.setUsername("user");
+        tweet.setContent(content);
+        tweet.setHashtags(new HashSet<>());
+        tweet.setCreatedAt(LocalDateTime.now());
+        return tweet;
+    }
+
+    private static List<Long> ids(long[] ids) {
+        return Arrays.stream(ids).boxed().toList();
+    }
+
+    // A compressed posting list should return the encoded ids across block boundaries
+    @Test
+    public void test_compressed_posting_list_round_trip() {
+        // Arrange
+        long[] ids = LongStream.range(0, 1000).map(i -> 1_000_000_000L + i * i * 37).toArray();
+
+        // Act
+        CompressedPostingList list = new CompressedPostingList(ByteBuffer.wrap(CompressedPostingList.encode(ids)));
+
+        // Assert
+        assertEquals(ids.length, list.size());
+        assertArrayEquals(ids, list.toArray());
+        assertTrue(list.contains(ids[0]));
+        assertTrue(list.contains(ids[500]));
+        assertFalse(list.contains(ids[500] + 1));
+        long[] page = list.before(ids[300], 200);
+        assertEquals(200, page.length);
+        assertEquals(ids[299], page[0]);
+        assertEquals(ids[100], page[199]);
+        assertEquals(0, list.before(ids[0], 10).length);
+    }
+
+    // Searches should return tweets containing every term, newest first, across memory and flushed segments
+    @Test
+    public void test_search_matches_all_terms_newest_first(@TempDir Path directory) throws Exception {
+        // Arrange
+        ContentIndex index = contentIndex(source(List.of()), directory, 3, 8);
+        index.open();
+        index.onTweetCreated(new TweetCreatedEvent(tweet(1, "Spring Boot is great")));
+        index.onTweetCreated(new TweetCreatedEvent(tweet(2, "Boot camp")));
+        index.onTweetCreated(new TweetCreatedEvent(tweet(3, "spring cleaning, boot polishing")));
+        index.onTweetCreated(new TweetCreatedEvent(tweet(4, "SPRING boot!")));
+        index.onTweetCreated(new TweetCreatedEvent(tweet(5, "autumn")));
+
+        // Act
+        long[] both = index.findIdsBefore(Set.of("spring", "boot"), Long.MAX_VALUE, 10);
+        long[] paged = index.findIdsBefore(Set.of("spring", "boot"), 4, 1);
+        long[] missing = index.findIdsBefore(Set.of("spring", "winter"), Long.MAX_VALUE, 10);
+
+        // Assert
+        assertEquals(List.of(4L, 3L, 1L), ids(both));
+        assertEquals(List.of(3L), ids(paged));
+        assertEquals(0, missing.length);
+        index.close();
+    }
+
+    // Deleted tweets should disappear from results, whether they were still in memory or already flushed
+    @Test
+    public void test_deleted_tweets_are_not_returned(@TempDir Path directory) throws Exception {
+        // Arrange
+        ContentIndex index = contentIndex(source(List.of()), directory, 2, 8);
+        index.open();
+        index.onTweetCreated(new TweetCreatedEvent(tweet(1, "hello world")));
+        index.onTweetCreated(new TweetCreatedEvent(tweet(2, "hello there")));
+        index.onTweetCreated(new TweetCreatedEvent(tweet(3, "hello again")));
+
+        // Act
+        index.onTweetDeleted(new TweetDeletedEvent(tweet(1, "hello world")));
+        index.onTweetDeleted(new TweetDeletedEvent(tweet(3, "hello again")));
+
+        // Assert
+        assertEquals(List.of(2L), ids(index.findIdsBefore(Set.of("hello"), Long.MAX_VALUE, 10)));
+        index.close();
+    }
+
+    // A reopened index should keep its segments and tombstones, catch up from the database and merge segments
+    @Test
+    public void test_reopen_keeps_segments_and_catches_up(@TempDir Path directory) throws Exception {
+        // Arrange
+        List<TweetContentRow> rows = new ArrayList<>();
+        ContentIndex first = contentIndex(source(rows), directory, 2, 2);
+        first.open();
+        for (long id = 1; id <= 6; id++) {
+            rows.add(row(id, "tweet number " + id));
+            first.onTweetCreated(new TweetCreatedEvent(tweet(id, "tweet number " + id)));
+        }
+        rows.removeIf(row -> row.getId() == 2);
+        first.onTweetDeleted(new TweetDeletedEvent(tweet(2, "tweet number 2")));
+        first.close();
+        rows.add(row(7, "tweet written while the index was down"));
+
+        // Act
+        ContentIndex reopened = contentIndex(source(rows), directory, 2, 2);
+        reopened.open();
+
+        // Assert
+        assertTrue(reopened.isReady());
+        assertEquals(List.of(7L, 6L, 5L, 4L, 3L, 1L), ids(reopened.findIdsBefore(Set.of("tweet"), Long.MAX_VALUE, 10)));
+        assertEquals(List.of(7L), ids(reopened.findIdsBefore(Set.of("tweet", "down"), Long.MAX_VALUE, 10)));
+        reopened.close();
+    }
+
+    // Tweets should stay searchable while background flushes and merges move them into segments
+    @Test
+    public void test_background_flush_keeps_tweets_searchable(@TempDir Path directory) throws Exception {
+        // Arrange
+        ContentIndex index = contentIndex(source(List.of()), directory, 3, 2);
+        index.open();
+
+        // Act & Assert
+        for (long id = 1; id <= 60; id++) {
+            index.onTweetCreated(new TweetCreatedEvent(tweet(id, "flushed tweet " + id)));
+            for (long expected = 1; expected <= id; expected++) {
+                assertEquals(1, index.findIdsBefore(Set.of("flushed", String.valueOf(expected)), Long.MAX_VALUE, 10).length,
+                        "tweet " + expected + " missing after " + id + " writes");
+            }
+        }
+        index.close();
+        ContentIndex reopened = contentIndex(source(List.of()), directory, 3, 2);
+        reopened.open();
+        assertEquals(60, reopened.findIdsBefore(Set.of("flushed"), Long.MAX_VALUE, 100).length);
+        reopened.close();
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.sbg.ingest;
+
+import com.example.sbg.exceptions.ServiceUnavailableException;
+import com.example.sbg.model.Tweet;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class TweetIngestQueueTest {
+
+    private static Tweet tweet(long id, String content) {
+        Tweet tweet = new Tweet();
+        tweet.setId(id);
+        tweet.setUsername("writer");
+        tweet.setContent(content);
+        return tweet;
+    }
+
+    /**
+     * Records every batch and holds the first one until released, so the next tweets pile up behind it.
+     */
+    private static class GatedFlusher implements Function<List<Tweet>, List<Tweet>> {
+        final List<List<Long>> batches = new CopyOnWriteArrayList<>();
+        final CountDownLatch firstEntered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public List<Tweet> apply(List<Tweet> tweets) {
+            firstEntered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (tweets.stream().anyMatch(tweet -> tweet.getContent().equals("bad"))) {
+                throw new IllegalStateException("Cannot persist");
+            }
+            batches.add(tweets.stream().map(Tweet::getId).toList());
+            return tweets;
+        }
+    }
+
+    // Tweets queued while a flush is running should be persisted together in the next group commit
+    @Test
+    public void test_queued_tweets_are_flushed_as_one_batch() throws Exception {
+        // Arrange
+        GatedFlusher flusher = new GatedFlusher();
+        TweetIngestQueue queue = new TweetIngestQueue(100, 10, Duration.ofMillis(50), flusher, new SimpleMeterRegistry());
+        CompletableFuture<Tweet> first = queue.submit(tweet(1, "one"));
+        assertTrue(flusher.firstEntered.await(5, TimeUnit.SECONDS));
+
+        // Act
+        List<CompletableFuture<Tweet>> rest = List.of(queue.submit(tweet(2, "two")), queue.submit(tweet(3, "three")), queue.submit(tweet(4, "four")));
+        flusher.release.countDown();
+
+        // Assert
+        assertEquals(1L, first.get(5, TimeUnit.SECONDS).getId());
+        for (CompletableFuture<Tweet> future : rest) {
+            assertNotNull(future.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(List.of(List.of(1L), List.of(2L, 3L, 4L)), flusher.batches);
+        queue.close();
+    }
+
+    // A full queue should refuse new tweets with a 503 instead of growing
+    @Test
+    public void test_full_queue_rejects_tweets() throws Exception {
+        // Arrange
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        GatedFlusher flusher = new GatedFlusher();
+        TweetIngestQueue queue = new TweetIngestQueue(2, 10, Duration.ofMillis(10), flusher, meterRegistry);
+        queue.submit(tweet(1, "one"));
+        assertTrue(flusher.firstEntered.await(5, TimeUnit.SECONDS));
+        queue.submit(tweet(2, "two"));
+        queue.submit(tweet(3, "three"));
+
+        // Act & Assert
+        assertThrows(ServiceUnavailableException.class, () -> queue.submit(tweet(4, "four")));
+        assertEquals(2, queue.depth());
+        assertEquals(2.0, meterRegistry.get("tweeter.ingest.queue.depth").gauge().value());
+        assertEquals(1.0, meterRegistry.get("tweeter.ingest.rejected").counter().count());
+        flusher.release.countDown();
+        queue.close();
+    }
+
+    // A tweet that cannot be persisted should fail alone, while the rest of its batch is still persisted
+    @Test
+    public void test_failing_tweet_does_not_fail_its_batch() throws Exception {
+        // Arrange
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        GatedFlusher flusher = new GatedFlusher();
+        TweetIngestQueue queue = new TweetIngestQueue(100, 10, Duration.ofMillis(50), flusher, meterRegistry);
+        queue.submit(tweet(1, "one"));
+        assertTrue(flusher.firstEntered.await(5, TimeUnit.SECONDS));
+
+        // Act
+        CompletableFuture<Tweet> good = queue.submit(tweet(2, "two"));
+        CompletableFuture<Tweet> bad = queue.submit(tweet(3, "bad"));
+        CompletableFuture<Tweet> alsoGood = queue.submit(tweet(4, "four"));
+        flusher.release.countDown();
+
+        // Assert
+        assertEquals(2L, good.get(5, TimeUnit.SECONDS).getId());
+        assertEquals(4L, alsoGood.get(5, TimeUnit.SECONDS).getId());
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> bad.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+        assertEquals(1.0, meterRegistry.get("tweeter.ingest.failed").counter().count());
+        queue.close();
+    }
+
+    // close should flush what is still queued before the writer stops, and refuse later tweets
+    @Test
+    public void test_close_flushes_pending_tweets() throws Exception {
+        // Arrange
+        GatedFlusher flusher = new GatedFlusher();
+        TweetIngestQueue queue = new TweetIngestQueue(100, 10, Duration.ofMillis(50), flusher, new SimpleMeterRegistry());
+        queue.submit(tweet(1, "one"));
+        assertTrue(flusher.firstEntered.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Tweet> pending = queue.submit(tweet(2, "two"));
+
+        // Act
+        flusher.release.countDown();
+        queue.close(Duration.ofSeconds(5));
+
+        // Assert
+        assertTrue(pending.isDone());
+        assertEquals(2L, pending.get().getId());
+        assertThrows(ServiceUnavailableException.class, () -> queue.submit(tweet(3, "three")));
+    }
+}
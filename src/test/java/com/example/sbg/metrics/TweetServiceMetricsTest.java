@@ -0,0 +1,77 @@
+package com.example.sbg.metrics;
+
+import com.example.sbg.api.models.TweetCursor;
+import com.example.sbg.services.ITweeterService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@AutoConfigureObservability(tracing = false)
+public class TweetServiceMetricsTest {
+
+    @Autowired
+    private ITweeterService tweeterService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PrometheusMeterRegistry prometheusMeterRegistry;
+
+    // Each read should be timed under its variant, with its page size, result count and statements recorded
+    @Test
+    public void test_reads_are_timed_by_variant() {
+        // Arrange
+        tweeterService.createTweet("metrics_author", "Measured", List.of("#metrics"));
+        double before = timerCount("getTweetsByHashtags", "hashtags");
+
+        // Act
+        tweeterService.getTweetsByHashtags(List.of("#metrics"), TweetCursor.FIRST, 7);
+
+        // Assert
+        assertEquals(before + 1, timerCount("getTweetsByHashtags", "hashtags"));
+        assertEquals(7.0, meterRegistry.get("tweeter.service.page.size").tag("variant", "hashtags").tag("paging", "cursor").summary().max());
+        assertTrue(meterRegistry.get("tweeter.service.result.count").tag("variant", "hashtags").tag("paging", "cursor").summary().totalAmount() >= 1);
+        assertTrue(meterRegistry.get("tweeter.service.queries").tag("method", "createTweet").summary().max() >= 1);
+    }
+
+    // Failing calls should be timed with the exception that ended them
+    @Test
+    public void test_failures_are_tagged_with_exception() {
+        // Act
+        assertThrows(RuntimeException.class, () -> tweeterService.deleteTweet(-1L, "metrics_nobody"));
+
+        // Assert
+        Timer timer = meterRegistry.get("tweeter.service").tag("method", "deleteTweet").tag("variant", "none").timer();
+        assertNotEquals("none", timer.getId().getTag("exception"));
+    }
+
+    // Service timers and the Hikari pool should be exported in the Prometheus format
+    @Test
+    public void test_metrics_are_exported_to_prometheus() {
+        // Arrange
+        tweeterService.getAllTweets(0, 5);
+
+        // Act
+        String scrape = prometheusMeterRegistry.scrape();
+
+        // Assert
+        assertTrue(scrape.contains("tweeter_service_seconds_bucket"));
+        assertTrue(scrape.contains("variant=\"all\""));
+        assertTrue(scrape.contains("hikaricp_connections"));
+    }
+
+    private double timerCount(String method, String variant) {
+        Timer timer = meterRegistry.find("tweeter.service").tag("method", method).tag("variant", variant).tag("exception", "none").timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.sbg.model.id;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class SnowflakeTest {
+
+    // nextId should return unique, strictly increasing ids even within one millisecond
+    @Test
+    public void test_ids_are_unique_and_increasing() {
+        // Arrange
+        Snowflake snowflake = new Snowflake(3);
+        Set<Long> ids = new HashSet<>();
+        long previous = -1;
+
+        // Act & Assert
+        for (int i = 0; i < 20_000; i++) {
+            long id = snowflake.nextId();
+            assertTrue(id > previous);
+            assertTrue(ids.add(id));
+            previous = id;
+        }
+    }
+
+    // nextId should keep ids increasing when the clock moves backwards
+    @Test
+    public void test_ids_survive_clock_moving_backwards() {
+        // Arrange
+        long[] now = {Snowflake.EPOCH + 10_000};
+        Snowflake snowflake = new Snowflake(1) {
+            @Override
+            long currentTimeMillis() {
+                return now[0];
+            }
+        };
+
+        // Act
+        long before = snowflake.nextId();
+        now[0] -= 5_000;
+        long after = snowflake.nextId();
+
+        // Assert
+        assertTrue(after > before);
+        assertEquals(1, (after >> Snowflake.SEQUENCE_BITS) & Snowflake.MAX_WORKER_ID);
+    }
+
+    // The constructor should reject worker ids that do not fit in the worker bits
+    @Test
+    public void test_invalid_worker_id() {
+        assertThrows(IllegalArgumentException.class, () -> new Snowflake(Snowflake.MAX_WORKER_ID + 1));
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.sbg.repository;
+
+import com.example.sbg.api.models.TweetCursor;
+import com.example.sbg.api.models.TweetResp;
+import com.example.sbg.model.Tweet;
+import com.example.sbg.services.ITweeterService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class TweetHashTagColumnTest {
+
+    @Autowired
+    private ITweeterService tweeterService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Created tweets should store their tag names, sorted, in the tweet table itself
+    @Test
+    public void test_create_tweet_fills_hash_tags_column() {
+        // Act
+        Tweet tweet = tweeterService.createTweet("column_writer", "Denormalized", List.of("#zeta", "#alpha"));
+        Tweet untagged = tweeterService.createTweet("column_writer", "No tags", List.of());
+
+        // Assert
+        assertEquals("#alpha,#zeta", jdbcTemplate.queryForObject("select hash_tags from tweet where id = ?", String.class, tweet.getId()));
+        assertEquals("", jdbcTemplate.queryForObject("select hash_tags from tweet where id = ?", String.class, untagged.getId()));
+    }
+
+    // Pages should render tags from the column, without reading the join table
+    @Test
+    public void test_pages_read_tags_from_column() {
+        // Arrange
+        Tweet tweet = tweeterService.createTweet("column_reader", "Single table", List.of("#single"));
+        // Changing only the column shows which of the two sources the page was rendered from.
+        jdbcTemplate.update("update tweet set hash_tags = '#renamed' where id = ?", tweet.getId());
+
+        // Act
+        List<TweetResp> byCursor = tweeterService.getTweetsByUsernames(List.of("column_reader"), TweetCursor.FIRST, 10).getTweets();
+        List<TweetResp> byOffset = tweeterService.getTweetsByUsernames(List.of("column_reader"), 0, 10).getTweets();
+
+        // Assert
+        assertEquals(List.of("#renamed"), byCursor.get(0).getHashTags());
+        assertEquals(List.of("#renamed"), byOffset.get(0).getHashTags());
+    }
+
+    // Rows written before the column existed should fall back to the join table
+    @Test
+    public void test_rows_without_column_fall_back_to_join_table() {
+        // Arrange
+        Tweet tweet = tweeterService.createTweet("column_legacy", "Written earlier", List.of("#legacy"));
+        jdbcTemplate.update("update tweet set hash_tags = null where id = ?", tweet.getId());
+
+        // Act
+        List<TweetResp> tweets = tweeterService.getTweetsByUsernames(List.of("column_legacy"), TweetCursor.FIRST, 10).getTweets();
+
+        // Assert
+        assertEquals(List.of("#legacy"), tweets.get(0).getHashTags());
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.sbg.repository;
+
+import com.example.sbg.metrics.QueryCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs each finder once, captures the SQL Hibernate sent for it and checks its EXPLAIN output. On MySQL no
+ * step may use a filesort, except for several usernames: {@code username in (a, b)} is a range over
+ * (username, created_at, id), so newest-first order across users needs a sort. That sort is bounded by the
+ * page limit and only sees those users' rows, and the common timeline pages are served by TimelineCache.
+ * H2 only reports index-satisfied ordering without an equality prefix, so there the expected index must
+ * drive the scan, and scans of (created_at, id) must be index sorted.
+ */
+@SpringBootTest
+public class TweetRepositoryExplainTest {
+
+    private static final LocalDateTime CURSOR_CREATED_AT = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private static final long CURSOR_ID = Long.MAX_VALUE;
+    private static final int PAGE_SIZE = 10;
+
+    @TestConfiguration
+    static class RecordingConfig {
+        @Bean
+        @Primary
+        RecordingQueryCounter recordingQueryCounter() {
+            return new RecordingQueryCounter();
+        }
+    }
+
+    static class RecordingQueryCounter extends QueryCounter {
+        final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return super.inspect(sql);
+        }
+    }
+
+    @Autowired
+    private TweetRepository tweetRepository;
+
+    @Autowired
+    private RecordingQueryCounter queryCounter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void clearStatements() {
+        queryCounter.statements.clear();
+    }
+
+    // The keyset finder by user should read newest first from (username, created_at, id)
+    @Test
+    public void test_find_rows_by_usernames_uses_index_order() {
+        tweetRepository.findRowsByUsernamesBefore(List.of("explain_user"), CURSOR_CREATED_AT, CURSOR_ID, PageRequest.ofSize(PAGE_SIZE));
+        assertNoFilesort("idx_tweet_username_created_at_id", "explain_user", CURSOR_CREATED_AT, CURSOR_CREATED_AT, CURSOR_ID, PAGE_SIZE + 1);
+    }
+
+    // The keyset finder by several users should still range scan (username, created_at, id), sorting only those users' rows
+    @Test
+    public void test_find_rows_by_several_usernames_uses_username_index() {
+        tweetRepository.findRowsByUsernamesBefore(List.of("explain_user", "explain_other"), CURSOR_CREATED_AT, CURSOR_ID, PageRequest.ofSize(PAGE_SIZE));
+        assertUsesIndex("idx_tweet_username_created_at_id", "explain_user", "explain_other", CURSOR_CREATED_AT, CURSOR_CREATED_AT, CURSOR_ID, PAGE_SIZE + 1);
+    }
+
+    // The keyset finder by tag should walk (created_at, id) and probe the tags per tweet
+    @Test
+    public void test_find_rows_by_hashtags_uses_index_order() {
+        tweetRepository.findRowsByHashtagsBefore(List.of("#explain"), CURSOR_CREATED_AT, CURSOR_ID, PageRequest.ofSize(PAGE_SIZE));
+        assertNoFilesort("idx_tweet_created_at_id", "#explain", CURSOR_CREATED_AT, CURSOR_CREATED_AT, CURSOR_ID, PAGE_SIZE + 1);
+    }
+
+    // The keyset finder by user and tag should read newest first from (username, created_at, id)
+    @Test
+    public void test_find_rows_by_hashtags_and_usernames_uses_index_order() {
+        tweetRepository.findRowsByHashtagsAndUsernamesBefore(List.of("#explain"), List.of("explain_user"), CURSOR_CREATED_AT, CURSOR_ID, PageRequest.ofSize(PAGE_SIZE));
+        assertNoFilesort("idx_tweet_username_created_at_id", "explain_user", "#explain", CURSOR_CREATED_AT, CURSOR_CREATED_AT, CURSOR_ID, PAGE_SIZE + 1);
+    }
+
+    // The unfiltered keyset finder should read newest first from (created_at, id)
+    @Test
+    public void test_find_rows_uses_index_order() {
+        tweetRepository.findRowsBefore(CURSOR_CREATED_AT, CURSOR_ID, PageRequest.ofSize(PAGE_SIZE));
+        assertNoFilesort("idx_tweet_created_at_id", CURSOR_CREATED_AT, CURSOR_CREATED_AT, CURSOR_ID, PAGE_SIZE + 1);
+    }
+
+    // The offset finders should be ordered newest first by the same indexes
+    @Test
+    public void test_offset_finders_use_index_order() {
+        tweetRepository.findByUsernameIn(List.of("explain_user"), PageRequest.of(0, PAGE_SIZE));
+        assertNoFilesort("idx_tweet_username_created_at_id", "explain_user", PAGE_SIZE + 1);
+
+        tweetRepository.findAllBy(PageRequest.of(0, PAGE_SIZE));
+        assertNoFilesort("idx_tweet_created_at_id", PAGE_SIZE + 1);
+
+        tweetRepository.findByHashtags_HashTagIn(List.of("#explain"), PageRequest.of(0, PAGE_SIZE));
+        assertNoFilesort("idx_tweet_created_at_id", "#explain", PAGE_SIZE + 1);
+
+        tweetRepository.findByHashtags_HashTagInAndUsernameIn(List.of("#explain"), List.of("explain_user"), PageRequest.of(0, PAGE_SIZE));
+        assertNoFilesort("idx_tweet_username_created_at_id", "explain_user", "#explain", PAGE_SIZE + 1);
+    }
+
+    /**
+     * Explains the last statement the finder ran, binding {@code args} in statement order.
+     */
+    private void assertNoFilesort(String expectedIndex, Object... args) {
+        explain(expectedIndex, false, args);
+    }
+
+    /**
+     * Like {@link #assertNoFilesort}, but on MySQL only requires the expected index and allows a filesort.
+     */
+    private void assertUsesIndex(String expectedIndex, Object... args) {
+        explain(expectedIndex, true, args);
+    }
+
+    private void explain(String expectedIndex, boolean filesortAllowed, Object... args) {
+        List<String> statements = new ArrayList<>(queryCounter.statements);
+        queryCounter.statements.clear();
+        assertFalse(statements.isEmpty());
+        String sql = statements.get(statements.size() - 1);
+        List<Map<String, Object>> plan = jdbcTemplate.queryForList("explain " + sql, args);
+
+        if (isMySql() && filesortAllowed) {
+            assertTrue(plan.stream().anyMatch(step -> expectedIndex.equals(step.get("key"))), () -> sql + " -> " + plan);
+        } else if (isMySql()) {
+            for (Map<String, Object> step : plan) {
+                assertFalse(Objects.toString(step.get("Extra"), "").contains("Using filesort"), () -> sql + " -> " + plan);
+            }
+        } else {
+            String text = plan.toString();
+            assertTrue(text.contains("/* public." + expectedIndex), () -> sql + " -> " + text);
+            if (expectedIndex.equals("idx_tweet_created_at_id")) {
+                assertTrue(text.contains("/* index sorted */"), () -> sql + " -> " + text);
+            }
+        }
+    }
+
+    private boolean isMySql() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((Connection connection) ->
+                connection.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql")));
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.sbg.services;
+
+import com.example.sbg.api.models.BatchTweetResult;
+import com.example.sbg.api.models.PostTweetReq;
+import com.example.sbg.api.models.TweetCursor;
+import com.example.sbg.api.models.TweetResp;
+import com.example.sbg.api.models.TweetsPageResp;
+import com.example.sbg.events.TweetCreatedEvent;
+import com.example.sbg.events.TweetDeletedEvent;
+import com.example.sbg.exceptions.BadRequestException;
+import com.example.sbg.exceptions.ResourceNotFoundException;
+import com.example.sbg.index.ContentIndex;
+import com.example.sbg.model.HashTag;
+import com.example.sbg.model.Tweet;
+import com.example.sbg.services.implementation.LocalTweetService;
+import com.example.sbg.store.LocalTweetIndexSource;
+import com.example.sbg.store.LocalTweetStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The {@link TweetServiceTest} cases that apply to the local storage engine: creation and validation,
+ * batches, deletes, and the shape and links of offset and cursor pages. The cases on hash tag rows, the
+ * caches and the hash tag index only exist for the JPA store.
+ */
+public class LocalTweetServiceTest {
+
+    private static LocalTweetService service(Path directory, List<Object> events) throws Exception {
+        LocalTweetStore store = new LocalTweetStore(directory.toString(), 16, 0.5, Duration.ZERO, false);
+        store.open();
+        return new LocalTweetService(store, null, events::add, 0);
+    }
+
+    private static List<String> tweetIds(TweetsPageResp page) {
+        return page.getTweets().stream().map(TweetResp::getTweetId).toList();
+    }
+
+    // createTweet should store and return a Tweet with correct data, and publish it
+    @Test
+    public void test_create_tweet_with_correct_data(@TempDir Path directory) throws Exception {
+        // Arrange
+        List<Object> events = new ArrayList<>();
+        LocalTweetService tweetService = service(directory, events);
+
+        // Act
+        Tweet result = tweetService.createTweet("user1", "Hello World!", Arrays.asList("#hello", "#world", "#hello"));
+
+        // Assert
+        assertNotNull(result.getId());
+        assertEquals("user1", result.getUsername());
+        assertEquals("Hello World!", result.getContent());
+        assertEquals(Set.of("#hello", "#world"), result.getHashtags().stream().map(HashTag::getHashTag).collect(Collectors.toSet()));
+        assertEquals(1, events.size());
+        assertInstanceOf(TweetCreatedEvent.class, events.get(0));
+        TweetsPageResp page = tweetService.getAllTweets(0, 10);
+        assertEquals(List.of(result.getId().toString()), tweetIds(page));
+        assertEquals(List.of("#hello", "#world"), page.getTweets().get(0).getHashTags());
+    }
+
+    // createTweet should handle null hashtags gracefully and reject invalid ones
+    @Test
+    public void test_create_tweet_hashtag_validation(@TempDir Path directory) throws Exception {
+        // Arrange
+        LocalTweetService tweetService = service(directory, new ArrayList<>());
+
+        // Act
+        Tweet result = tweetService.createTweet("user2", "Test tweet", null);
+
+        // Assert
+        assertTrue(result.getHashtags().isEmpty());
+        assertThrows(BadRequestException.class, () -> tweetService.createTweet("user2", "Bad", List.of("nohash")));
+        assertThrows(BadRequestException.class, () -> tweetService.createTweet("user2", "x".repeat(2000), null));
+    }
+
+    // deleteTweet should remove a tweet if the username matches, and refuse other users and unknown ids
+    @Test
+    public void test_delete_tweet(@TempDir Path directory) throws Exception {
+        // Arrange
+        List<Object> events = new ArrayList<>();
+        LocalTweetService tweetService = service(directory, events);
+        Tweet tweet = tweetService.createTweet("user1", "Bye", List.of("#bye"));
+
+        // Act
+        assertThrows(ResourceNotFoundException.class, () -> tweetService.deleteTweet(tweet.getId(), "user2"));
+        tweetService.deleteTweet(tweet.getId(), "user1");
+
+        // Assert
+        assertInstanceOf(TweetDeletedEvent.class, events.get(events.size() - 1));
+        assertTrue(tweetService.getTweetsByHashtags(List.of("#bye"), 0, 10).getTweets().isEmpty());
+        assertThrows(ResourceNotFoundException.class, () -> tweetService.deleteTweet(tweet.getId(), "user1"));
+    }
+
+    // Offset pages should filter by tags and usernames, newest first, and link the next page like TweetService
+    @Test
+    public void test_get_tweets_offset_pages(@TempDir Path directory) throws Exception {
+        // Arrange
+        LocalTweetService tweetService = service(directory, new ArrayList<>());
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(tweetService.createTweet(i % 2 == 0 ? "user1" : "user2", "Tweet " + i, List.of(i < 3 ? "#hello" : "#world")).getId().toString());
+        }
+        List<String> hashtags = List.of("#hello", "#world");
+        List<String> usernames = List.of("user1");
+
+        // Act
+        TweetsPageResp both = tweetService.getTweetsByHashtagsAndUsernames(hashtags, usernames, 0, 2);
+        TweetsPageResp byHashtags = tweetService.getTweetsByHashtags(List.of("#hello"), 1, 2);
+        TweetsPageResp byUsernames = tweetService.getTweetsByUsernames(List.of("user2"), 0, 10);
+
+        // Assert
+        assertEquals(List.of(ids.get(4), ids.get(2)), tweetIds(both));
+        assertEquals(TweetsPageResp.createNextPageUrl(0, 2, hashtags, usernames), both.getNextPage());
+        assertEquals(List.of(ids.get(0)), tweetIds(byHashtags));
+        assertNull(byHashtags.getNextPage());
+        assertEquals(List.of(ids.get(3), ids.get(1)), tweetIds(byUsernames));
+        assertNull(byUsernames.getNextPage());
+    }
+
+    // Tag and username filters should match case-insensitively like the jpa store, also after a restart
+    @Test
+    public void test_get_tweets_filters_ignore_case(@TempDir Path directory) throws Exception {
+        // Arrange
+        LocalTweetService tweetService = service(directory, new ArrayList<>());
+        String java = tweetService.createTweet("Alice", "Tweet 0", List.of("#Java")).getId().toString();
+        String go = tweetService.createTweet("bob", "Tweet 1", List.of("#go")).getId().toString();
+
+        // Act
+        TweetsPageResp byHashtags = tweetService.getTweetsByHashtags(List.of("#java", "#JAVA"), TweetCursor.FIRST, 10);
+        TweetsPageResp byUsernames = tweetService.getTweetsByUsernames(List.of("alice", "BOB"), TweetCursor.FIRST, 10);
+        TweetsPageResp both = tweetService.getTweetsByHashtagsAndUsernames(List.of("#GO"), List.of("Bob"), 0, 10);
+        tweetService.deleteTweet(Long.valueOf(java), "Alice");
+        LocalTweetService reopened = service(directory, new ArrayList<>());
+
+        // Assert
+        assertEquals(List.of(java), tweetIds(byHashtags));
+        assertEquals(List.of(go, java), tweetIds(byUsernames));
+        assertEquals(List.of(go), tweetIds(both));
+        assertEquals(List.of(), tweetIds(reopened.getTweetsByHashtags(List.of("#JAVA"), TweetCursor.FIRST, 10)));
+        assertEquals(List.of(go), tweetIds(reopened.getTweetsByUsernames(List.of("BOB"), TweetCursor.FIRST, 10)));
+    }
+
+    // Cursor pages should seek past the cursor and link the next page by the last tweet
+    @Test
+    public void test_get_tweets_by_usernames_with_cursor(@TempDir Path directory) throws Exception {
+        // Arrange
+        LocalTweetService tweetService = service(directory, new ArrayList<>());
+        List<Tweet> tweets = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            tweets.add(tweetService.createTweet("user1", "Tweet " + i, null));
+        }
+        List<String> usernames = List.of("user1");
+
+        // Act
+        TweetsPageResp firstPage = tweetService.getTweetsByUsernames(usernames, TweetCursor.FIRST, 2);
+        TweetsPageResp lastPage = tweetService.getTweetsByUsernames(usernames, TweetCursor.after(tweets.get(1)), 2);
+
+        // Assert
+        assertEquals(List.of(tweets.get(4).getId().toString(), tweets.get(3).getId().toString()), tweetIds(firstPage));
+        assertEquals(TweetsPageResp.createNextPageUrl(TweetCursor.after(tweets.get(3)), 2, Collections.emptyList(), usernames), firstPage.getNextPage());
+        assertEquals(List.of(tweets.get(0).getId().toString()), tweetIds(lastPage));
+        assertNull(lastPage.getNextPage());
+    }
+
+    // createTweets should store valid items and report invalid ones without failing the rest
+    @Test
+    public void test_create_tweets_reports_invalid_items(@TempDir Path directory) throws Exception {
+        // Arrange
+        LocalTweetService tweetService = service(directory, new ArrayList<>());
+        List<PostTweetReq> requests = List.of(new PostTweetReq("One", List.of("#a")), new PostTweetReq("", null), new PostTweetReq("Three", List.of("bad")));
+
+        // Act
+        List<BatchTweetResult> results = tweetService.createTweets("user1", requests, 10);
+
+        // Assert
+        assertEquals(List.of(10, 11, 12), results.stream().map(BatchTweetResult::getIndex).toList());
+        assertEquals(List.of(201, 400, 400), results.stream().map(BatchTweetResult::getHttpCode).toList());
+        assertEquals(List.of(results.get(0).getTweetId()), tweetIds(tweetService.getAllTweets(TweetCursor.FIRST, 10)));
+    }
+
+    // Search should find tweets written before a restart, with the index rebuilt from the local store
+    @Test
+    public void test_search_tweets_after_restart(@TempDir Path directory, @TempDir Path searchDirectory) throws Exception {
+        // Arrange
+        LocalTweetStore store = new LocalTweetStore(directory.toString(), 16, 0.5, Duration.ZERO, false);
+        store.open();
+        LocalTweetService before = new LocalTweetService(store, null, event -> {
+        }, 0);
+        Tweet hello = before.createTweet("user1", "Hello world", null);
+        before.createTweet("user1", "Goodbye world", null);
+        store.close();
+
+        // Act
+        LocalTweetStore reopened = new LocalTweetStore(directory.toString(), 16, 0.5, Duration.ZERO, false);
+        reopened.open();
+        ContentIndex contentIndex = new ContentIndex(new LocalTweetIndexSource(reopened), true, searchDirectory.toString(), 100, 8, 100);
+        contentIndex.open();
+        LocalTweetService after = new LocalTweetService(reopened, contentIndex, event -> {
+        }, 0);
+        TweetsPageResp page = after.searchTweets("hello", TweetCursor.FIRST, 10);
+
+        // Assert
+        assertEquals(List.of(hello.getId().toString()), tweetIds(page));
+        assertEquals(2, tweetIds(after.searchTweets("world", TweetCursor.FIRST, 10)).size());
+    }
+}
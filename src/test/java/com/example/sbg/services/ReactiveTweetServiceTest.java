@@ -0,0 +1,137 @@
+package com.example.sbg.services;
+
+import com.example.sbg.api.models.TweetCursor;
+import com.example.sbg.api.models.TweetResp;
+import com.example.sbg.api.models.TweetsPageResp;
+import com.example.sbg.exceptions.BadRequestException;
+import com.example.sbg.exceptions.ResourceNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the reactive stack against an in-memory H2 database, reached over JDBC for the schema and the
+ * blocking service, and over R2DBC for {@link IReactiveTweeterService}.
+ */
+@SpringBootTest(properties = {
+        "spring.main.web-application-type=reactive",
+        "spring.datasource.url=jdbc:h2:mem:reactive;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password="
+})
+public class ReactiveTweetServiceTest {
+
+    @Autowired
+    private IReactiveTweeterService reactiveTweeterService;
+
+    @Autowired
+    private ITweeterService tweeterService;
+
+    // createTweet should store the tweet with its tags and make it readable by tag and by user
+    @Test
+    public void test_create_tweet_and_read_it_back() {
+        // Act
+        TweetResp created = reactiveTweeterService.createTweet("reactive_author", "Hello reactive", List.of("#reactive", "#r2dbc")).block();
+
+        // Assert
+        assertNotNull(created);
+        assertEquals("reactive_author", created.getCreatedBy());
+        StepVerifier.create(reactiveTweeterService.getTweetsByHashtags(List.of("#r2dbc"), TweetCursor.FIRST, 10))
+                .assertNext(tweet -> {
+                    assertEquals(created.getTweetId(), tweet.getTweetId());
+                    assertEquals(List.of("#r2dbc", "#reactive"), tweet.getHashTags().stream().sorted().toList());
+                })
+                .verifyComplete();
+        StepVerifier.create(reactiveTweeterService.getTweetsByHashtagsAndUsernames(List.of("#reactive"), List.of("reactive_author"), TweetCursor.FIRST, 10))
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    // getTweetsByUsernames should page newest first from the cursor
+    @Test
+    public void test_cursor_paging() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            reactiveTweeterService.createTweet("reactive_pager", "Tweet " + i, List.of("#paging")).block();
+        }
+
+        // Act
+        List<TweetResp> first = reactiveTweeterService.getTweetsByUsernames(List.of("reactive_pager"), TweetCursor.FIRST, 2).collectList().block();
+        List<TweetResp> second = reactiveTweeterService.getTweetsByUsernames(List.of("reactive_pager"), TweetCursor.after(first.get(1)), 2).collectList().block();
+
+        // Assert
+        assertEquals(List.of("Tweet 2", "Tweet 1"), first.stream().map(TweetResp::getTweetBody).toList());
+        assertEquals(List.of("Tweet 0"), second.stream().map(TweetResp::getTweetBody).toList());
+    }
+
+    // Tweets written reactively should be visible to the blocking service, including its caches
+    @Test
+    public void test_reactive_writes_are_visible_to_blocking_reads() {
+        // Arrange
+        tweeterService.getTweetsByUsernames(List.of("reactive_mixed"), TweetCursor.FIRST, 10);
+
+        // Act
+        TweetResp created = reactiveTweeterService.createTweet("reactive_mixed", "Written reactively", List.of("#mixed")).block();
+        TweetsPageResp byUser = tweeterService.getTweetsByUsernames(List.of("reactive_mixed"), TweetCursor.FIRST, 10);
+        TweetsPageResp byTag = tweeterService.getTweetsByHashtags(List.of("#mixed"), TweetCursor.FIRST, 10);
+
+        // Assert
+        assertEquals(List.of(created.getTweetId()), byUser.getTweets().stream().map(TweetResp::getTweetId).toList());
+        assertEquals(List.of(created.getTweetId()), byTag.getTweets().stream().map(TweetResp::getTweetId).toList());
+    }
+
+    // deleteTweet should only let the author delete, and remove the tweet with its tag links
+    @Test
+    public void test_delete_tweet() {
+        // Arrange
+        TweetResp created = reactiveTweeterService.createTweet("reactive_deleter", "Short lived", List.of("#gone")).block();
+        Long id = Long.valueOf(created.getTweetId());
+
+        // Act & Assert
+        StepVerifier.create(reactiveTweeterService.deleteTweet(id, "someone_else"))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+        StepVerifier.create(reactiveTweeterService.deleteTweet(id, "reactive_deleter"))
+                .verifyComplete();
+        StepVerifier.create(reactiveTweeterService.getTweetsByHashtags(List.of("#gone"), TweetCursor.FIRST, 10))
+                .verifyComplete();
+    }
+
+    // createTweet should insert several new tags at once next to an existing one
+    @Test
+    public void test_create_tweet_resolves_new_and_existing_tags() {
+        // Arrange
+        reactiveTweeterService.createTweet("reactive_tagger", "First", List.of("#known")).block();
+
+        // Act
+        TweetResp created = reactiveTweeterService.createTweet("reactive_tagger", "Second", List.of("#zulu", "#known", "#alpha")).block();
+
+        // Assert
+        assertNotNull(created);
+        StepVerifier.create(reactiveTweeterService.getTweetsByHashtags(List.of("#alpha"), TweetCursor.FIRST, 10))
+                .assertNext(tweet -> assertEquals(created.getTweetId(), tweet.getTweetId()))
+                .verifyComplete();
+        StepVerifier.create(reactiveTweeterService.getTweetsByHashtags(List.of("#known"), TweetCursor.FIRST, 10))
+                .expectNextCount(2)
+                .verifyComplete();
+    }
+
+    // createTweet should reject more than five hash tags without writing anything
+    @Test
+    public void test_create_tweet_too_many_hash_tags() {
+        // Act & Assert
+        StepVerifier.create(reactiveTweeterService.createTweet("reactive_author", "Tags", List.of("#a", "#b", "#c", "#d", "#e", "#f")))
+                .expectError(BadRequestException.class)
+                .verify();
+    }
+}
@@ -1,19 +1,37 @@
 package com.example.sbg.services;
 
+import com.example.sbg.api.models.BatchTweetResult;
+import com.example.sbg.api.models.PostTweetReq;
+import com.example.sbg.api.models.TweetCursor;
+import com.example.sbg.api.models.TweetResp;
 import com.example.sbg.api.models.TweetsPageResp;
+import com.example.sbg.cache.HashTagCache;
+import com.example.sbg.cache.TimelineCache;
+import com.example.sbg.events.TweetCreatedEvent;
+import com.example.sbg.events.TweetDeletedEvent;
+import com.example.sbg.exceptions.BadRequestException;
+import com.example.sbg.index.ContentIndex;
+import com.example.sbg.index.HashtagIndex;
+import com.example.sbg.index.TweetIndexSource;
 import com.example.sbg.mappers.TweetMapper;
 import com.example.sbg.model.HashTag;
 import com.example.sbg.model.Tweet;
 import com.example.sbg.repository.HashTagRepository;
 import com.example.sbg.repository.TweetRepository;
+import com.example.sbg.repository.TweetRow;
 import com.example.sbg.services.implementation.TweetService;
+import com.example.sbg.validation.TweetValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -23,7 +41,7 @@ import static org.junit.jupiter.api.Assertions.*;
 @SpringBootTest
 public class TweetServiceTest {
 
-    // createTweet should save and return a Tweet with correct data
+    // createTweet should save and return a Tweet with correct data, inserting new tags in sorted order
     @Test
     public void test_create_tweet_with_correct_data() {
         // Arrange
@@ -32,7 +50,7 @@ public class TweetServiceTest {
         TweetService tweetService = new TweetService(mockRepository, mockHashTagRepository);
         String username = "user1";
         String content = "Hello World!";
-        List<String> hashtags = Arrays.asList("#hello", "#world");
+        List<String> hashtags = Arrays.asList("#world", "#hello");
 
         Set<HashTag> hashTagSet = hashtags.stream().map(tag -> {
             HashTag hashTag = new HashTag();
@@ -47,8 +65,8 @@ public class TweetServiceTest {
         expectedTweet.setCreatedAt(LocalDateTime.now());
 
         Mockito.when(mockRepository.save(Mockito.any(Tweet.class))).thenReturn(expectedTweet);
-        Mockito.when(mockHashTagRepository.findByHashTag(Mockito.anyString())).thenReturn(Optional.empty());
-        Mockito.when(mockHashTagRepository.save(Mockito.any(HashTag.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        Mockito.when(mockHashTagRepository.findByHashTagIn(Mockito.anyCollection())).thenReturn(Collections.emptyList());
+        Mockito.when(mockHashTagRepository.lockByHashTagIn(Mockito.anyCollection())).thenReturn(new ArrayList<>(hashTagSet));
 
         // Act
         Tweet result = tweetService.createTweet(username, content, hashtags);
@@ -58,6 +76,32 @@ public class TweetServiceTest {
         assertEquals(username, result.getUsername());
         assertEquals(content, result.getContent());
         assertTrue(result.getHashtags().stream().map(HashTag::getHashTag).collect(Collectors.toSet()).containsAll(hashtags));
+        ArgumentCaptor<Collection<String>> inserted = ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(mockHashTagRepository, Mockito.times(1)).insertIgnore(inserted.capture());
+        assertEquals(List.of("#hello", "#world"), List.copyOf(inserted.getValue()));
+        Mockito.verify(mockHashTagRepository, Mockito.never()).save(Mockito.any(HashTag.class));
+    }
+
+    // createTweet should not insert tags that already exist
+    @Test
+    public void test_create_tweet_with_existing_hashtags() {
+        // Arrange
+        TweetRepository mockRepository = Mockito.mock(TweetRepository.class);
+        HashTagRepository mockHashTagRepository = Mockito.mock(HashTagRepository.class);
+        TweetService tweetService = new TweetService(mockRepository, mockHashTagRepository);
+        HashTag existing = new HashTag();
+        existing.setId(7L);
+        existing.setHashTag("#news");
+        Mockito.when(mockHashTagRepository.findByHashTagIn(Mockito.anyCollection())).thenReturn(List.of(existing));
+        Mockito.when(mockRepository.save(Mockito.any(Tweet.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Tweet result = tweetService.createTweet("user1", "Breaking", List.of("#news", "#news"));
+
+        // Assert
+        assertEquals(Set.of(existing), result.getHashtags());
+        Mockito.verify(mockHashTagRepository, Mockito.never()).insertIgnore(Mockito.anyCollection());
+        Mockito.verify(mockHashTagRepository, Mockito.never()).lockByHashTagIn(Mockito.anyCollection());
     }
 
     // deleteTweet should successfully remove a tweet if the username matches
@@ -215,4 +259,334 @@ public class TweetServiceTest {
         // Assert
         assertEquals(tweetsPageRespExp, result);
     }
+
+    // getTweetsByUsernames with a cursor should seek past the cursor and link the next page by the last tweet
+    @Test
+    public void test_get_tweets_by_usernames_with_cursor() {
+        // Arrange
+        Tweet newer = new Tweet();
+        newer.setId(2L);
+        newer.setUsername("user1");
+        newer.setContent("Second");
+        newer.setCreatedAt(LocalDateTime.of(2024, 5, 2, 10, 0));
+
+        Tweet older = new Tweet();
+        older.setId(1L);
+        older.setUsername("user1");
+        older.setContent("First");
+        older.setCreatedAt(LocalDateTime.of(2024, 5, 1, 10, 0));
+
+        TweetRepository mockRepository = Mockito.mock(TweetRepository.class);
+        HashTagRepository mockHashTagRepository = Mockito.mock(HashTagRepository.class);
+        TweetService tweetService = new TweetService(mockRepository, mockHashTagRepository);
+        List<String> usernames = List.of("user1");
+        TweetCursor cursor = new TweetCursor(LocalDateTime.of(2024, 5, 3, 10, 0), 3L);
+        Mockito.when(mockRepository.findRowsByUsernamesBefore(usernames, cursor.getCreatedAt(), cursor.getId(), PageRequest.ofSize(2)))
+                .thenReturn(new SliceImpl<>(List.of(tweetRow(newer), tweetRow(older)), PageRequest.ofSize(2), true));
+
+        // Act
+        TweetsPageResp result = tweetService.getTweetsByUsernames(usernames, cursor, 2);
+
+        // Assert
+        assertEquals(2, result.getTweets().size());
+        assertEquals(TweetsPageResp.createNextPageUrl(TweetCursor.after(older), 2, Collections.emptyList(), usernames), result.getNextPage());
+    }
+
+    // A cursor should survive an encode/decode round trip and reject malformed input
+    @Test
+    public void test_cursor_round_trip() {
+        TweetCursor cursor = new TweetCursor(LocalDateTime.of(2024, 5, 1, 10, 0, 0, 123456000), 42L);
+
+        assertEquals(cursor, TweetCursor.decode(cursor.encode()));
+        assertEquals(TweetCursor.FIRST, TweetCursor.decode(null));
+        assertThrows(BadRequestException.class, () -> TweetCursor.decode("not-a-cursor"));
+    }
+
+    // getTweetsByHashtags should serve cursor pages from the hash tag index in (createdAt, id) order, without
+    // duplicates and matching tags case-insensitively like the database
+    @Test
+    public void test_get_tweets_by_hashtags_from_index() {
+        // Arrange
+        TweetRepository mockRepository = Mockito.mock(TweetRepository.class);
+        HashTagRepository mockHashTagRepository = Mockito.mock(HashTagRepository.class);
+        TweetIndexSource mockSource = Mockito.mock(TweetIndexSource.class);
+        Mockito.when(mockSource.findHashTagRowsFrom(Mockito.anyLong(), Mockito.anyInt())).thenReturn(Collections.emptyList());
+        HashtagIndex hashtagIndex = new HashtagIndex(mockSource, true, 100);
+        hashtagIndex.rebuild();
+        TweetService tweetService = new TweetService(mockRepository, mockHashTagRepository, null, hashtagIndex, null, event -> {
+        });
+
+        Map<Long, Tweet> stored = new HashMap<>();
+        LocalDateTime base = LocalDateTime.of(2024, 5, 1, 10, 0);
+        int[] minutes = {0, 2, 1, 3};
+        for (long id = 1; id <= 4; id++) {
+            Tweet tweet = new Tweet();
+            tweet.setId(id);
+            tweet.setUsername("user");
+            tweet.setContent("Tweet " + id);
+            HashTag hashTag = new HashTag();
+            hashTag.setHashTag(id % 2 == 0 ? "#even" : "#odd");
+            HashTag shared = new HashTag();
+            shared.setHashTag("#all");
+            tweet.setHashtags(Set.of(hashTag, shared));
+            tweet.setCreatedAt(base.plusMinutes(minutes[(int) id - 1]));
+            stored.put(id, tweet);
+            hashtagIndex.onTweetCreated(new TweetCreatedEvent(tweet));
+        }
+        Mockito.when(mockRepository.findRowsByIdIn(Mockito.anyCollection())).thenAnswer(invocation -> {
+            List<TweetRow> found = new ArrayList<>();
+            for (Long id : invocation.<Iterable<Long>>getArgument(0)) {
+                found.add(tweetRow(stored.get(id)));
+            }
+            Collections.reverse(found);
+            return found;
+        });
+
+        // Act
+        TweetsPageResp firstPage = tweetService.getTweetsByHashtags(List.of("#ODD", "#all"), TweetCursor.FIRST, 3);
+        TweetsPageResp secondPage = tweetService.getTweetsByHashtags(List.of("#ODD", "#all"), TweetCursor.after(stored.get(3L)), 3);
+
+        // Assert
+        assertEquals(List.of("4", "2", "3"), firstPage.getTweets().stream().map(TweetResp::getTweetId).toList());
+        assertNotNull(firstPage.getNextPage());
+        assertEquals(List.of("1"), secondPage.getTweets().stream().map(TweetResp::getTweetId).toList());
+        assertNull(secondPage.getNextPage());
+        Mockito.verify(mockRepository, Mockito.never()).findRowsByHashtagsBefore(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    // The hash tag index should refuse a rebuild batch that one tweet's tag rows could fill, which would never advance
+    @Test
+    public void test_hashtag_index_rejects_rebuild_batch_within_one_tweet() {
+        // Arrange
+        TweetIndexSource mockSource = Mockito.mock(TweetIndexSource.class);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new HashtagIndex(mockSource, true, TweetValidator.MAX_HASH_TAGS_PER_TWEET));
+        assertDoesNotThrow(() -> new HashtagIndex(mockSource, true, TweetValidator.MAX_HASH_TAGS_PER_TWEET + 1));
+    }
+
+    // getTweetsByUsernames should merge cached timelines, including pushed and deleted tweets, without re-reading the database
+    @Test
+    public void test_get_tweets_by_usernames_from_timeline_cache() {
+        // Arrange
+        TweetRepository mockRepository = Mockito.mock(TweetRepository.class);
+        HashTagRepository mockHashTagRepository = Mockito.mock(HashTagRepository.class);
+        TimelineCache timelineCache = new TimelineCache(mockRepository, true, 10, 100);
+        TweetService tweetService = new TweetService(mockRepository, mockHashTagRepository, null, null, timelineCache, event -> {
+        });
+
+        LocalDateTime base = LocalDateTime.of(2024, 5, 1, 10, 0);
+        Tweet aliceOld = timelineTweet(1L, "alice", base);
+        Tweet bobOld = timelineTweet(2L, "bob", base.plusMinutes(1));
+        Tweet aliceNew = timelineTweet(3L, "alice", base.plusMinutes(2));
+        Tweet bobNew = timelineTweet(4L, "bob", base.plusMinutes(3));
+        Mockito.when(mockRepository.findRowsByUsernamesBefore(Mockito.eq(List.of("alice")), Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenReturn(new SliceImpl<>(List.of(tweetRow(aliceOld))));
+        Mockito.when(mockRepository.findRowsByUsernamesBefore(Mockito.eq(List.of("bob")), Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenReturn(new SliceImpl<>(List.of(tweetRow(bobOld))));
+
+        // Act
+        tweetService.getTweetsByUsernames(List.of("alice", "bob"), TweetCursor.FIRST, 10);
+        timelineCache.onTweetCreated(new TweetCreatedEvent(aliceNew));
+        timelineCache.onTweetCreated(new TweetCreatedEvent(bobNew));
+        timelineCache.onTweetDeleted(new TweetDeletedEvent(bobOld));
+        TweetsPageResp result = tweetService.getTweetsByUsernames(List.of("alice", "bob"), TweetCursor.FIRST, 2);
+
+        // Assert
+        assertEquals(List.of("4", "3"), result.getTweets().stream().map(TweetResp::getTweetId).toList());
+        assertNotNull(result.getNextPage());
+        Mockito.verify(mockRepository, Mockito.times(2)).findRowsByUsernamesBefore(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    // getTweetsByUsernames should share one timeline between spellings of a username, as the database matches them
+    @Test
+    public void test_get_tweets_by_usernames_from_timeline_cache_ignores_case() {
+        // Arrange
+        TweetRepository mockRepository = Mockito.mock(TweetRepository.class);
+        HashTagRepository mockHashTagRepository = Mockito.mock(HashTagRepository.class);
+        TimelineCache timelineCache = new TimelineCache(mockRepository, true, 10, 100);
+        TweetService tweetService = new TweetService(mockRepository, mockHashTagRepository, null, null, timelineCache, event -> {
+        });
+
+        LocalDateTime base = LocalDateTime.of(2024, 5, 1, 10, 0);
+        Tweet old = timelineTweet(1L, "alice", base);
+        Tweet created = timelineTweet(2L, "alice", base.plusMinutes(1));
+        Mockito.when(mockRepository.findRowsByUsernamesBefore(Mockito.eq(List.of("alice")), Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenReturn(new SliceImpl<>(List.of(tweetRow(old))));
+
+        // Act
+        TweetsPageResp first = tweetService.getTweetsByUsernames(List.of("Alice", "alice"), TweetCursor.FIRST, 10);
+        timelineCache.onTweetCreated(new TweetCreatedEvent(created));
+        TweetsPageResp second = tweetService.getTweetsByUsernames(List.of("ALICE"), TweetCursor.FIRST, 10);
+
+        // Assert
+        assertEquals(List.of("1"), first.getTweets().stream().map(TweetResp::getTweetId).toList());
+        assertEquals(List.of("2", "1"), second.getTweets().stream().map(TweetResp::getTweetId).toList());
+        Mockito.verify(mockRepository, Mockito.times(1)).findRowsByUsernamesBefore(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    // searchTweets should keep reading index hits past ids whose tweets are gone until the page is filled
+    @Test
+    public void test_search_tweets_fills_page_past_stale_ids() {
+        // Arrange
+        TweetRepository mockRepository = Mockito.mock(TweetRepository.class);
+        HashTagRepository mockHashTagRepository = Mockito.mock(HashTagRepository.class);
+        ContentIndex contentIndex = Mockito.mock(ContentIndex.class);
+        Mockito.when(contentIndex.isReady()).thenReturn(true);
+        long[] indexed = {6, 5, 4, 3, 2, 1};
+        Mockito.when(contentIndex.findIdsBefore(Mockito.anyCollection(), Mockito.anyLong(), Mockito.anyInt())).thenAnswer(invocation -> {
+            long beforeId = invocation.getArgument(1);
+            int limit = invocation.getArgument(2);
+            return Arrays.stream(indexed).filter(id -> id < beforeId).limit(limit).toArray();
+        });
+        Map<Long, Tweet> stored = new HashMap<>();
+        for (long id = 1; id <= 3; id++) {
+            stored.put(id, timelineTweet(id, "user", LocalDateTime.of(2024, 5, 1, 10, 0).plusMinutes(id)));
+        }
+        Mockito.when(mockRepository.findRowsByIdIn(Mockito.anyCollection())).thenAnswer(invocation -> {
+            List<TweetRow> found = new ArrayList<>();
+            for (Long id : invocation.<Iterable<Long>>getArgument(0)) {
+                if (stored.containsKey(id)) {
+                    found.add(tweetRow(stored.get(id)));
+                }
+            }
+            return found;
+        });
+        TweetService tweetService = new TweetService(mockRepository, mockHashTagRepository, null, null, null, contentIndex, event -> {
+        });
+
+        // Act
+        TweetsPageResp page = tweetService.searchTweets("hello", TweetCursor.FIRST, 2);
+
+        // Assert
+        assertEquals(List.of("3", "2"), page.getTweets().stream().map(TweetResp::getTweetId).toList());
+        assertNotNull(page.getNextPage());
+    }
+
+    private static TweetRow tweetRow(Tweet tweet) {
+        return new TweetRow() {
+            public Long getId() {
+                return tweet.getId();
+            }
+
+            public String getUsername() {
+                return tweet.getUsername();
+            }
+
+            public String getContent() {
+                return tweet.getContent();
+            }
+
+            public LocalDateTime getCreatedAt() {
+                return tweet.getCreatedAt();
+            }
+
+            public String getHashTags() {
+                return tweet.getHashtags().stream().map(HashTag::getHashTag).collect(Collectors.joining(","));
+            }
+        };
+    }
+
+    private static Tweet timelineTweet(Long id, String username, LocalDateTime createdAt) {
+        Tweet tweet = new Tweet();
+        tweet.setId(id);
+        tweet.setUsername(username);
+        tweet.setContent("Tweet " + id);
+        tweet.setCreatedAt(createdAt);
+        return tweet;
+    }
+
+    // createTweet should take hot tags from the hash tag cache and only query the repository for the rest
+    @Test
+    public void test_create_tweet_with_cached_hashtags() {
+        // Arrange
+        TweetRepository mockRepository = Mockito.mock(TweetRepository.class);
+        HashTagRepository mockHashTagRepository = Mockito.mock(HashTagRepository.class);
+        HashTagCache hashTagCache = new HashTagCache(mockHashTagRepository, new SimpleMeterRegistry(), 100, Duration.ofMinutes(1), 0);
+        TweetService tweetService = new TweetService(mockRepository, mockHashTagRepository, hashTagCache, null, null, event -> {
+        });
+        HashTag news = new HashTag();
+        news.setId(1L);
+        news.setHashTag("#news");
+        HashTag sport = new HashTag();
+        sport.setId(2L);
+        sport.setHashTag("#sport");
+        hashTagCache.put(news);
+        Mockito.when(mockHashTagRepository.findByHashTagIn(Set.of("#sport"))).thenReturn(List.of(sport));
+        Mockito.when(mockRepository.save(Mockito.any(Tweet.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Tweet first = tweetService.createTweet("user1", "Match report", List.of("#news", "#sport"));
+        Tweet second = tweetService.createTweet("user1", "Match report 2", List.of("#news", "#sport"));
+
+        // Assert
+        assertEquals(Set.of("#news", "#sport"), first.getHashtags().stream().map(HashTag::getHashTag).collect(Collectors.toSet()));
+        assertEquals(Set.of(1L, 2L), second.getHashtags().stream().map(HashTag::getId).collect(Collectors.toSet()));
+        Mockito.verify(mockHashTagRepository, Mockito.times(1)).findByHashTagIn(Mockito.anyCollection());
+        assertEquals(3, hashTagCache.stats().hitCount());
+    }
+
+    // The hash tag cache should serve a tag in any case, as the column collation matches it
+    @Test
+    public void test_create_tweet_with_cached_hashtags_ignores_case() {
+        // Arrange
+        TweetRepository mockRepository = Mockito.mock(TweetRepository.class);
+        HashTagRepository mockHashTagRepository = Mockito.mock(HashTagRepository.class);
+        HashTagCache hashTagCache = new HashTagCache(mockHashTagRepository, new SimpleMeterRegistry(), 100, Duration.ofMinutes(1), 0);
+        TweetService tweetService = new TweetService(mockRepository, mockHashTagRepository, hashTagCache, null, null, event -> {
+        });
+        HashTag java = new HashTag();
+        java.setId(1L);
+        java.setHashTag("#java");
+        hashTagCache.put(java);
+        Mockito.when(mockRepository.save(Mockito.any(Tweet.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Tweet result = tweetService.createTweet("user1", "Records", List.of("#Java", "#JAVA"));
+
+        // Assert
+        assertEquals(List.of(1L), result.getHashtags().stream().map(HashTag::getId).toList());
+        Mockito.verify(mockHashTagRepository, Mockito.never()).findByHashTagIn(Mockito.anyCollection());
+        assertEquals(2, hashTagCache.stats().hitCount());
+    }
+
+    // createTweets should resolve all tags of a chunk at once, link case variants of a stored tag to it, and report
+    // invalid items without failing the rest
+    @Test
+    public void test_create_tweets_batch() {
+        // Arrange
+        TweetRepository mockRepository = Mockito.mock(TweetRepository.class);
+        HashTagRepository mockHashTagRepository = Mockito.mock(HashTagRepository.class);
+        TweetService tweetService = new TweetService(mockRepository, mockHashTagRepository);
+        HashTag news = new HashTag();
+        news.setId(1L);
+        news.setHashTag("#news");
+        Mockito.when(mockHashTagRepository.findByHashTagIn(Mockito.anyCollection())).thenReturn(List.of(news));
+        Mockito.when(mockRepository.saveAll(Mockito.anyList())).thenAnswer(invocation -> {
+            List<Tweet> tweets = invocation.getArgument(0);
+            long id = 100;
+            for (Tweet tweet : tweets) {
+                tweet.setId(id++);
+            }
+            return tweets;
+        });
+        List<PostTweetReq> batch = List.of(
+                new PostTweetReq("One", List.of("#news")),
+                new PostTweetReq("Two", List.of("not a tag")),
+                new PostTweetReq("Three", List.of("#News")));
+
+        // Act
+        List<BatchTweetResult> results = tweetService.createTweets("user1", batch, 10);
+
+        // Assert
+        assertEquals(List.of(10, 11, 12), results.stream().map(BatchTweetResult::getIndex).toList());
+        assertEquals(List.of(201, 400, 201), results.stream().map(BatchTweetResult::getHttpCode).toList());
+        assertEquals("101", results.get(2).getTweetId());
+        ArgumentCaptor<List<Tweet>> saved = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(mockRepository).saveAll(saved.capture());
+        assertEquals(Set.of(news), saved.getValue().get(1).getHashtags());
+        Mockito.verify(mockHashTagRepository, Mockito.never()).insertIgnore(Mockito.anyCollection());
+        Mockito.verify(mockHashTagRepository, Mockito.times(1)).findByHashTagIn(Mockito.anyCollection());
+        Mockito.verify(mockRepository, Mockito.times(1)).saveAll(Mockito.anyList());
+    }
 }
@@ -0,0 +1,119 @@
+package com.example.sbg.services;
+
+import com.example.sbg.api.models.TweetCursor;
+import com.example.sbg.api.models.TweetResp;
+import com.example.sbg.exceptions.BadRequestException;
+import com.example.sbg.exceptions.TweetAcceptedException;
+import com.example.sbg.ingest.IngestAck;
+import com.example.sbg.model.Tweet;
+import com.example.sbg.services.implementation.TweetService;
+import com.example.sbg.services.implementation.WriteBehindTweetService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the write-behind service against an in-memory H2 database, acknowledging after the group commit.
+ */
+@SpringBootTest(properties = {
+        "tweeter.write-behind.enabled=true",
+        "tweeter.write-behind.ack=flush",
+        "spring.datasource.url=jdbc:h2:mem:writebehind;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+public class WriteBehindTweetServiceTest {
+
+    @Autowired
+    private ITweeterService tweeterService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // createTweet should go through the queue and be readable with its tags once acknowledged
+    @Test
+    public void test_create_tweet_is_persisted_before_ack() {
+        // Act
+        Tweet created = tweeterService.createTweet("queued_author", "Hello later", List.of("#queued", "#later"));
+
+        // Assert
+        assertInstanceOf(WriteBehindTweetService.class, tweeterService);
+        List<TweetResp> tweets = tweeterService.getTweetsByUsernames(List.of("queued_author"), TweetCursor.FIRST, 10).getTweets();
+        assertEquals(1, tweets.size());
+        assertEquals(created.getId().toString(), tweets.get(0).getTweetId());
+        assertEquals(List.of("#later", "#queued"), tweets.get(0).getHashTags().stream().sorted().toList());
+        assertEquals(1, tweeterService.getTweetsByHashtags(List.of("#later"), TweetCursor.FIRST, 10).getTweets().size());
+    }
+
+    // Invalid tweets should be refused before they are queued
+    @Test
+    public void test_invalid_tweet_is_rejected_synchronously() {
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> tweeterService.createTweet("queued_invalid", "Bad tag", List.of("no-hash")));
+        assertThrows(BadRequestException.class, () -> tweeterService.createTweet("queued_invalid", "", List.of()));
+        assertTrue(tweeterService.getTweetsByUsernames(List.of("queued_invalid"), TweetCursor.FIRST, 10).getTweets().isEmpty());
+    }
+
+    // Concurrent writers should all be persisted, sharing group commits and new tags
+    @Test
+    public void test_concurrent_creates_are_all_persisted() throws Exception {
+        // Arrange
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<Tweet>> futures = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 64; i++) {
+            String body = "Concurrent " + i;
+            futures.add(executor.submit(() -> tweeterService.createTweet("queued_crowd", body, List.of("#crowd", "#crowd" + (body.length() % 3)))));
+        }
+        for (Future<Tweet> future : futures) {
+            assertNotNull(future.get());
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(64, tweeterService.getTweetsByUsernames(List.of("queued_crowd"), TweetCursor.FIRST, 100).getTweets().size());
+        assertEquals(64, tweeterService.getTweetsByHashtags(List.of("#crowd"), TweetCursor.FIRST, 100).getTweets().size());
+        assertTrue(meterRegistry.get("tweeter.ingest.batch.size").summary().totalAmount() >= 64);
+    }
+
+    // A flush that outlasts the timeout should answer with the assigned id rather than an error to retry
+    @Test
+    public void test_flush_timeout_is_accepted_with_id() throws Exception {
+        // Arrange
+        TweetService slowService = Mockito.mock(TweetService.class);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(slowService.persistTweets(Mockito.anyList())).thenAnswer(invocation -> {
+            release.await();
+            return invocation.getArgument(0);
+        });
+        WriteBehindTweetService service = new WriteBehindTweetService(slowService, new SimpleMeterRegistry(),
+                IngestAck.FLUSH, 10, 10, Duration.ofMillis(50), Duration.ofMillis(50), 0);
+
+        // Act
+        TweetAcceptedException accepted = assertThrows(TweetAcceptedException.class,
+                () -> service.createTweet("queued_slow", "Eventually", List.of("#slow")));
+        release.countDown();
+        service.shutdown();
+
+        // Assert
+        assertNotNull(accepted.getTweet().getId());
+        assertEquals("queued_slow", accepted.getTweet().getUsername());
+        Mockito.verify(slowService).persistTweets(Mockito.argThat(tweets -> tweets.get(0).getId().equals(accepted.getTweet().getId())));
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.sbg.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocalTweetStoreTest {
+
+    private static LocalTweetStore store(Path directory) throws Exception {
+        LocalTweetStore store = new LocalTweetStore(directory.toString(), 4, 0.5, Duration.ZERO, false);
+        store.open();
+        return store;
+    }
+
+    private static StoredTweet tweet(long id, String username, String... hashtags) {
+        return new StoredTweet(id, username, "Tweet " + id, List.of(hashtags), LocalDateTime.of(2024, 5, 1, 10, 0).plusSeconds(id));
+    }
+
+    private static List<Long> ids(List<StoredTweet> tweets) {
+        return tweets.stream().map(StoredTweet::id).toList();
+    }
+
+    private static long segmentFiles(Path directory) throws Exception {
+        try (var files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".log")).count();
+        }
+    }
+
+    // The off-heap id index should find every entry after growing and after removals shift probe runs
+    @Test
+    public void test_off_heap_id_index() {
+        // Arrange
+        OffHeapIdIndex index = new OffHeapIdIndex(4);
+        Random random = new Random(7);
+        Map<Long, Long> expected = new HashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            long id = 1 + random.nextInt(20_000);
+            expected.put(id, (long) i);
+            index.put(id, i);
+        }
+
+        // Act
+        List<Long> removed = expected.keySet().stream().filter(id -> id % 3 == 0).toList();
+        removed.forEach(id -> {
+            assertTrue(index.remove(id));
+            expected.remove(id);
+        });
+
+        // Assert
+        assertEquals(expected.size(), index.size());
+        expected.forEach((id, location) -> assertEquals(location, index.get(id)));
+        removed.forEach(id -> assertEquals(-1, index.get(id)));
+        assertFalse(index.remove(removed.get(0)));
+    }
+
+    // Filters should match any of the tags and any of the usernames, both when combined, newest first
+    @Test
+    public void test_find_before_filters(@TempDir Path directory) throws Exception {
+        // Arrange
+        LocalTweetStore store = store(directory);
+        store.append(tweet(1, "alice", "#java"));
+        store.append(tweet(2, "bob", "#java", "#spring"));
+        store.append(tweet(3, "alice", "#spring"));
+        store.append(tweet(4, "carol"));
+        store.append(tweet(5, "bob", "#go"));
+
+        // Act & Assert
+        assertEquals(List.of(5L, 4L, 3L, 2L, 1L), ids(store.findBefore(List.of(), List.of(), Long.MAX_VALUE, 10)));
+        assertEquals(List.of(3L, 2L, 1L), ids(store.findBefore(List.of("#java", "#spring"), null, Long.MAX_VALUE, 10)));
+        assertEquals(List.of(5L, 2L), ids(store.findBefore(null, List.of("bob"), Long.MAX_VALUE, 10)));
+        assertEquals(List.of(3L, 1L), ids(store.findBefore(List.of("#java", "#spring"), List.of("alice"), Long.MAX_VALUE, 10)));
+        assertEquals(List.of(2L), ids(store.findBefore(List.of("#java"), List.of(), 3, 1)));
+        assertTrue(store.findBefore(List.of("#unknown"), List.of("alice"), Long.MAX_VALUE, 10).isEmpty());
+        assertEquals(tweet(3, "alice", "#spring"), store.find(3).orElseThrow());
+    }
+
+    // Reopening should replay the segments, keeping deletes, and appends should continue after the last tweet
+    @Test
+    public void test_recovery_replays_segments(@TempDir Path directory) throws Exception {
+        // Arrange
+        LocalTweetStore store = store(directory);
+        for (long id = 1; id <= 6; id++) {
+            store.append(tweet(id, id % 2 == 0 ? "even" : "odd", "#n" + id));
+        }
+        store.delete(2);
+        store.close();
+
+        // Act
+        LocalTweetStore reopened = store(directory);
+        reopened.append(tweet(7, "odd"));
+
+        // Assert
+        assertEquals(6, reopened.size());
+        assertTrue(reopened.find(2).isEmpty());
+        assertEquals(List.of(6L, 4L), ids(reopened.findBefore(null, List.of("even"), Long.MAX_VALUE, 10)));
+        assertEquals(List.of(7L, 5L, 3L, 1L), ids(reopened.findBefore(null, List.of("odd"), Long.MAX_VALUE, 10)));
+        assertEquals(2, segmentFiles(directory));
+    }
+
+    // Compaction should rewrite sealed segments with mostly deleted tweets and drop fully deleted ones
+    @Test
+    public void test_compaction_reclaims_deleted_tweets(@TempDir Path directory) throws Exception {
+        // Arrange
+        LocalTweetStore store = store(directory);
+        for (long id = 1; id <= 10; id++) {
+            store.append(tweet(id, "user", "#all"));
+        }
+        for (long id : new long[]{1, 2, 3, 5, 6, 7, 8}) {
+            store.delete(id);
+        }
+
+        // Act
+        store.compact();
+
+        // Assert
+        assertEquals(List.of(10L, 9L, 4L), ids(store.findBefore(List.of("#all"), null, Long.MAX_VALUE, 10)));
+        assertEquals(4, store.find(4).orElseThrow().id());
+        assertEquals(2, segmentFiles(directory));
+        store.close();
+        LocalTweetStore reopened = store(directory);
+        assertEquals(List.of(10L, 9L, 4L), ids(reopened.findBefore(null, List.of("user"), Long.MAX_VALUE, 10)));
+    }
+
+    // Recovery should order ids from a compacted segment, which holds the oldest tweets, before newer segments
+    @Test
+    public void test_recovery_after_compaction_keeps_id_order(@TempDir Path directory) throws Exception {
+        // Arrange
+        LocalTweetStore store = store(directory);
+        for (long id = 1; id <= 12; id++) {
+            store.append(tweet(id, "user", "#all"));
+        }
+        for (long id : new long[]{1, 2, 3}) {
+            store.delete(id);
+        }
+        store.compact();
+        store.close();
+
+        // Act
+        LocalTweetStore reopened = store(directory);
+
+        // Assert
+        assertEquals(List.of(12L, 11L, 10L, 9L, 8L, 7L, 6L, 5L, 4L), ids(reopened.findBefore(List.of("#all"), null, Long.MAX_VALUE, 20)));
+        assertEquals(List.of(5L, 4L), ids(reopened.findBefore(null, List.of("user"), 6, 2)));
+        assertEquals(List.of(4L, 5L, 6L), ids(reopened.findAfter(0, 3)));
+        assertEquals(List.of(11L, 12L), ids(reopened.findAfter(10, 5)));
+    }
+}
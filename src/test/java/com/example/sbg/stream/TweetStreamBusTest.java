@@ -0,0 +1,205 @@
+package com.example.sbg.stream;
+
+import com.example.sbg.api.models.TweetResp;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class TweetStreamBusTest {
+
+    private static TweetResp tweet(long id, String username, String... hashtags) {
+        return new TweetResp(String.valueOf(id), "Tweet " + id, List.of(hashtags), username, "2024-05-01T10:00:00");
+    }
+
+    private static class RecordingSink implements TweetStreamSink {
+        final BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        final CountDownLatch closed = new CountDownLatch(1);
+
+        @Override
+        public void send(TweetResp tweet) {
+            received.add(tweet.getTweetId());
+        }
+
+        @Override
+        public void close() {
+            closed.countDown();
+        }
+    }
+
+    // publish should deliver a tweet only to subscriptions whose filters match it
+    @Test
+    public void test_publish_routes_by_hash_tag_and_username() throws InterruptedException {
+        // Arrange
+        TweetStreamBus bus = new TweetStreamBus(new SimpleMeterRegistry(), 16, 100, 2, Duration.ofSeconds(10));
+        RecordingSink byTag = new RecordingSink();
+        RecordingSink byUser = new RecordingSink();
+        RecordingSink byTagAndUser = new RecordingSink();
+        RecordingSink everything = new RecordingSink();
+        bus.subscribe(List.of("#java"), null, byTag);
+        bus.subscribe(null, List.of("alice"), byUser);
+        bus.subscribe(List.of("#java"), List.of("bob"), byTagAndUser);
+        bus.subscribe(null, null, everything);
+
+        // Act
+        bus.publish(tweet(1, "alice", "#java"));
+        bus.publish(tweet(2, "bob", "#java", "#spring"));
+        bus.publish(tweet(3, "bob", "#spring"));
+
+        // Assert
+        assertEquals(List.of("1", "2"), take(byTag, 2));
+        assertEquals(List.of("1"), take(byUser, 1));
+        assertEquals(List.of("2"), take(byTagAndUser, 1));
+        assertEquals(List.of("1", "2", "3"), take(everything, 3));
+        assertNull(byUser.received.poll(100, TimeUnit.MILLISECONDS));
+        assertNull(byTagAndUser.received.poll(0, TimeUnit.MILLISECONDS));
+    }
+
+    // publish should match tags and usernames case-insensitively, like GET /tweets
+    @Test
+    public void test_publish_matches_ignoring_case() throws InterruptedException {
+        // Arrange
+        TweetStreamBus bus = new TweetStreamBus(new SimpleMeterRegistry(), 16, 100, 2, Duration.ofSeconds(10));
+        RecordingSink byTag = new RecordingSink();
+        RecordingSink byUser = new RecordingSink();
+        RecordingSink byTagAndUser = new RecordingSink();
+        bus.subscribe(List.of("#News"), null, byTag);
+        bus.subscribe(null, List.of("Alice"), byUser);
+        bus.subscribe(List.of("#NEWS"), List.of("BOB"), byTagAndUser);
+
+        // Act
+        bus.publish(tweet(1, "alice", "#news"));
+        bus.publish(tweet(2, "bob", "#News"));
+
+        // Assert
+        assertEquals(List.of("1", "2"), take(byTag, 2));
+        assertEquals(List.of("1"), take(byUser, 1));
+        assertEquals(List.of("2"), take(byTagAndUser, 1));
+    }
+
+    // A subscriber that stops reading should be dropped once its buffer overflows, without affecting others
+    // and without closing its sink on the publishing thread
+    @Test
+    public void test_slow_subscriber_is_dropped() throws InterruptedException {
+        // Arrange
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TweetStreamBus bus = new TweetStreamBus(meterRegistry, 2, 100, 2, Duration.ofMinutes(1));
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch stuckClosed = new CountDownLatch(1);
+        AtomicReference<Thread> closedOn = new AtomicReference<>();
+        bus.subscribe(null, List.of("carol"), new TweetStreamSink() {
+            @Override
+            public void send(TweetResp tweet) throws IOException {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException();
+                }
+            }
+
+            @Override
+            public void close() {
+                closedOn.set(Thread.currentThread());
+                stuckClosed.countDown();
+            }
+        });
+        RecordingSink healthy = new RecordingSink();
+        bus.subscribe(null, List.of("carol"), healthy);
+
+        // Act: pace on the healthy subscriber so only the stuck one can fall behind
+        List<String> delivered = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            bus.publish(tweet(i, "carol"));
+            delivered.addAll(take(healthy, 1));
+        }
+
+        // Assert
+        assertTrue(stuckClosed.await(5, TimeUnit.SECONDS));
+        assertEquals(10, delivered.size());
+        assertEquals(1, bus.subscriberCount());
+        assertEquals(1.0, meterRegistry.get("tweeter.stream.dropped").counter().count());
+        assertEquals(1.0, meterRegistry.get("tweeter.stream.subscribers").gauge().value());
+        assertNotSame(Thread.currentThread(), closedOn.get());
+        release.countDown();
+    }
+
+    // A send that outlives the write timeout should drop its subscriber and free the dispatcher thread
+    @Test
+    public void test_send_timeout_frees_dispatcher() throws InterruptedException {
+        // Arrange
+        TweetStreamBus bus = new TweetStreamBus(new SimpleMeterRegistry(), 16, 100, 1, Duration.ofMillis(100));
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch stuckClosed = new CountDownLatch(1);
+        bus.subscribe(null, List.of("dave"), new TweetStreamSink() {
+            @Override
+            public void send(TweetResp tweet) throws IOException {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException();
+                }
+            }
+
+            @Override
+            public void close() {
+                stuckClosed.countDown();
+            }
+        });
+        RecordingSink healthy = new RecordingSink();
+        bus.subscribe(null, List.of("erin"), healthy);
+
+        // Act
+        bus.publish(tweet(1, "dave"));
+        bus.publish(tweet(2, "erin"));
+
+        // Assert
+        assertEquals(List.of("2"), take(healthy, 1));
+        assertTrue(stuckClosed.await(5, TimeUnit.SECONDS));
+        assertEquals(1, bus.subscriberCount());
+        release.countDown();
+    }
+
+    // unsubscribe should stop delivery and free the subscriber slot
+    @Test
+    public void test_unsubscribe() throws InterruptedException {
+        // Arrange
+        TweetStreamBus bus = new TweetStreamBus(new SimpleMeterRegistry(), 16, 1, 1, Duration.ofSeconds(10));
+        RecordingSink sink = new RecordingSink();
+        TweetSubscription subscription = bus.subscribe(List.of("#java"), null, sink);
+
+        // Act
+        bus.unsubscribe(subscription);
+        bus.unsubscribe(subscription);
+        bus.publish(tweet(1, "alice", "#java"));
+
+        // Assert
+        assertEquals(0, bus.subscriberCount());
+        assertNull(sink.received.poll(100, TimeUnit.MILLISECONDS));
+        assertNotNull(bus.subscribe(null, null, new RecordingSink()));
+    }
+
+    private static List<String> take(RecordingSink sink, int count) throws InterruptedException {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String id = sink.received.poll(5, TimeUnit.SECONDS);
+            if (id == null) {
+                break;
+            }
+            ids.add(id);
+        }
+        return ids;
+    }
+}
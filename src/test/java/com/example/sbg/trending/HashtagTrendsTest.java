@@ -0,0 +1,148 @@
+package com.example.sbg.trending;
+
+import com.example.sbg.api.models.TrendingHashTag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class HashtagTrendsTest {
+
+    private static final int SKETCH_WIDTH = 2048;
+
+    private static HashtagTrends trends(AtomicLong clock, Duration refresh) {
+        return new HashtagTrends(Duration.ofMinutes(1), Duration.ofHours(1), SKETCH_WIDTH, 5, 200, 100, refresh, clock::get);
+    }
+
+    // On a Zipf-distributed corpus the top 20 should match the exact top 20, with counts within the sketch's error bound
+    @Test
+    public void test_top_k_tracks_exact_counts_on_synthetic_corpus() {
+        // Arrange
+        AtomicLong clock = new AtomicLong();
+        HashtagTrends trends = trends(clock, Duration.ZERO);
+        Random random = new Random(42);
+        int distinctTags = 20_000;
+        int uses = 200_000;
+        double[] cumulative = new double[distinctTags];
+        double sum = 0;
+        for (int rank = 0; rank < distinctTags; rank++) {
+            sum += 1 / Math.pow(rank + 1, 1.1);
+            cumulative[rank] = sum;
+        }
+        Map<String, Integer> exact = new HashMap<>();
+        for (int i = 0; i < uses; i++) {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+            String tag = "#t" + (rank < 0 ? -rank - 1 : rank);
+            exact.merge(tag, 1, Integer::sum);
+            trends.record(List.of(tag));
+        }
+
+        // Act
+        List<TrendingHashTag> top = trends.top(Duration.ofMinutes(5), 20);
+
+        // Assert
+        Set<String> exactTop = exact.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .limit(20)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+        long matching = top.stream().filter(tag -> exactTop.contains(tag.getHashTag())).count();
+        assertEquals(20, top.size());
+        assertTrue(matching >= 18, "only " + matching + " of the exact top 20 were reported");
+        double errorBound = Math.E / SKETCH_WIDTH * uses;
+        for (TrendingHashTag tag : top) {
+            int trueCount = exact.get(tag.getHashTag());
+            assertTrue(tag.getCount() >= trueCount);
+            assertTrue(tag.getCount() - trueCount <= errorBound, tag + " exceeds its count " + trueCount + " by more than " + errorBound);
+        }
+    }
+
+    // Counts should leave a window once their bucket is older than it
+    @Test
+    public void test_window_slides_over_buckets() {
+        // Arrange
+        AtomicLong clock = new AtomicLong();
+        HashtagTrends trends = trends(clock, Duration.ZERO);
+        for (int i = 0; i < 5; i++) {
+            trends.record(List.of("#old"));
+        }
+        clock.addAndGet(Duration.ofMinutes(30).toMillis());
+        for (int i = 0; i < 3; i++) {
+            trends.record(List.of("#new", "#old"));
+        }
+
+        // Act
+        List<TrendingHashTag> lastHour = trends.top(Duration.ofHours(1), 10);
+        List<TrendingHashTag> lastTenMinutes = trends.top(Duration.ofMinutes(10), 10);
+        clock.addAndGet(Duration.ofMinutes(40).toMillis());
+        List<TrendingHashTag> hourLater = trends.top(Duration.ofHours(1), 10);
+
+        // Assert
+        assertEquals(List.of(new TrendingHashTag("#old", 8), new TrendingHashTag("#new", 3)), lastHour);
+        assertEquals(List.of(new TrendingHashTag("#new", 3), new TrendingHashTag("#old", 3)), lastTenMinutes);
+        assertEquals(List.of(new TrendingHashTag("#new", 3), new TrendingHashTag("#old", 3)), hourLater);
+    }
+
+    // A window's ranking should be reused until the refresh interval passes, and bad arguments refused
+    @Test
+    public void test_ranking_is_cached_for_refresh_interval() {
+        // Arrange
+        AtomicLong clock = new AtomicLong();
+        HashtagTrends trends = trends(clock, Duration.ofSeconds(5));
+        trends.record(List.of("#first"));
+        trends.top(Duration.ofMinutes(5), 10);
+        trends.record(List.of("#second"));
+
+        // Act
+        List<TrendingHashTag> cached = trends.top(Duration.ofMinutes(5), 10);
+        clock.addAndGet(Duration.ofSeconds(5).toMillis());
+        List<TrendingHashTag> refreshed = trends.top(Duration.ofMinutes(5), 10);
+
+        // Assert
+        assertEquals(List.of(new TrendingHashTag("#first", 1)), cached);
+        assertEquals(2, refreshed.size());
+        assertThrows(IllegalArgumentException.class, () -> trends.top(Duration.ofHours(2), 10));
+        assertThrows(IllegalArgumentException.class, () -> trends.top(Duration.ofMinutes(5), 0));
+        assertThrows(IllegalArgumentException.class, () -> trends.top(Duration.ZERO, 10));
+    }
+
+    // Writers recording while rankings are recomputed should all be counted
+    @Test
+    public void test_record_concurrent_with_ranking() throws Exception {
+        // Arrange
+        AtomicLong clock = new AtomicLong();
+        HashtagTrends trends = trends(clock, Duration.ZERO);
+        ExecutorService writers = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // Act
+        for (int w = 0; w < 4; w++) {
+            futures.add(writers.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    trends.record(List.of("#hot", "#tag" + (i % 500)));
+                }
+            }));
+        }
+        while (futures.stream().anyMatch(future -> !future.isDone())) {
+            trends.top(Duration.ofMinutes(5), 10);
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        writers.shutdown();
+
+        // Assert
+        TrendingHashTag hottest = trends.top(Duration.ofMinutes(5), 1).get(0);
+        assertEquals("#hot", hottest.getHashTag());
+        assertTrue(hottest.getCount() >= 40_000);
+    }
+}
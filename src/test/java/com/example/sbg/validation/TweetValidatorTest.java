@@ -0,0 +1,53 @@
+package com.example.sbg.validation;
+
+import com.example.sbg.exceptions.BadRequestException;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class TweetValidatorTest {
+
+    // isValidHashTag should accept exactly what the previous regex accepted, up to the column length
+    @Test
+    public void test_hash_tag_validation() {
+        // Arrange
+        String longest = "#" + "a".repeat(TweetValidator.MAX_HASH_TAG_LENGTH - 1);
+
+        // Act & Assert
+        assertTrue(TweetValidator.isValidHashTag("#java_21"));
+        assertTrue(TweetValidator.isValidHashTag("#"));
+        assertTrue(TweetValidator.isValidHashTag(longest));
+        assertFalse(TweetValidator.isValidHashTag(longest + "a"));
+        assertFalse(TweetValidator.isValidHashTag("java"));
+        assertFalse(TweetValidator.isValidHashTag("#ja-va"));
+        assertFalse(TweetValidator.isValidHashTag("#čaj"));
+        assertFalse(TweetValidator.isValidHashTag(""));
+        assertFalse(TweetValidator.isValidHashTag(null));
+    }
+
+    // isValidUsername should accept word characters only
+    @Test
+    public void test_username_validation() {
+        // Act & Assert
+        assertTrue(TweetValidator.isValidUsername("john_Doe42"));
+        assertTrue(TweetValidator.isValidUsername(""));
+        assertFalse(TweetValidator.isValidUsername("john.doe"));
+        assertFalse(TweetValidator.isValidUsername("a".repeat(TweetValidator.MAX_USERNAME_LENGTH + 1)));
+        assertFalse(TweetValidator.isValidUsername(null));
+    }
+
+    // requireValidHashTags should name the first invalid tag
+    @Test
+    public void test_require_valid_hash_tags_throws() {
+        // Act
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> TweetValidator.requireValidHashTags(List.of("#ok", "#too_long_for_the_column")));
+
+        // Assert
+        assertEquals("Invalid hash tag: #too_long_for_the_column", exception.getMessage());
+    }
+}